@@ -1,7 +1,11 @@
 package com.testarchitect.framework.config;
 
+import com.testarchitect.framework.models.TestAccount;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -9,8 +13,10 @@ import java.util.Properties;
  */
 public class ConfigManager {
     private static final String CONFIG_FILE = "config.properties";
+    /** System property holding the URL of the started local storefront */
+    public static final String LOCAL_SERVER_URL = "local.server.url";
     private static Properties properties;
-    private static ConfigManager instance;
+    private static volatile ConfigManager instance;
 
     private ConfigManager() {
         loadProperties();
@@ -68,8 +74,23 @@ public class ConfigManager {
     }
 
     // Specific getters for common properties
+
+    /**
+     * Storefront URL with a trailing slash: {@code app.url}, or with {@code environment=local}
+     * the local storefront started at suite start
+     */
     public String getAppUrl() {
-        return getProperty("app.url");
+        String url;
+        if (isLocalEnvironment()) {
+            url = getProperty(LOCAL_SERVER_URL);
+            if (url == null) {
+                throw new RuntimeException("environment=local but the local storefront is not started; "
+                        + "start it with LocalStorefront.getInstance() first");
+            }
+        } else {
+            url = getProperty("app.url");
+        }
+        return url == null || url.endsWith("/") ? url : url + "/";
     }
 
     public String getBrowser() {
@@ -103,4 +124,164 @@ public class ConfigManager {
     public String getEnvironment() {
         return getProperty("environment", "qa");
     }
+
+    // Local stand-in storefront
+    public boolean isLocalEnvironment() {
+        return "local".equalsIgnoreCase(getEnvironment());
+    }
+
+    public int getLocalServerPort() {
+        return Math.max(0, getIntProperty("local.server.port", 0));
+    }
+
+    public int getLocalServerPopupDelayMs() {
+        return getIntProperty("local.server.popupDelayMs", 500);
+    }
+
+    public int getPageLoadTimeout() {
+        int defaultTimeout = "firefox".equalsIgnoreCase(getBrowser()) ? 120000 : 30000;
+        return getIntProperty("browser.pageLoadTimeout", defaultTimeout);
+    }
+
+    // Parallel execution
+    public String getParallelMode() {
+        return getProperty("parallel.mode", "none");
+    }
+
+    public int getThreadCount() {
+        return Math.max(1, getIntProperty("parallel.thread.count", 1));
+    }
+
+    public int getBrowserPoolSize() {
+        return Math.max(1, getIntProperty("browser.pool.size", getThreadCount()));
+    }
+
+    public int getDataProviderThreadCount() {
+        return Math.max(1, getIntProperty("parallel.dataprovider.thread.count", getBrowserPoolSize()));
+    }
+
+    // Browser lifecycle
+    public String getBrowserLifecycle() {
+        return getProperty("browser.lifecycle", "per-test");
+    }
+
+    public int getBrowserReuseMaxTests() {
+        return getIntProperty("browser.reuse.maxTests", 25);
+    }
+
+    public int getBrowserReuseMaxHeapMb() {
+        return getIntProperty("browser.reuse.maxHeapMb", 0);
+    }
+
+    public boolean isBrowserRecycledOnFailure() {
+        return getBooleanProperty("browser.reuse.recycleOnFailure", true);
+    }
+
+    public boolean isBrowserContextIsolation() {
+        return "context".equalsIgnoreCase(getProperty("browser.isolation", "none"));
+    }
+
+    // Page readiness
+    public int getNetworkIdleQuietMs() {
+        return getIntProperty("page.networkIdle.quietMs", 500);
+    }
+
+    public int getNetworkIdleMaxWaitMs() {
+        return getIntProperty("page.networkIdle.maxWaitMs", 10000);
+    }
+
+    // Test data
+    public String getDataSeed() {
+        return getProperty("data.seed");
+    }
+
+    public boolean isDataSeeded() {
+        return getBooleanProperty("data.seeded", true);
+    }
+
+    public int getBillingPoolSize() {
+        return Math.max(1, getIntProperty("billing.pool.size", 256));
+    }
+
+    public int getBillingPoolFillers() {
+        return Math.max(1, getIntProperty("billing.pool.fillers", 1));
+    }
+
+    // Test accounts
+    public List<TestAccount> getTestAccounts() {
+        List<TestAccount> accounts = new ArrayList<>();
+        for (String entry : getProperty("accounts.pool", "validuser@test.com:password123").split(",")) {
+            if (!entry.trim().isEmpty()) {
+                accounts.add(TestAccount.parse(entry.trim()));
+            }
+        }
+        return accounts;
+    }
+
+    public int getAccountLeaseTimeoutSeconds() {
+        return Math.max(1, getIntProperty("accounts.lease.timeoutSeconds", 300));
+    }
+
+    public int getAccountLeaseMaxSeconds() {
+        return Math.max(1, getIntProperty("accounts.lease.maxSeconds", 900));
+    }
+
+    public boolean isReclaimLeakedAccounts() {
+        return getBooleanProperty("accounts.lease.reclaimLeaked", false);
+    }
+
+    // Login session cache
+    public boolean isSessionCacheEnabled() {
+        return getBooleanProperty("session.cache.enabled", true);
+    }
+
+    public int getSessionCacheTtlMinutes() {
+        return Math.max(1, getIntProperty("session.cache.ttlMinutes", 30));
+    }
+
+    public String getSessionCookiePrefix() {
+        return getProperty("session.cookie.prefix", "wordpress_logged_in");
+    }
+
+    // Cart seeding
+    public int getCartSeedParallelism() {
+        return Math.max(1, getIntProperty("cart.seed.parallelism", 4));
+    }
+
+    // Order history fixtures
+    public boolean isOrderFixturesEnabled() {
+        return getBooleanProperty("orders.fixture.enabled", true);
+    }
+
+    public int getOrderFixtureCount() {
+        return Math.max(1, getIntProperty("orders.fixture.count", 2));
+    }
+
+    public int getOrderFixtureThreads() {
+        return Math.max(1, getIntProperty("orders.fixture.threads", 4));
+    }
+
+    public String getOrderFixturePaymentMethod() {
+        return getProperty("orders.fixture.paymentMethod", "cod");
+    }
+
+    public int getMatrixStrength() {
+        return Math.max(1, getIntProperty("matrix.strength", 2));
+    }
+
+    public String getTestDataFile() {
+        return getProperty("testdata.file", "src/test/resources/testdata/testcases.csv");
+    }
+
+    public String getTestDataSet() {
+        return getProperty("testdata.dataset", "TestCases");
+    }
+
+    public long getTestDataCacheMaxCells() {
+        return getIntProperty("testdata.cache.maxCells", 5000000);
+    }
+
+    public String getTestDataSnapshotDir() {
+        return getProperty("testdata.snapshot.dir", "target/testdata-snapshots");
+    }
 }
@@ -0,0 +1,179 @@
+package com.testarchitect.framework.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Comma separated (.csv) and tab separated (.tsv) test data. The file is memory-mapped and split into
+ * fields directly on the mapped bytes, which is safe for UTF-8 because delimiters, quotes and line
+ * breaks are ASCII. Fields may be quoted with double quotes, with "" as an escaped quote and
+ * embedded delimiters and line breaks. The first line holds the column names. Files are limited to 2 GB.
+ */
+public class CsvDataSource implements TestDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(CsvDataSource.class);
+
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    @Override
+    public String getName() {
+        return "csv";
+    }
+
+    @Override
+    public boolean supports(String filePath) {
+        String name = filePath.toLowerCase();
+        return name.endsWith(".csv") || name.endsWith(".tsv");
+    }
+
+    @Override
+    public Iterator<Map<String, String>> rows(String filePath, String dataset) {
+        byte delimiter = filePath.toLowerCase().endsWith(".tsv") ? (byte) '\t' : (byte) ',';
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            logger.error("Error reading CSV file: {}", filePath, e);
+            throw new RuntimeException("Failed to read CSV file: " + filePath, e);
+        }
+        return new CsvRowIterator(buffer, delimiter, filePath);
+    }
+
+    /**
+     * Lazily splits the mapped file into rows keyed by the header line
+     */
+    private static final class CsvRowIterator implements Iterator<Map<String, String>> {
+        private final MappedByteBuffer buffer;
+        private final byte delimiter;
+        private final String filePath;
+        private final List<String> headers;
+        private final ByteArrayOutputStream field = new ByteArrayOutputStream();
+        private int position;
+        private int rowCount;
+        private Map<String, String> nextRow;
+
+        CsvRowIterator(MappedByteBuffer buffer, byte delimiter, String filePath) {
+            this.buffer = buffer;
+            this.delimiter = delimiter;
+            this.filePath = filePath;
+
+            // Skip a UTF-8 byte order mark
+            if (buffer.limit() >= 3 && (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB
+                    && (buffer.get(2) & 0xFF) == 0xBF) {
+                position = 3;
+            }
+
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new RuntimeException("Header row not found in CSV file: " + filePath);
+            }
+            headers = header;
+            nextRow = readDataRow();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextRow != null;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (nextRow == null) {
+                throw new NoSuchElementException();
+            }
+            Map<String, String> row = nextRow;
+            rowCount++;
+            nextRow = readDataRow();
+            if (nextRow == null) {
+                logger.info("Read {} test data rows from {}", rowCount, filePath);
+            }
+            return row;
+        }
+
+        private Map<String, String> readDataRow() {
+            List<String> values;
+            while ((values = readRecord()) != null) {
+                boolean empty = true;
+                for (String value : values) {
+                    if (!value.trim().isEmpty()) {
+                        empty = false;
+                        break;
+                    }
+                }
+                if (!empty) {
+                    Map<String, String> row = new LinkedHashMap<>();
+                    for (int j = 0; j < headers.size(); j++) {
+                        row.put(headers.get(j), j < values.size() ? values.get(j) : "");
+                    }
+                    return Collections.unmodifiableMap(row);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Read the fields of the next record, or null at the end of the file
+         */
+        private List<String> readRecord() {
+            int limit = buffer.limit();
+            if (position >= limit) {
+                return null;
+            }
+
+            List<String> values = new ArrayList<>();
+            boolean quoted = false;
+            field.reset();
+            while (position < limit) {
+                byte b = buffer.get(position++);
+                if (quoted) {
+                    if (b == QUOTE) {
+                        if (position < limit && buffer.get(position) == QUOTE) {
+                            field.write(QUOTE);
+                            position++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.write(b);
+                    }
+                } else if (b == QUOTE) {
+                    quoted = true;
+                } else if (b == delimiter) {
+                    values.add(takeField());
+                } else if (b == LF || b == CR) {
+                    if (b == CR && position < limit && buffer.get(position) == LF) {
+                        position++;
+                    }
+                    break;
+                } else {
+                    field.write(b);
+                }
+            }
+            values.add(takeField());
+            return values;
+        }
+
+        private String takeField() {
+            String value = new String(field.toByteArray(), StandardCharsets.UTF_8);
+            field.reset();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.testarchitect.framework.data;
+
+import com.testarchitect.framework.utils.ExcelUtils;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Excel (.xlsx) test data, read through the {@link ExcelUtils} sheet cache and binary snapshots
+ */
+public class ExcelDataSource implements TestDataSource {
+
+    @Override
+    public String getName() {
+        return "excel";
+    }
+
+    @Override
+    public boolean supports(String filePath) {
+        return filePath.toLowerCase().endsWith(".xlsx");
+    }
+
+    @Override
+    public Iterator<Map<String, String>> rows(String filePath, String dataset) {
+        if (dataset == null) {
+            dataset = ExcelUtils.getSheetNames(filePath).get(0);
+        }
+        return ExcelUtils.query(filePath, dataset).rows();
+    }
+}
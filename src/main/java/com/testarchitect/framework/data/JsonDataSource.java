@@ -0,0 +1,178 @@
+package com.testarchitect.framework.data;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * JSON (.json) test data: an array of objects, or an object whose fields hold such arrays and are
+ * selected by dataset name. The file is read with Jackson's streaming parser one object at a time.
+ * Scalars become their text, null becomes "", nested objects and arrays become JSON text.
+ * The keys of the first object are the columns; later objects may add keys of their own.
+ */
+public class JsonDataSource implements TestDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(JsonDataSource.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public boolean supports(String filePath) {
+        return filePath.toLowerCase().endsWith(".json");
+    }
+
+    @Override
+    public Iterator<Map<String, String>> rows(String filePath, String dataset) {
+        JsonParser parser = null;
+        try {
+            parser = objectMapper.getFactory().createParser(new File(filePath));
+            JsonToken token = parser.nextToken();
+
+            if (token == JsonToken.START_OBJECT) {
+                if (dataset == null) {
+                    throw new RuntimeException("Dataset name required for JSON object file: " + filePath);
+                }
+                // Move to the array of the requested field
+                while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    token = parser.nextToken();
+                    if (dataset.equals(field)) {
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+                if (token != JsonToken.START_ARRAY) {
+                    throw new RuntimeException("Dataset not found: " + dataset);
+                }
+            } else if (token != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected an array of rows in JSON file: " + filePath);
+            }
+
+            return new JsonRowIterator(parser, filePath);
+        } catch (IOException e) {
+            closeQuietly(parser);
+            logger.error("Error reading JSON file: {}", filePath, e);
+            throw new RuntimeException("Failed to read JSON file: " + filePath, e);
+        } catch (RuntimeException e) {
+            closeQuietly(parser);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(JsonParser parser) {
+        if (parser != null) {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                logger.warn("Error closing JSON parser", e);
+            }
+        }
+    }
+
+    /**
+     * Reads one object of the row array at a time
+     */
+    private static final class JsonRowIterator implements Iterator<Map<String, String>> {
+        private final JsonParser parser;
+        private final String filePath;
+        private List<String> headers;
+        private Map<String, String> nextRow;
+        private int rowCount;
+
+        JsonRowIterator(JsonParser parser, String filePath) throws IOException {
+            this.parser = parser;
+            this.filePath = filePath;
+            nextRow = readRow();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextRow != null;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (nextRow == null) {
+                throw new NoSuchElementException();
+            }
+            Map<String, String> row = nextRow;
+            rowCount++;
+            try {
+                nextRow = readRow();
+            } catch (IOException e) {
+                closeQuietly(parser);
+                throw new RuntimeException("Failed to read JSON file: " + filePath, e);
+            }
+            if (nextRow == null) {
+                logger.info("Read {} test data rows from {}", rowCount, filePath);
+            }
+            return row;
+        }
+
+        /**
+         * Read objects until one with a non-blank value, or null at the end of the array
+         */
+        private Map<String, String> readRow() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                Map<String, String> values = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    values.put(field, readValue(parser.nextToken()));
+                }
+
+                if (headers == null) {
+                    headers = new ArrayList<>(values.keySet());
+                }
+                boolean empty = true;
+                for (String value : values.values()) {
+                    if (!value.trim().isEmpty()) {
+                        empty = false;
+                        break;
+                    }
+                }
+                if (!empty) {
+                    Map<String, String> row = new LinkedHashMap<>();
+                    for (String header : headers) {
+                        row.put(header, values.getOrDefault(header, ""));
+                    }
+                    row.putAll(values);
+                    return Collections.unmodifiableMap(row);
+                }
+            }
+
+            if (token != JsonToken.END_ARRAY) {
+                throw new RuntimeException("Expected an object per row in JSON file: " + filePath);
+            }
+            parser.close();
+            return null;
+        }
+
+        private String readValue(JsonToken token) throws IOException {
+            switch (token) {
+                case VALUE_NULL:
+                    return "";
+                case START_OBJECT:
+                case START_ARRAY:
+                    return objectMapper.readTree(parser).toString();
+                default:
+                    return parser.getText();
+            }
+        }
+    }
+}
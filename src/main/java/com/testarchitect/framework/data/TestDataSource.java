@@ -0,0 +1,33 @@
+package com.testarchitect.framework.data;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A format test data can be read from. Implementations are discovered with {@link java.util.ServiceLoader}
+ * and chosen by {@link TestDataSources} from the file name.
+ * <p>
+ * Every source follows the same row contract: each row is an unmodifiable map from column name to
+ * value in column order, columns missing from a row map to "", rows without any non-blank value are
+ * skipped, and rows are read lazily so a dataset never has to fit in memory at once.
+ */
+public interface TestDataSource {
+
+    /**
+     * Short name of the format, e.g. "excel" or "csv"
+     */
+    String getName();
+
+    /**
+     * Whether this source can read the file, usually decided by its extension
+     */
+    boolean supports(String filePath);
+
+    /**
+     * Iterate over the rows of a dataset
+     * @param filePath Path to the data file
+     * @param dataset Sheet name for Excel, top-level field for JSON objects; null where the file holds one dataset
+     * @return Lazy iterator over the rows; the file is released once the last row has been read
+     */
+    Iterator<Map<String, String>> rows(String filePath, String dataset);
+}
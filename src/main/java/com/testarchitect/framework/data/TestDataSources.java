@@ -0,0 +1,83 @@
+package com.testarchitect.framework.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of {@link TestDataSource} implementations. The built-in Excel, CSV/TSV and JSON sources and
+ * any others listed in {@code META-INF/services/com.testarchitect.framework.data.TestDataSource} are
+ * loaded once; a file is read by the first source that supports it.
+ */
+public class TestDataSources {
+    private static final Logger logger = LoggerFactory.getLogger(TestDataSources.class);
+    private static volatile List<TestDataSource> sources;
+
+    /**
+     * All registered sources, in discovery order
+     */
+    public static List<TestDataSource> getSources() {
+        if (sources == null) {
+            synchronized (TestDataSources.class) {
+                if (sources == null) {
+                    List<TestDataSource> loaded = new ArrayList<>();
+                    for (TestDataSource source : ServiceLoader.load(TestDataSource.class)) {
+                        loaded.add(source);
+                    }
+                    logger.info("Test data sources: {}", loaded.stream().map(TestDataSource::getName).toArray());
+                    sources = Collections.unmodifiableList(loaded);
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * The source that reads a file
+     * @throws RuntimeException if no source supports the file
+     */
+    public static TestDataSource forFile(String filePath) {
+        for (TestDataSource source : getSources()) {
+            if (source.supports(filePath)) {
+                return source;
+            }
+        }
+        throw new RuntimeException("No test data source supports file: " + filePath);
+    }
+
+    /**
+     * Iterate over the rows of a data file with the source for its format
+     * @param filePath Path to the data file
+     * @param dataset Sheet or dataset name; null where the file holds one dataset
+     */
+    public static Iterator<Map<String, String>> rows(String filePath, String dataset) {
+        logger.info("Reading test data from: {} dataset: {}", filePath, dataset);
+        return forFile(filePath).rows(filePath, dataset);
+    }
+
+    /**
+     * Rows of a data file as a lazy iterator to return from a TestNG {@code @DataProvider}
+     * @param filePath Path to the data file
+     * @param dataset Sheet or dataset name; null where the file holds one dataset
+     */
+    public static Iterator<Object[]> dataProvider(String filePath, String dataset) {
+        Iterator<Map<String, String>> rows = rows(filePath, dataset);
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{rows.next()};
+            }
+        };
+    }
+}
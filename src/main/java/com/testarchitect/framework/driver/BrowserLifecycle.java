@@ -0,0 +1,18 @@
+package com.testarchitect.framework.driver;
+
+/**
+ * How long a pooled browser lives
+ */
+public enum BrowserLifecycle {
+    /** Start a new browser for every test and quit it afterwards */
+    PER_TEST,
+    /** Keep the browser warm between tests and only wipe its state */
+    REUSE;
+
+    public static BrowserLifecycle fromString(String value) {
+        if (value != null && "reuse".equalsIgnoreCase(value.trim())) {
+            return REUSE;
+        }
+        return PER_TEST;
+    }
+}
@@ -0,0 +1,234 @@
+package com.testarchitect.framework.driver;
+
+import com.codeborne.selenide.WebDriverRunner;
+import com.testarchitect.framework.config.ConfigManager;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of browsers for parallel test execution.
+ * A worker thread acquires a browser before each test and owns it exclusively until release;
+ * the driver is bound to Selenide's thread-local container, so page objects using the static
+ * {@code $()} / {@code open()} API transparently resolve against the current thread's browser.
+ * In {@link BrowserLifecycle#REUSE} mode released browsers are wiped and kept warm for the next test;
+ * with context isolation every test additionally runs in its own {@link IsolatedContext}.
+ */
+public class BrowserPool {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserPool.class);
+    private static final long IDLE_POLL_MS = 100;
+    private static volatile BrowserPool instance;
+
+    private final BrowserSettings settings;
+    private final int maxSize;
+    private final BrowserLifecycle lifecycle;
+    private final int maxTestsPerBrowser;
+    private final int maxHeapMb;
+    private final boolean recycleOnFailure;
+
+    private final Semaphore slots;
+    private final Set<PooledBrowser> liveBrowsers = ConcurrentHashMap.newKeySet();
+    private final LinkedBlockingDeque<PooledBrowser> idleBrowsers = new LinkedBlockingDeque<>();
+    private final ThreadLocal<PooledBrowser> currentBrowser = new ThreadLocal<>();
+
+    BrowserPool(BrowserSettings settings, int maxSize, BrowserLifecycle lifecycle,
+                int maxTestsPerBrowser, int maxHeapMb, boolean recycleOnFailure) {
+        this.settings = settings;
+        this.maxSize = maxSize;
+        this.lifecycle = lifecycle;
+        this.maxTestsPerBrowser = maxTestsPerBrowser;
+        this.maxHeapMb = maxHeapMb;
+        this.recycleOnFailure = recycleOnFailure;
+        this.slots = new Semaphore(maxSize, true);
+    }
+
+    public static BrowserPool getInstance() {
+        if (instance == null) {
+            synchronized (BrowserPool.class) {
+                if (instance == null) {
+                    ConfigManager config = ConfigManager.getInstance();
+                    instance = new BrowserPool(
+                            BrowserSettings.fromConfig(config),
+                            config.getBrowserPoolSize(),
+                            BrowserLifecycle.fromString(config.getBrowserLifecycle()),
+                            config.getBrowserReuseMaxTests(),
+                            config.getBrowserReuseMaxHeapMb(),
+                            config.isBrowserRecycledOnFailure());
+                    logger.info("Browser pool created with max size {}, lifecycle {} and {}",
+                            instance.maxSize, instance.lifecycle, instance.settings);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Acquire a browser for the current thread, blocking until a warm browser or a pool slot is free
+     * @return WebDriver bound to the current thread
+     */
+    public WebDriver acquire() {
+        PooledBrowser browser = currentBrowser.get();
+        if (browser != null) {
+            return browser.getDriver();
+        }
+
+        try {
+            browser = takeBrowser();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a free browser", e);
+        }
+
+        browser.markUsed();
+        if (settings.isIsolatedContexts()) {
+            openContext(browser);
+        }
+        currentBrowser.set(browser);
+        WebDriverRunner.setWebDriver(browser.getDriver());
+        NavigationTracker.install();
+        NavigationTracker.markNavigated();
+        logger.info("Thread {} acquired {} (use #{}, {} of {} browsers live)",
+                Thread.currentThread().getName(), browser, browser.getUseCount(), liveBrowsers.size(), maxSize);
+        return browser.getDriver();
+    }
+
+    private void openContext(PooledBrowser browser) {
+        try {
+            browser.setContext(IsolatedContext.open(browser.getDriver(), settings));
+        } catch (RuntimeException e) {
+            dispose(browser);
+            throw e;
+        }
+    }
+
+    private PooledBrowser takeBrowser() throws InterruptedException {
+        while (true) {
+            // Most recently used first, it is the warmest
+            PooledBrowser idle = idleBrowsers.pollFirst();
+            if (idle != null) {
+                return idle;
+            }
+            if (slots.tryAcquire(IDLE_POLL_MS, TimeUnit.MILLISECONDS)) {
+                try {
+                    PooledBrowser created = new PooledBrowser(DriverFactory.createDriver(settings));
+                    liveBrowsers.add(created);
+                    return created;
+                } catch (RuntimeException e) {
+                    slots.release();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Release the browser owned by the current thread
+     * @param failed whether the test that used the browser failed
+     */
+    public void release(boolean failed) {
+        PooledBrowser browser = currentBrowser.get();
+        if (browser == null) {
+            return;
+        }
+        currentBrowser.remove();
+
+        if (browser.getContext() != null) {
+            try {
+                browser.getContext().close();
+            } catch (Exception e) {
+                logger.warn("Could not close browser context of {}, recycling it: {}", browser, e.getMessage());
+                dispose(browser);
+                return;
+            } finally {
+                browser.setContext(null);
+            }
+        }
+
+        String recycleReason = getRecycleReason(browser, failed);
+        if (recycleReason != null) {
+            logger.info("Thread {} releasing {}: recycling ({})", Thread.currentThread().getName(), browser, recycleReason);
+            dispose(browser);
+            return;
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            BrowserStateCleaner.reset(browser.getDriver());
+            logger.info("Thread {} returned {} to the pool, state reset in {} ms",
+                    Thread.currentThread().getName(), browser, System.currentTimeMillis() - start);
+            idleBrowsers.offerFirst(browser);
+        } catch (Exception e) {
+            logger.warn("Could not reset {}, recycling it: {}", browser, e.getMessage());
+            dispose(browser);
+        }
+    }
+
+    private String getRecycleReason(PooledBrowser browser, boolean failed) {
+        if (lifecycle == BrowserLifecycle.PER_TEST) {
+            return "per-test lifecycle";
+        }
+        if (failed && recycleOnFailure) {
+            return "test failed";
+        }
+        if (maxTestsPerBrowser > 0 && browser.getUseCount() >= maxTestsPerBrowser) {
+            return "served " + browser.getUseCount() + " tests";
+        }
+        if (maxHeapMb > 0) {
+            long usedHeapMb = BrowserStateCleaner.getUsedHeapMb(browser.getDriver());
+            if (usedHeapMb >= maxHeapMb) {
+                return "JS heap " + usedHeapMb + " MB";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Quit every browser still owned by the pool
+     */
+    public void shutdown() {
+        logger.info("Shutting down browser pool with {} live browsers", liveBrowsers.size());
+        idleBrowsers.clear();
+        for (PooledBrowser browser : liveBrowsers) {
+            dispose(browser);
+        }
+    }
+
+    private void dispose(PooledBrowser browser) {
+        if (!liveBrowsers.remove(browser)) {
+            return;
+        }
+        try {
+            browser.getDriver().quit();
+        } catch (Exception e) {
+            logger.warn("Error quitting {}: {}", browser, e.getMessage());
+        } finally {
+            slots.release();
+        }
+    }
+
+    public boolean hasBrowser() {
+        return currentBrowser.get() != null;
+    }
+
+    public BrowserLifecycle getLifecycle() {
+        return lifecycle;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getLiveCount() {
+        return liveBrowsers.size();
+    }
+
+    public int getIdleCount() {
+        return idleBrowsers.size();
+    }
+}
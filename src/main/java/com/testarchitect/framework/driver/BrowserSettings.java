@@ -0,0 +1,91 @@
+package com.testarchitect.framework.driver;
+
+import com.testarchitect.framework.config.ConfigManager;
+
+/**
+ * Immutable snapshot of the browser configuration used to start a pooled browser.
+ * Each worker thread builds its driver from this instead of the static Selenide Configuration.
+ */
+public final class BrowserSettings {
+    private final String browser;
+    private final boolean headless;
+    private final int width;
+    private final int height;
+    private final String firefoxBinaryPath;
+    private final int pageLoadTimeout;
+    private final String gridUrl;
+    private final boolean isolatedContexts;
+
+    public BrowserSettings(String browser, boolean headless, String browserSize, String firefoxBinaryPath,
+                           int pageLoadTimeout, String gridUrl, boolean isolatedContexts) {
+        this.browser = browser == null ? "chrome" : browser.toLowerCase();
+        this.headless = headless;
+        String[] size = (browserSize == null ? "1920x1080" : browserSize).toLowerCase().split("x");
+        this.width = Integer.parseInt(size[0].trim());
+        this.height = Integer.parseInt(size[1].trim());
+        this.firefoxBinaryPath = firefoxBinaryPath;
+        this.pageLoadTimeout = pageLoadTimeout;
+        this.gridUrl = gridUrl;
+        this.isolatedContexts = isolatedContexts;
+    }
+
+    public static BrowserSettings fromConfig(ConfigManager config) {
+        return new BrowserSettings(
+                config.getBrowser(),
+                config.isHeadless(),
+                config.getBrowserSize(),
+                config.getFirefoxBinaryPath(),
+                config.getPageLoadTimeout(),
+                config.isGridEnabled() ? config.getGridUrl() : null,
+                config.isBrowserContextIsolation()
+        );
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getFirefoxBinaryPath() {
+        return firefoxBinaryPath;
+    }
+
+    public int getPageLoadTimeout() {
+        return pageLoadTimeout;
+    }
+
+    public String getGridUrl() {
+        return gridUrl;
+    }
+
+    public boolean isIsolatedContexts() {
+        return isolatedContexts;
+    }
+
+    public boolean isRemote() {
+        return gridUrl != null && !gridUrl.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BrowserSettings{" +
+                "browser='" + browser + '\'' +
+                ", headless=" + headless +
+                ", size=" + width + "x" + height +
+                ", pageLoadTimeout=" + pageLoadTimeout +
+                ", gridUrl='" + gridUrl + '\'' +
+                ", isolatedContexts=" + isolatedContexts +
+                '}';
+    }
+}
@@ -0,0 +1,91 @@
+package com.testarchitect.framework.driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Wipes per-test browser state so a warm browser can be handed to the next test
+ */
+public class BrowserStateCleaner {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserStateCleaner.class);
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "var done = arguments[arguments.length - 1];\n" +
+            "try { window.localStorage.clear(); } catch (e) {}\n" +
+            "try { window.sessionStorage.clear(); } catch (e) {}\n" +
+            "if (!window.indexedDB || !indexedDB.databases) { done(true); return; }\n" +
+            "indexedDB.databases().then(function(dbs) {\n" +
+            "    return Promise.all(dbs.map(function(db) {\n" +
+            "        return new Promise(function(resolve) {\n" +
+            "            var request = indexedDB.deleteDatabase(db.name);\n" +
+            "            request.onsuccess = request.onerror = request.onblocked = function() { resolve(); };\n" +
+            "        });\n" +
+            "    }));\n" +
+            "}).then(function() { done(true); }, function() { done(false); });";
+
+    private static final String USED_HEAP_SCRIPT =
+            "return (window.performance && performance.memory) ? performance.memory.usedJSHeapSize : -1;";
+
+    /**
+     * Clear cookies, localStorage, sessionStorage and IndexedDB, close extra windows
+     * and park the browser on about:blank
+     * @param driver The browser to reset
+     */
+    public static void reset(WebDriver driver) {
+        closeExtraWindows(driver);
+
+        // Web storage is origin scoped, so it has to be cleared before leaving the page
+        String url = driver.getCurrentUrl();
+        if (url != null && url.startsWith("http")) {
+            try {
+                ((JavascriptExecutor) driver).executeAsyncScript(CLEAR_STORAGE_SCRIPT);
+            } catch (Exception e) {
+                logger.debug("Could not clear web storage on {}: {}", url, e.getMessage());
+            }
+        }
+
+        if (driver instanceof HasCdp) {
+            // Clears cookies of every domain, not just the current one
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+
+        driver.get("about:blank");
+    }
+
+    /**
+     * Get the JavaScript heap currently used by the browser
+     * @param driver The browser to inspect
+     * @return Used heap in MB, or -1 when the browser does not report it
+     */
+    public static long getUsedHeapMb(WebDriver driver) {
+        try {
+            Object bytes = ((JavascriptExecutor) driver).executeScript(USED_HEAP_SCRIPT);
+            long value = bytes instanceof Number ? ((Number) bytes).longValue() : -1;
+            return value < 0 ? -1 : value / (1024 * 1024);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static void closeExtraWindows(WebDriver driver) {
+        Set<String> handles = driver.getWindowHandles();
+        if (handles.size() <= 1) {
+            return;
+        }
+        String mainHandle = handles.iterator().next();
+        for (String handle : handles) {
+            if (!handle.equals(mainHandle)) {
+                driver.switchTo().window(handle).close();
+            }
+        }
+        driver.switchTo().window(mainHandle);
+    }
+}
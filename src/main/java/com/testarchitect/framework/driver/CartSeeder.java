@@ -0,0 +1,300 @@
+package com.testarchitect.framework.driver;
+
+import com.testarchitect.framework.config.ConfigManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the cart of the browser's session through HTTP calls made by the page itself, so the session
+ * cookie is shared with the UI and no product page has to be opened. Items go in through one WooCommerce
+ * Store API batch per 25 items where the site has the Store API, otherwise through
+ * {@code ?add-to-cart=<id>&quantity=<n>} requests, {@code cart.seed.parallelism} at a time. The first
+ * request runs alone so the session exists before parallel requests write to it; items the cart does not
+ * show afterwards (lost to concurrent session writes) are added again one by one. Store API calls carry
+ * the WordPress REST nonce, so a logged-in session fills its own cart rather than a guest cart.
+ */
+public class CartSeeder {
+    private static final Logger logger = LoggerFactory.getLogger(CartSeeder.class);
+
+    /** Async scripts must return before the WebDriver script timeout (30 seconds by default) */
+    private static final long MAX_WAIT_MS = 25000;
+
+    private static final String SEED_SCRIPT =
+            "var site = arguments[0], requested = arguments[1], productCount = arguments[2], quantity = arguments[3];\n" +
+            "var parallelism = Math.max(1, arguments[4]), deadline = Date.now() + arguments[5];\n" +
+            "var done = arguments[arguments.length - 1], started = Date.now();\n" +
+            "var storeApi = site + '/wp-json/wc/store/v1', nonce = null;\n" +
+            "var wpNonce = window.wpApiSettings && window.wpApiSettings.nonce || null;\n" +
+            "var result = { mode: 'add-to-cart', added: [], failed: [], cartCount: -1, error: null };\n" +
+            "function request(url, options) {\n" +
+            "    options = options || {};\n" +
+            "    options.credentials = 'same-origin';\n" +
+            "    options.headers = options.headers || {};\n" +
+            "    if (wpNonce && url.indexOf(storeApi) === 0) { options.headers['X-WP-Nonce'] = wpNonce; }\n" +
+            "    if (Date.now() > deadline) { return Promise.reject(new Error('Cart seeding timed out')); }\n" +
+            "    return fetch(url, options);\n" +
+            "}\n" +
+            "function json(response) { return response.ok ? response.json() : Promise.reject(new Error(response.status + ' ' + response.url)); }\n" +
+            "function unique(ids) { return ids.filter(function(id, i) { return id && ids.indexOf(id) === i; }); }\n" +
+            // Cart of the session from the Store API; null where the site has none
+            "function readCart() {\n" +
+            "    return request(storeApi + '/cart', { headers: { 'Accept': 'application/json' } }).then(function(response) {\n" +
+            "        if (!response.ok) { return null; }\n" +
+            "        nonce = response.headers.get('Nonce') || response.headers.get('X-WC-Store-API-Nonce') || nonce;\n" +
+            "        return response.json().then(function(cart) { return cart && cart.items ? cart : null; });\n" +
+            "    }).catch(function() { return null; });\n" +
+            "}\n" +
+            // Without the WordPress REST nonce the Store API treats a logged-in browser as a guest with another cart
+            "function loadWpNonce() {\n" +
+            "    if (wpNonce) { return Promise.resolve(); }\n" +
+            "    return request(site + '/wp-admin/admin-ajax.php?action=rest-nonce')\n" +
+            "        .then(function(response) { return response.ok ? response.text() : ''; })\n" +
+            "        .then(function(text) { if (/^[0-9a-f]{6,}$/.test(text.trim())) { wpNonce = text.trim(); } }, function() {});\n" +
+            "}\n" +
+            "function discover() {\n" +
+            "    if (requested.length) { return Promise.resolve(requested); }\n" +
+            "    function toItems(ids) {\n" +
+            "        return unique(ids.map(String)).slice(0, productCount).map(function(id) { return { id: id, quantity: quantity }; });\n" +
+            "    }\n" +
+            "    return request(storeApi + '/products?per_page=' + productCount + '&type=simple&stock_status=instock')\n" +
+            "        .then(json)\n" +
+            "        .then(function(products) {\n" +
+            "            if (!products.length) { throw new Error('No products'); }\n" +
+            "            return toItems(products.map(function(product) { return product.id; }));\n" +
+            "        })\n" +
+            "        .catch(function() {\n" +
+            // No Store API: take the products the shop page offers as simple add-to-cart buttons
+            "            return request(site + '/shop/').then(function(response) { return response.text(); }).then(function(html) {\n" +
+            "                var page = new DOMParser().parseFromString(html, 'text/html');\n" +
+            "                var buttons = page.querySelectorAll('[data-product_id]');\n" +
+            "                return toItems(Array.prototype.map.call(buttons, function(button) {\n" +
+            "                    return button.getAttribute('data-product_id');\n" +
+            "                }));\n" +
+            "            });\n" +
+            "        });\n" +
+            "}\n" +
+            "function addViaQuery(item) {\n" +
+            "    return request(site + '/?add-to-cart=' + encodeURIComponent(item.id) + '&quantity=' + item.quantity)\n" +
+            "        .then(function(response) { return response.ok; }, function() { return false; })\n" +
+            "        .then(function(ok) { (ok ? result.added : result.failed).push(item.id); });\n" +
+            "}\n" +
+            "function addAllViaQuery(items) {\n" +
+            "    var next = 0;\n" +
+            "    function worker() {\n" +
+            "        if (next >= items.length) { return Promise.resolve(); }\n" +
+            "        return addViaQuery(items[next++]).then(worker);\n" +
+            "    }\n" +
+            "    var workers = [];\n" +
+            "    for (var i = 0; i < Math.min(parallelism, items.length); i++) { workers.push(worker()); }\n" +
+            "    return Promise.all(workers);\n" +
+            "}\n" +
+            "function addAllViaBatch(items) {\n" +
+            "    var chunks = [];\n" +
+            "    for (var i = 0; i < items.length; i += 25) { chunks.push(items.slice(i, i + 25)); }\n" +
+            "    return chunks.reduce(function(previous, chunk) {\n" +
+            "        return previous.then(function() {\n" +
+            "            var body = { requests: chunk.map(function(item) {\n" +
+            "                return { path: '/wc/store/v1/cart/add-item', method: 'POST', headers: { 'Nonce': nonce },\n" +
+            "                    body: { id: Number(item.id) || item.id, quantity: item.quantity } };\n" +
+            "            }) };\n" +
+            "            return request(storeApi + '/batch', { method: 'POST', body: JSON.stringify(body),\n" +
+            "                headers: { 'Content-Type': 'application/json', 'Nonce': nonce } })\n" +
+            "                .then(json)\n" +
+            "                .then(function(batch) {\n" +
+            "                    chunk.forEach(function(item, j) {\n" +
+            "                        var response = batch.responses && batch.responses[j];\n" +
+            "                        var ok = response && response.status >= 200 && response.status < 300;\n" +
+            "                        (ok ? result.added : result.failed).push(item.id);\n" +
+            "                    });\n" +
+            "                }, function() {\n" +
+            "                    chunk.forEach(function(item) { result.failed.push(item.id); });\n" +
+            "                });\n" +
+            "        });\n" +
+            "    }, Promise.resolve());\n" +
+            "}\n" +
+            "function missingFrom(cart, items) {\n" +
+            "    var inCart = (cart.items || []).map(function(line) { return String(line.id); });\n" +
+            "    return items.filter(function(item) { return inCart.indexOf(String(item.id)) < 0; });\n" +
+            "}\n" +
+            "var items;\n" +
+            "loadWpNonce().then(discover).then(function(found) {\n" +
+            "    items = found;\n" +
+            "    if (!items.length) { throw new Error('No products found to add to the cart'); }\n" +
+            "    return readCart();\n" +
+            "}).then(function(cart) {\n" +
+            "    if (cart && nonce) {\n" +
+            "        result.mode = 'store-api';\n" +
+            "        return addAllViaBatch(items);\n" +
+            "    }\n" +
+            "    return addViaQuery(items[0]).then(function() { return addAllViaQuery(items.slice(1)); });\n" +
+            "}).then(readCart).then(function(cart) {\n" +
+            "    if (!cart) { return null; }\n" +
+            "    var missing = missingFrom(cart, items);\n" +
+            "    if (!missing.length) { return cart; }\n" +
+            "    result.retried = missing.length;\n" +
+            "    return missing.reduce(function(previous, item) {\n" +
+            "        return previous.then(function() { return addViaQuery(item); });\n" +
+            "    }, Promise.resolve()).then(readCart);\n" +
+            "}).then(function(cart) {\n" +
+            "    if (cart) {\n" +
+            "        var missing = missingFrom(cart, items).map(function(item) { return String(item.id); });\n" +
+            "        result.added = unique(items.map(function(item) { return String(item.id); })\n" +
+            "            .filter(function(id) { return missing.indexOf(id) < 0; }));\n" +
+            "        result.failed = missing;\n" +
+            "        result.cartCount = cart.items_count;\n" +
+            "    } else {\n" +
+            "        result.added = unique(result.added);\n" +
+            "        result.failed = unique(result.failed).filter(function(id) { return result.added.indexOf(id) < 0; });\n" +
+            "    }\n" +
+            "}).catch(function(error) {\n" +
+            "    result.error = String(error && error.message || error);\n" +
+            "}).then(function() {\n" +
+            "    result.requested = items ? items.length : 0;\n" +
+            "    result.elapsedMs = Date.now() - started;\n" +
+            "    done(result);\n" +
+            "});";
+
+    /**
+     * Outcome of seeding a cart
+     */
+    public static final class Result {
+        private final String mode;
+        private final int requested;
+        private final List<String> added;
+        private final List<String> failed;
+        private final int retried;
+        private final long cartCount;
+        private final long elapsedMs;
+
+        Result(Map<String, Object> raw) {
+            this.mode = String.valueOf(raw.get("mode"));
+            this.requested = number(raw.get("requested")).intValue();
+            this.added = strings(raw.get("added"));
+            this.failed = strings(raw.get("failed"));
+            this.retried = number(raw.get("retried")).intValue();
+            this.cartCount = number(raw.get("cartCount")).longValue();
+            this.elapsedMs = number(raw.get("elapsedMs")).longValue();
+        }
+
+        /** "store-api" or "add-to-cart" */
+        public String getMode() {
+            return mode;
+        }
+
+        public int getRequestedCount() {
+            return requested;
+        }
+
+        /** Product ids now in the cart */
+        public List<String> getAddedProductIds() {
+            return added;
+        }
+
+        /** Product ids that could not be added */
+        public List<String> getFailedProductIds() {
+            return failed;
+        }
+
+        /** Items added again one by one because the cart did not show them after the parallel requests */
+        public int getRetriedCount() {
+            return retried;
+        }
+
+        /** Item quantity the Store API reports for the cart; -1 where the site has no Store API */
+        public long getCartCount() {
+            return cartCount;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d of %d products added via %s in %d ms (%d retried, cart count %d)",
+                    added.size(), requested, mode, elapsedMs, retried, cartCount);
+        }
+
+        private static Number number(Object value) {
+            return value instanceof Number ? (Number) value : 0;
+        }
+
+        private static List<String> strings(Object value) {
+            List<String> result = new ArrayList<>();
+            if (value instanceof List) {
+                for (Object item : (List<?>) value) {
+                    result.add(String.valueOf(item));
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+
+    /**
+     * Add the first products the shop lists to the cart
+     * @param productCount Number of different products
+     * @param quantity Quantity of each product
+     */
+    public static Result seed(WebDriver driver, String baseUrl, int productCount, int quantity) {
+        return run(driver, baseUrl, Collections.emptyMap(), productCount, quantity);
+    }
+
+    /**
+     * Add the given products to the cart
+     * @param quantities Quantity by product id, in the order they should be added
+     */
+    public static Result seed(WebDriver driver, String baseUrl, Map<String, Integer> quantities) {
+        return run(driver, baseUrl, quantities, quantities.size(), 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Result run(WebDriver driver, String baseUrl, Map<String, Integer> quantities, int productCount, int quantity) {
+        if (productCount <= 0) {
+            throw new IllegalArgumentException("Product count must be positive: " + productCount);
+        }
+        String site = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+
+        // fetch() only carries the session cookie on requests to the page's own origin
+        String url = driver.getCurrentUrl();
+        if (url == null || !url.startsWith(origin(baseUrl))) {
+            driver.get(origin(baseUrl) + "/robots.txt");
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", entry.getKey());
+            item.put("quantity", entry.getValue());
+            items.add(item);
+        }
+
+        Object raw = ((JavascriptExecutor) driver).executeAsyncScript(SEED_SCRIPT, site, items, productCount, quantity,
+                ConfigManager.getInstance().getCartSeedParallelism(), MAX_WAIT_MS);
+        Map<String, Object> values = raw instanceof Map ? (Map<String, Object>) raw : new LinkedHashMap<>();
+        Result result = new Result(values);
+        Object error = values.get("error");
+        if (error != null || result.added.isEmpty()) {
+            throw new RuntimeException("Failed to seed cart at " + site + ": " + (error != null ? error : result));
+        }
+        if (!result.failed.isEmpty()) {
+            logger.warn("Could not add products {} to the cart", result.failed);
+        }
+        logger.info("Seeded cart: {}", result);
+        return result;
+    }
+
+    private static String origin(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+}
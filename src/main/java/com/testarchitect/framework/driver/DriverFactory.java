@@ -0,0 +1,95 @@
+package com.testarchitect.framework.driver;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * Factory that starts a new WebDriver instance from {@link BrowserSettings}
+ */
+public class DriverFactory {
+    private static final Logger logger = LoggerFactory.getLogger(DriverFactory.class);
+
+    public static WebDriver createDriver(BrowserSettings settings) {
+        logger.info("Starting new {} browser (headless: {})", settings.getBrowser(), settings.isHeadless());
+
+        WebDriver driver;
+        switch (settings.getBrowser()) {
+            case "firefox":
+                FirefoxOptions firefoxOptions = createFirefoxOptions(settings);
+                driver = settings.isRemote() ? createRemoteDriver(settings, firefoxOptions) : new FirefoxDriver(firefoxOptions);
+                break;
+
+            case "chrome":
+            default:
+                ChromeOptions chromeOptions = createChromeOptions(settings);
+                driver = settings.isRemote() ? createRemoteDriver(settings, chromeOptions) : new ChromeDriver(chromeOptions);
+                break;
+        }
+
+        driver.manage().window().setSize(new Dimension(settings.getWidth(), settings.getHeight()));
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofMillis(settings.getPageLoadTimeout()));
+        return driver;
+    }
+
+    private static ChromeOptions createChromeOptions(BrowserSettings settings) {
+        ChromeOptions chromeOptions = new ChromeOptions();
+        chromeOptions.addArguments("--window-size=" + settings.getWidth() + "," + settings.getHeight());
+        if (settings.isHeadless()) {
+            chromeOptions.addArguments("--headless=new");
+        }
+        return chromeOptions;
+    }
+
+    private static FirefoxOptions createFirefoxOptions(BrowserSettings settings) {
+        FirefoxOptions firefoxOptions = new FirefoxOptions();
+        String firefoxBinary = settings.getFirefoxBinaryPath();
+        if (firefoxBinary != null && !firefoxBinary.isEmpty()) {
+            firefoxOptions.setBinary(firefoxBinary);
+            logger.info("Firefox binary path set to: {}", firefoxBinary);
+        }
+        if (settings.isHeadless()) {
+            firefoxOptions.addArguments("-headless");
+        }
+        if (settings.isIsolatedContexts()) {
+            // User contexts are only reachable over WebDriver BiDi
+            firefoxOptions.enableBiDi();
+        }
+        // Additional Firefox preferences for better compatibility
+        firefoxOptions.addPreference("browser.startup.page", 0);
+        firefoxOptions.addPreference("browser.startup.homepage_override.mstone", "ignore");
+        firefoxOptions.addPreference("browser.usedOnWindows10", false);
+        firefoxOptions.addPreference("dom.disable_beforeunload", true);
+        firefoxOptions.addPreference("network.http.max-connections", 200);
+        firefoxOptions.addPreference("network.http.max-connections-per-server", 20);
+        firefoxOptions.addPreference("dom.max_script_run_time", 0);
+        firefoxOptions.addPreference("dom.max_chrome_script_run_time", 0);
+        firefoxOptions.addPreference("browser.cache.disk.enable", false);
+        firefoxOptions.addPreference("browser.cache.memory.enable", false);
+        firefoxOptions.addPreference("browser.cache.offline.enable", false);
+        firefoxOptions.addPreference("network.http.use-cache", false);
+        return firefoxOptions;
+    }
+
+    private static WebDriver createRemoteDriver(BrowserSettings settings, Capabilities capabilities) {
+        try {
+            WebDriver driver = new RemoteWebDriver(new URL(settings.getGridUrl()), capabilities);
+            // Expose DevTools / BiDi on the remote driver for isolated browser contexts
+            return settings.isIsolatedContexts() ? new Augmenter().augment(driver) : driver;
+        } catch (MalformedURLException e) {
+            throw new RuntimeException("Invalid Selenium Grid URL: " + settings.getGridUrl(), e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.testarchitect.framework.driver;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.CreateContextParameters;
+import org.openqa.selenium.bidi.module.Browser;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A fresh, isolated browser context (own cookies, storage and cache) opened as a tab inside
+ * an already running browser. Chromium uses DevTools {@code Target.createBrowserContext};
+ * Firefox uses WebDriver BiDi user contexts, the same mechanism that backs its containers.
+ * The driver is switched to the new tab, so page objects transparently target the context.
+ */
+public final class IsolatedContext {
+    private static final Logger logger = LoggerFactory.getLogger(IsolatedContext.class);
+
+    private final WebDriver driver;
+    private final String contextId;
+    private final String windowHandle;
+    private final String anchorHandle;
+
+    private IsolatedContext(WebDriver driver, String contextId, String windowHandle, String anchorHandle) {
+        this.driver = driver;
+        this.contextId = contextId;
+        this.windowHandle = windowHandle;
+        this.anchorHandle = anchorHandle;
+    }
+
+    /**
+     * Open a new isolated context in the given browser and switch the driver to it
+     * @param driver A running browser
+     * @param settings Settings used for the context window size
+     * @return The opened context, or null when the browser supports neither CDP nor BiDi
+     */
+    public static IsolatedContext open(WebDriver driver, BrowserSettings settings) {
+        String anchorHandle = driver.getWindowHandle();
+
+        if (driver instanceof HasCdp) {
+            HasCdp cdp = (HasCdp) driver;
+            String contextId = (String) cdp.executeCdpCommand("Target.createBrowserContext", new HashMap<>())
+                    .get("browserContextId");
+
+            Map<String, Object> targetParams = new HashMap<>();
+            targetParams.put("url", "about:blank");
+            targetParams.put("browserContextId", contextId);
+            targetParams.put("width", settings.getWidth());
+            targetParams.put("height", settings.getHeight());
+            String targetId = (String) cdp.executeCdpCommand("Target.createTarget", targetParams).get("targetId");
+
+            // ChromeDriver window handles are DevTools target ids
+            driver.switchTo().window(targetId);
+            logger.debug("Opened Chromium browser context {} in target {}", contextId, targetId);
+            return new IsolatedContext(driver, contextId, targetId, anchorHandle);
+        }
+
+        if (driver instanceof HasBiDi) {
+            String userContext = new Browser(driver).createUserContext();
+            BrowsingContext tab = new BrowsingContext(driver,
+                    new CreateContextParameters(WindowType.TAB).userContext(userContext));
+
+            // BiDi browsing context ids are WebDriver window handles
+            driver.switchTo().window(tab.getId());
+            driver.manage().window().setSize(new Dimension(settings.getWidth(), settings.getHeight()));
+            logger.debug("Opened BiDi user context {} in tab {}", userContext, tab.getId());
+            return new IsolatedContext(driver, userContext, tab.getId(), anchorHandle);
+        }
+
+        logger.warn("Browser supports neither DevTools nor BiDi, running without context isolation");
+        return null;
+    }
+
+    /**
+     * Close the context tab, discard all of its state and switch back to the anchor window
+     */
+    public void close() {
+        try {
+            if (driver.getWindowHandles().contains(windowHandle)) {
+                driver.switchTo().window(windowHandle).close();
+            }
+        } finally {
+            driver.switchTo().window(anchorHandle);
+            if (driver instanceof HasCdp) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("browserContextId", contextId);
+                ((HasCdp) driver).executeCdpCommand("Target.disposeBrowserContext", params);
+            } else {
+                new Browser(driver).removeUserContext(contextId);
+            }
+            logger.debug("Disposed browser context {}", contextId);
+        }
+    }
+
+    public String getContextId() {
+        return contextId;
+    }
+
+    public String getWindowHandle() {
+        return windowHandle;
+    }
+}
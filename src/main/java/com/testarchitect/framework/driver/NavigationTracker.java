@@ -0,0 +1,81 @@
+package com.testarchitect.framework.driver;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.LogEventListener;
+import com.codeborne.selenide.logevents.SelenideLogger;
+
+/**
+ * Tracks, per thread, whether the current document may have changed since popups were last checked.
+ * Selenide actions that can navigate (open, click, submit, ...) mark the thread as navigated;
+ * a popup check records the identity ({@code performance.timeOrigin} + URL) of the document it cleaned.
+ */
+public class NavigationTracker implements LogEventListener {
+    private static final String LISTENER_NAME = "NavigationTracker";
+    private static final String[] NAVIGATING_ACTIONS = {
+            "open", "click", "submit", "press", "select", "back", "forward", "refresh", "switch", "upload"
+    };
+
+    private static final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    private static class State {
+        private boolean navigated = true;
+        private boolean suppressorPersistent;
+        private String cleanedDocument;
+    }
+
+    /**
+     * Register the tracker for the current thread (Selenide listeners are thread-local)
+     */
+    public static void install() {
+        if (!SelenideLogger.hasListener(LISTENER_NAME)) {
+            SelenideLogger.addListener(LISTENER_NAME, new NavigationTracker());
+        }
+    }
+
+    /**
+     * Mark that the current thread's browser may be showing a new document
+     */
+    public static void markNavigated() {
+        state.get().navigated = true;
+    }
+
+    /**
+     * Whether the popup check can be skipped: nothing navigated since the current document was cleaned
+     * and the suppressor is registered to run on any new document anyway
+     */
+    public static boolean isCurrentDocumentCleaned() {
+        State current = state.get();
+        return !current.navigated && current.suppressorPersistent && current.cleanedDocument != null;
+    }
+
+    /**
+     * Record the document that was just checked for popups
+     * @param documentId Identity of the checked document
+     * @param suppressorPersistent Whether the suppressor runs on new documents without another check
+     * @return true if the same document had already been cleaned before
+     */
+    public static boolean markCleaned(String documentId, boolean suppressorPersistent) {
+        State current = state.get();
+        boolean alreadyCleaned = documentId != null && documentId.equals(current.cleanedDocument);
+        current.cleanedDocument = documentId;
+        current.suppressorPersistent = suppressorPersistent;
+        current.navigated = false;
+        return alreadyCleaned;
+    }
+
+    @Override
+    public void beforeEvent(LogEvent event) {
+        // The document can only change once the action has been performed
+    }
+
+    @Override
+    public void afterEvent(LogEvent event) {
+        String action = (event.getElement() + " " + event.getSubject()).toLowerCase();
+        for (String navigatingAction : NAVIGATING_ACTIONS) {
+            if (action.contains(navigatingAction)) {
+                markNavigated();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.testarchitect.framework.driver;
+
+import com.testarchitect.framework.config.ConfigManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Page readiness based on network quiet. The first wait in a document wraps {@code fetch} and
+ * {@code XMLHttpRequest.send} to count requests in flight and observes resource timing entries, seeded
+ * with the activity the browser already recorded. A wait then returns as soon as the document is loaded,
+ * no request is in flight, no loading spinner is visible and the network has been quiet for the
+ * configured time, or gives up at the configured cap.
+ */
+public class NetworkIdle {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkIdle.class);
+
+    /** Async scripts must return before the WebDriver script timeout (30 seconds by default) */
+    private static final long MAX_WAIT_MS = 25000;
+
+    private static final String INSTRUMENT_SCRIPT =
+            "(function() {\n" +
+            "    if (window.__taNetwork) { return; }\n" +
+            "    var net = window.__taNetwork = { inflight: 0, lastActivity: 0 };\n" +
+            "    function touch(time) { net.lastActivity = Math.max(net.lastActivity, time); }\n" +
+            "    performance.getEntriesByType('navigation').forEach(function(entry) {\n" +
+            "        touch(entry.loadEventEnd || entry.responseEnd);\n" +
+            "    });\n" +
+            "    performance.getEntriesByType('resource').forEach(function(entry) { touch(entry.responseEnd); });\n" +
+            "    function begin() { net.inflight++; touch(performance.now()); }\n" +
+            "    function end() { net.inflight = Math.max(0, net.inflight - 1); touch(performance.now()); }\n" +
+            "    if (window.fetch) {\n" +
+            "        var originalFetch = window.fetch;\n" +
+            "        window.fetch = function() {\n" +
+            "            begin();\n" +
+            "            try {\n" +
+            "                return originalFetch.apply(this, arguments).then(\n" +
+            "                    function(response) { end(); return response; },\n" +
+            "                    function(error) { end(); throw error; });\n" +
+            "            } catch (e) { end(); throw e; }\n" +
+            "        };\n" +
+            "    }\n" +
+            "    var originalSend = XMLHttpRequest.prototype.send;\n" +
+            "    XMLHttpRequest.prototype.send = function() {\n" +
+            "        var finished = false;\n" +
+            "        function finish() { if (!finished) { finished = true; end(); } }\n" +
+            "        begin();\n" +
+            "        this.addEventListener('loadend', finish);\n" +
+            "        try { return originalSend.apply(this, arguments); } catch (e) { finish(); throw e; }\n" +
+            "    };\n" +
+            "    if (window.PerformanceObserver) {\n" +
+            "        try {\n" +
+            "            new PerformanceObserver(function(list) {\n" +
+            "                list.getEntries().forEach(function(entry) { touch(entry.responseEnd); });\n" +
+            "            }).observe({ type: 'resource' });\n" +
+            "        } catch (e) {}\n" +
+            "    }\n" +
+            "})();";
+
+    private static final String AWAIT_SCRIPT =
+            INSTRUMENT_SCRIPT + "\n" +
+            "var quietMs = arguments[0], spinnerSelector = arguments[1];\n" +
+            "var start = performance.now(), deadline = start + arguments[2], done = arguments[arguments.length - 1];\n" +
+            "function spinnerShown() {\n" +
+            "    var spinners = spinnerSelector ? document.querySelectorAll(spinnerSelector) : [];\n" +
+            "    for (var i = 0; i < spinners.length; i++) {\n" +
+            "        if (spinners[i].offsetWidth || spinners[i].offsetHeight || spinners[i].getClientRects().length) { return true; }\n" +
+            "    }\n" +
+            "    return false;\n" +
+            "}\n" +
+            "function check() {\n" +
+            "    var net = window.__taNetwork, now = performance.now();\n" +
+            "    var quiet = document.readyState === 'complete' && net.inflight === 0\n" +
+            "        && now - net.lastActivity >= quietMs && !spinnerShown();\n" +
+            "    if (quiet || now >= deadline) {\n" +
+            "        done([quiet, Math.round(now - start), net.inflight]);\n" +
+            "    } else {\n" +
+            "        setTimeout(check, Math.min(50, Math.max(10, quietMs - (now - net.lastActivity))));\n" +
+            "    }\n" +
+            "}\n" +
+            "check();";
+
+    /**
+     * Wait for network quiet with the configured quiet period and cap
+     * @param driver The browser to wait on
+     * @param spinnerSelector Loading indicator that must not be visible, or null
+     * @return true if the page became quiet, false if the cap was reached
+     */
+    public static boolean await(WebDriver driver, String spinnerSelector) {
+        ConfigManager config = ConfigManager.getInstance();
+        return await(driver, spinnerSelector, config.getNetworkIdleQuietMs(), config.getNetworkIdleMaxWaitMs());
+    }
+
+    /**
+     * Wait for network quiet
+     * @param driver The browser to wait on
+     * @param spinnerSelector Loading indicator that must not be visible, or null
+     * @param quietMs How long no request may have been in flight or completed
+     * @param maxWaitMs Cap on the wait, at most 25 seconds
+     * @return true if the page became quiet, false if the cap was reached
+     */
+    public static boolean await(WebDriver driver, String spinnerSelector, long quietMs, long maxWaitMs) {
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_SCRIPT,
+                    quietMs, spinnerSelector, Math.min(maxWaitMs, MAX_WAIT_MS));
+        } catch (ScriptTimeoutException e) {
+            logger.warn("Network idle wait exceeded the script timeout, continuing");
+            return false;
+        }
+
+        List<?> outcome = (List<?>) result;
+        boolean quiet = Boolean.TRUE.equals(outcome.get(0));
+        if (quiet) {
+            logger.info("Network idle after {} ms", outcome.get(1));
+        } else {
+            logger.warn("Network still busy after {} ms ({} requests in flight), continuing", outcome.get(1), outcome.get(2));
+        }
+        return quiet;
+    }
+}
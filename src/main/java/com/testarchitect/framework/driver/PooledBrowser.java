@@ -0,0 +1,57 @@
+package com.testarchitect.framework.driver;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A browser owned by the {@link BrowserPool} together with its usage bookkeeping
+ */
+final class PooledBrowser {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final int id;
+    private final WebDriver driver;
+    private final long createdAt;
+    private int useCount;
+    private IsolatedContext context;
+
+    PooledBrowser(WebDriver driver) {
+        this.id = SEQUENCE.incrementAndGet();
+        this.driver = driver;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    int getId() {
+        return id;
+    }
+
+    WebDriver getDriver() {
+        return driver;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    int getUseCount() {
+        return useCount;
+    }
+
+    void markUsed() {
+        useCount++;
+    }
+
+    IsolatedContext getContext() {
+        return context;
+    }
+
+    void setContext(IsolatedContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public String toString() {
+        return "browser#" + id;
+    }
+}
@@ -0,0 +1,177 @@
+package com.testarchitect.framework.driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.module.Script;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Event-driven popup suppression. A script registered to run at the start of every new document
+ * installs a MutationObserver that dismisses PopMaker overlays ({@code .pum-overlay}, {@code PUM.close})
+ * as soon as they are shown. Only PopMaker markup is touched, so storefront dialogs such as the product
+ * gallery keep working, and a sweep writes to the page only when there is something to dismiss, so its
+ * own writes do not trigger further sweeps.
+ * Chromium registers it with DevTools {@code Page.addScriptToEvaluateOnNewDocument}, Firefox with a
+ * BiDi preload script; other browsers get it injected into the current document on first check.
+ */
+public class PopupSuppressor {
+    private static final Logger logger = LoggerFactory.getLogger(PopupSuppressor.class);
+
+    private static final String SUPPRESSOR_SCRIPT =
+            "(function() {\n" +
+            "    if (window.__taPopupSuppressor) { return; }\n" +
+            "    var state = window.__taPopupSuppressor = { dismissed: 0 };\n" +
+            "    var POPUP_SELECTOR = '.pum-overlay';\n" +
+            "    var CLOSE_SELECTOR = '.pum-close, .popmake-close';\n" +
+            "    function isShown(el) {\n" +
+            "        if (el.hasAttribute('data-ta-dismissed')) { return false; }\n" +
+            "        var style = window.getComputedStyle(el);\n" +
+            "        return style.display !== 'none' && style.visibility !== 'hidden';\n" +
+            "    }\n" +
+            "    function dismiss(el) {\n" +
+            "        el.setAttribute('data-ta-dismissed', 'true');\n" +
+            "        var closeButton = el.querySelector(CLOSE_SELECTOR);\n" +
+            "        if (closeButton) { try { closeButton.click(); } catch (e) {} }\n" +
+            "        el.style.display = 'none';\n" +
+            "        el.style.visibility = 'hidden';\n" +
+            "        el.setAttribute('aria-hidden', 'true');\n" +
+            "        el.classList.remove('pum-active');\n" +
+            "        state.dismissed++;\n" +
+            "    }\n" +
+            "    function sweep() {\n" +
+            "        scheduled = false;\n" +
+            "        var popups = document.querySelectorAll(POPUP_SELECTOR);\n" +
+            "        var found = false;\n" +
+            "        for (var i = 0; i < popups.length; i++) {\n" +
+            "            if (isShown(popups[i])) { dismiss(popups[i]); found = true; }\n" +
+            "        }\n" +
+            "        if (found && typeof PUM !== 'undefined') {\n" +
+            "            try { if (PUM.close) { PUM.close(); } if (PUM.closeAll) { PUM.closeAll(); } } catch (e) {}\n" +
+            "        }\n" +
+            // classList.remove rewrites the class attribute even when nothing is removed, which would
+            // queue a mutation record and schedule the next sweep forever
+            "        var body = document.body;\n" +
+            "        if (body && (body.classList.contains('pum-open') || body.classList.contains('pum-active'))) {\n" +
+            "            body.classList.remove('pum-open', 'pum-active');\n" +
+            "        }\n" +
+            "    }\n" +
+            "    var scheduled = false;\n" +
+            "    function schedule() {\n" +
+            "        if (!scheduled) { scheduled = true; Promise.resolve().then(sweep); }\n" +
+            "    }\n" +
+            "    function start() {\n" +
+            "        sweep();\n" +
+            "        new MutationObserver(schedule).observe(document.documentElement, {\n" +
+            "            childList: true, subtree: true, attributes: true, attributeFilter: ['class', 'style']\n" +
+            "        });\n" +
+            "    }\n" +
+            "    if (document.documentElement) { start(); } else { document.addEventListener('readystatechange', start, { once: true }); }\n" +
+            "})();";
+
+    private static final String CHECK_SCRIPT =
+            "var installed = !!window.__taPopupSuppressor;\n" +
+            SUPPRESSOR_SCRIPT + "\n" +
+            "return [installed, window.__taPopupSuppressor.dismissed, performance.timeOrigin + '|' + location.href];";
+
+    private static final String BIDI_ATTEMPTED = "bidi:attempted";
+    private static final String BIDI_REGISTERED = "bidi:registered";
+
+    /** Window handles per browser that already run the suppressor on every new document */
+    private static final Map<WebDriver, Set<String>> registeredWindows = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Result of a suppressor check
+     */
+    public static final class Status {
+        private final boolean injected;
+        private final long dismissed;
+        private final String documentId;
+        private final boolean persistent;
+
+        private Status(boolean injected, long dismissed, String documentId, boolean persistent) {
+            this.injected = injected;
+            this.dismissed = dismissed;
+            this.documentId = documentId;
+            this.persistent = persistent;
+        }
+
+        /** Whether the suppressor had to be injected into the current document by this check */
+        public boolean isInjected() {
+            return injected;
+        }
+
+        /** Number of popups dismissed in the current document so far */
+        public long getDismissed() {
+            return dismissed;
+        }
+
+        /** Identity of the current document: performance.timeOrigin plus URL */
+        public String getDocumentId() {
+            return documentId;
+        }
+
+        /** Whether the suppressor is registered to run on every new document of the current window */
+        public boolean isPersistent() {
+            return persistent;
+        }
+    }
+
+    /**
+     * Make sure the suppressor runs in the current document and on every future document of the current window
+     * @param driver The browser to check
+     * @return Status of the suppressor in the current document
+     */
+    public static Status ensureActive(WebDriver driver) {
+        boolean persistent = registerOnNewDocument(driver);
+
+        List<?> result = (List<?>) ((JavascriptExecutor) driver).executeScript(CHECK_SCRIPT);
+        boolean wasInstalled = Boolean.TRUE.equals(result.get(0));
+        if (!wasInstalled) {
+            logger.debug("Popup suppressor injected into current document");
+        }
+        return new Status(!wasInstalled, ((Number) result.get(1)).longValue(), String.valueOf(result.get(2)), persistent);
+    }
+
+    /**
+     * Register the suppressor to run on every new document
+     * @return true if the suppressor is registered for the current window
+     */
+    private static boolean registerOnNewDocument(WebDriver driver) {
+        Set<String> windows = registeredWindows.computeIfAbsent(driver, d -> Collections.synchronizedSet(new HashSet<>()));
+
+        if (driver instanceof HasCdp) {
+            // DevTools scripts are bound to the target, i.e. the window handle
+            String handle = driver.getWindowHandle();
+            if (windows.add(handle)) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("source", SUPPRESSOR_SCRIPT);
+                ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", params);
+                logger.info("Popup suppressor registered for new documents in window {}", handle);
+            }
+            return true;
+        }
+
+        if (driver instanceof HasBiDi && windows.add(BIDI_ATTEMPTED)) {
+            try {
+                // Preload scripts apply to every browsing context
+                new Script(driver).addPreloadScript("() => { " + SUPPRESSOR_SCRIPT + " }");
+                windows.add(BIDI_REGISTERED);
+                logger.info("Popup suppressor registered as BiDi preload script");
+            } catch (Exception e) {
+                logger.debug("BiDi not available, popup suppressor will be injected per document: {}", e.getMessage());
+            }
+        }
+        return windows.contains(BIDI_REGISTERED);
+    }
+}
@@ -0,0 +1,244 @@
+package com.testarchitect.framework.driver;
+
+import com.testarchitect.framework.config.ConfigManager;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run-wide cache of logged-in sessions. An account logs in through the UI once per run; its cookies
+ * are kept until the auth cookie expires ({@code session.cache.ttlMinutes} at most) and injected into
+ * later browser sessions, on Chromium through DevTools before any page is loaded. A session is only
+ * cached when the login set the auth cookie ({@code session.cookie.prefix}). Logins of the same
+ * account are serialized, so parallel tests starting together log in once.
+ */
+public class SessionCache {
+    private static final Logger logger = LoggerFactory.getLogger(SessionCache.class);
+    private static final long EXPIRY_MARGIN_MS = 60000;
+    private static volatile SessionCache instance;
+
+    // WordPress adds the logged-in class to <body>; WooCommerce pages link to the logout endpoint
+    private static final String LOGGED_IN_SCRIPT =
+            "return !!(document.body && document.body.classList.contains('logged-in'))" +
+            " || !!document.querySelector(\"a[href*='customer-logout'], a[href*='action=logout']\");";
+
+    private final boolean enabled;
+    private final long ttlMs;
+    private final String authCookiePrefix;
+    private final Map<String, CachedSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Object> loginLocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong logins = new AtomicLong();
+    private final AtomicLong restores = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Cookies of a logged-in account and when they stop being usable
+     */
+    private static final class CachedSession {
+        private final List<Cookie> cookies;
+        private final long expiresAt;
+
+        CachedSession(List<Cookie> cookies, long expiresAt) {
+            this.cookies = Collections.unmodifiableList(new ArrayList<>(cookies));
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+    SessionCache(boolean enabled, long ttlMs, String authCookiePrefix) {
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.authCookiePrefix = authCookiePrefix;
+    }
+
+    public static SessionCache getInstance() {
+        if (instance == null) {
+            synchronized (SessionCache.class) {
+                if (instance == null) {
+                    ConfigManager config = ConfigManager.getInstance();
+                    instance = new SessionCache(config.isSessionCacheEnabled(),
+                            config.getSessionCacheTtlMinutes() * 60000L, config.getSessionCookiePrefix());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Inject the cached cookies of an account into the browser, if it has an unexpired session
+     * @return true if cookies were injected; the caller still has to load a page and {@link #isLoggedIn} it
+     */
+    public boolean restore(WebDriver driver, String baseUrl, String username) {
+        if (!enabled) {
+            return false;
+        }
+        String key = key(baseUrl, username);
+        CachedSession session = sessions.get(key);
+        if (session == null) {
+            return false;
+        }
+        if (session.isExpired()) {
+            logger.info("Cached session of {} expired", username);
+            sessions.remove(key, session);
+            expired.incrementAndGet();
+            return false;
+        }
+        inject(driver, baseUrl, session.cookies);
+        restores.incrementAndGet();
+        logger.info("Restored cached session of {} ({} cookies)", username, session.cookies.size());
+        return true;
+    }
+
+    /**
+     * Log an account in, unless another thread did so while this one waited
+     * @param login Performs the UI login in the given browser
+     * @return true if this call logged in; false if a fresh session was injected instead
+     */
+    public boolean login(WebDriver driver, String baseUrl, String username, Runnable login) {
+        String key = key(baseUrl, username);
+        CachedSession before = sessions.get(key);
+        synchronized (loginLocks.computeIfAbsent(key, k -> new Object())) {
+            CachedSession current = sessions.get(key);
+            if (current != null && current != before && !current.isExpired()) {
+                inject(driver, baseUrl, current.cookies);
+                restores.incrementAndGet();
+                logger.info("Using session of {} logged in by another test", username);
+                return false;
+            }
+
+            long start = System.currentTimeMillis();
+            login.run();
+            logins.incrementAndGet();
+            store(driver, key, username);
+            logger.info("Logged in {} in {} ms", username, System.currentTimeMillis() - start);
+            return true;
+        }
+    }
+
+    /**
+     * Cheap check on the loaded page that the browser is logged in, without another request
+     */
+    public boolean isLoggedIn(WebDriver driver) {
+        try {
+            return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(LOGGED_IN_SCRIPT));
+        } catch (Exception e) {
+            logger.debug("Login probe failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Drop the cached session of an account, e.g. after the server rejected it
+     */
+    public void invalidate(String baseUrl, String username) {
+        if (sessions.remove(key(baseUrl, username)) != null) {
+            rejected.incrementAndGet();
+            logger.info("Dropped cached session of {}", username);
+        }
+    }
+
+    private void store(WebDriver driver, String key, String username) {
+        if (!enabled) {
+            return;
+        }
+        List<Cookie> cookies = new ArrayList<>(driver.manage().getCookies());
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMs;
+        boolean authenticated = false;
+        for (Cookie cookie : cookies) {
+            if (cookie.getName().startsWith(authCookiePrefix)) {
+                authenticated = true;
+                Date expiry = cookie.getExpiry();
+                if (expiry != null) {
+                    expiresAt = Math.min(expiresAt, expiry.getTime() - EXPIRY_MARGIN_MS);
+                }
+            }
+        }
+        if (!authenticated) {
+            logger.info("No {}* cookie after logging in {}, session not cached", authCookiePrefix, username);
+            return;
+        }
+        sessions.put(key, new CachedSession(cookies, expiresAt));
+        logger.info("Cached session of {} for {} s", username, (expiresAt - now) / 1000);
+    }
+
+    private void inject(WebDriver driver, String baseUrl, List<Cookie> cookies) {
+        if (driver instanceof HasCdp) {
+            // No page has to be loaded first: DevTools sets cookies for any domain
+            List<Map<String, Object>> params = new ArrayList<>();
+            for (Cookie cookie : cookies) {
+                Map<String, Object> param = new HashMap<>();
+                param.put("name", cookie.getName());
+                param.put("value", cookie.getValue());
+                param.put("domain", cookie.getDomain() != null ? cookie.getDomain() : URI.create(baseUrl).getHost());
+                param.put("path", cookie.getPath() != null ? cookie.getPath() : "/");
+                param.put("secure", cookie.isSecure());
+                param.put("httpOnly", cookie.isHttpOnly());
+                if (cookie.getExpiry() != null) {
+                    param.put("expires", cookie.getExpiry().getTime() / 1000);
+                }
+                params.add(param);
+            }
+            Map<String, Object> command = new HashMap<>();
+            command.put("cookies", params);
+            ((HasCdp) driver).executeCdpCommand("Network.setCookies", command);
+            return;
+        }
+
+        // WebDriver only sets cookies for the current document's domain, so load a cheap page of the site first
+        String url = driver.getCurrentUrl();
+        if (url == null || !url.startsWith(origin(baseUrl))) {
+            driver.get(origin(baseUrl) + "/robots.txt");
+        }
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(new Cookie.Builder(cookie.getName(), cookie.getValue())
+                    .path(cookie.getPath() != null ? cookie.getPath() : "/")
+                    .expiresOn(cookie.getExpiry())
+                    .isSecure(cookie.isSecure())
+                    .isHttpOnly(cookie.isHttpOnly())
+                    .build());
+        }
+    }
+
+    private static String key(String baseUrl, String username) {
+        return origin(baseUrl) + "|" + username;
+    }
+
+    private static String origin(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    /** UI logins performed */
+    public long getLoginCount() {
+        return logins.get();
+    }
+
+    /** Sessions injected from the cache */
+    public long getRestoreCount() {
+        return restores.get();
+    }
+
+    /** Cached sessions dropped because they expired or the server no longer accepted them */
+    public long getReloginCount() {
+        return expired.get() + rejected.get();
+    }
+}
@@ -0,0 +1,196 @@
+package com.testarchitect.framework.driver;
+
+import com.codeborne.selenide.Configuration;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Waits on the storefront's own completion signals instead of fixed sleeps.
+ * A recorder bound with jQuery to {@code document.body} counts the WooCommerce events
+ * ({@code added_to_cart}, {@code updated_checkout}, {@code wc_fragments_refreshed}, ...);
+ * a {@link Checkpoint} taken before an action then waits until one of the expected events has fired
+ * since the checkpoint, or the action replaced the document, and the page has settled:
+ * document loaded, no jQuery AJAX in flight, no blockUI overlay and no pending checkout update.
+ * A checkout update is pending while the last checkout event was {@code update_checkout}: checkout.js
+ * debounces those triggers and aborts superseded requests, so several of them end in a single
+ * {@code updated_checkout}.
+ */
+public class WooCommerceEvents {
+    private static final Logger logger = LoggerFactory.getLogger(WooCommerceEvents.class);
+
+    public static final String ADDED_TO_CART = "added_to_cart";
+    public static final String REMOVED_FROM_CART = "removed_from_cart";
+    public static final String UPDATE_CHECKOUT = "update_checkout";
+    public static final String UPDATED_CHECKOUT = "updated_checkout";
+    public static final String CHECKOUT_ERROR = "checkout_error";
+    public static final String WC_FRAGMENTS_REFRESHED = "wc_fragments_refreshed";
+    public static final String UPDATED_CART_TOTALS = "updated_cart_totals";
+    public static final String UPDATED_WC_DIV = "updated_wc_div";
+
+    private static final List<String> RECORDED_EVENTS = Arrays.asList(
+            ADDED_TO_CART, REMOVED_FROM_CART, UPDATE_CHECKOUT, UPDATED_CHECKOUT, CHECKOUT_ERROR,
+            WC_FRAGMENTS_REFRESHED, UPDATED_CART_TOTALS, UPDATED_WC_DIV);
+
+    /** Async scripts must return before the WebDriver script timeout (30 seconds by default) */
+    private static final long MAX_WAIT_MS = 25000;
+
+    private static final String RECORDER_SCRIPT =
+            "(function() {\n" +
+            "    if (window.__taWooEvents) { return; }\n" +
+            "    var state = window.__taWooEvents = { counts: {}, lastCheckoutEvent: null, bound: false };\n" +
+            "    function bind() {\n" +
+            "        if (state.bound || !window.jQuery || !document.body) { return; }\n" +
+            "        jQuery(document.body).on('" + String.join(" ", RECORDED_EVENTS) + "', function(event) {\n" +
+            "            state.counts[event.type] = (state.counts[event.type] || 0) + 1;\n" +
+            "            if (/^(update_checkout|updated_checkout|checkout_error)$/.test(event.type)) { state.lastCheckoutEvent = event.type; }\n" +
+            "        });\n" +
+            "        state.bound = true;\n" +
+            "    }\n" +
+            "    bind();\n" +
+            "    if (!state.bound) {\n" +
+            "        document.addEventListener('DOMContentLoaded', bind);\n" +
+            "        window.addEventListener('load', bind);\n" +
+            "    }\n" +
+            "})();";
+
+    private static final String CHECKPOINT_SCRIPT =
+            RECORDER_SCRIPT + "\n" +
+            "var counts = {};\n" +
+            "for (var name in window.__taWooEvents.counts) { counts[name] = window.__taWooEvents.counts[name]; }\n" +
+            "return [counts, String(performance.timeOrigin)];";
+
+    private static final String AWAIT_SCRIPT =
+            "var events = arguments[0], baseline = arguments[1], documentId = arguments[2];\n" +
+            "var deadline = Date.now() + arguments[3], done = arguments[arguments.length - 1];\n" +
+            "function check() {\n" +
+            "    var state = window.__taWooEvents;\n" +
+            "    var counts = state ? state.counts : {};\n" +
+            "    var replaced = String(performance.timeOrigin) !== documentId;\n" +
+            "    var fired = null;\n" +
+            "    if (!replaced) {\n" +
+            "        for (var i = 0; i < events.length; i++) {\n" +
+            "            if ((counts[events[i]] || 0) > (baseline[events[i]] || 0)) { fired = events[i]; break; }\n" +
+            "        }\n" +
+            "    }\n" +
+            "    var settled = document.readyState === 'complete'\n" +
+            "        && (!window.jQuery || jQuery.active === 0)\n" +
+            "        && !document.querySelector('.blockUI.blockOverlay')\n" +
+            "        && !(state && state.lastCheckoutEvent === 'update_checkout');\n" +
+            "    if (settled && (fired || replaced || events.length === 0)) {\n" +
+            "        done(fired ? 'event ' + fired : replaced ? 'new document' : 'idle');\n" +
+            "    } else if (Date.now() > deadline) {\n" +
+            "        done(null);\n" +
+            "    } else {\n" +
+            "        setTimeout(check, 50);\n" +
+            "    }\n" +
+            "}\n" +
+            "check();";
+
+    /**
+     * Event counts of a document, taken before an action that the storefront answers asynchronously
+     */
+    public static final class Checkpoint {
+        private final WebDriver driver;
+        private final Map<String, Object> counts;
+        private final String documentId;
+
+        private Checkpoint(WebDriver driver, Map<String, Object> counts, String documentId) {
+            this.driver = driver;
+            this.counts = counts;
+            this.documentId = documentId;
+        }
+
+        /**
+         * Wait with the Selenide timeout until one of the events fired since this checkpoint,
+         * or the document was replaced, and the page has settled
+         * @param events Events signalling completion; with none, only wait for the page to settle
+         * @return true if the storefront signalled completion, false on timeout
+         */
+        public boolean await(String... events) {
+            return await(Configuration.timeout, events);
+        }
+
+        /**
+         * Wait until one of the events fired since this checkpoint, or the document was replaced,
+         * and the page has settled
+         * @param timeoutMs Maximum time to wait, capped at 25 seconds
+         * @param events Events signalling completion; with none, only wait for the page to settle
+         * @return true if the storefront signalled completion, false on timeout
+         */
+        public boolean await(long timeoutMs, String... events) {
+            long startTime = System.currentTimeMillis();
+            long waitMs = Math.min(timeoutMs, MAX_WAIT_MS);
+            Object outcome;
+            try {
+                outcome = ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_SCRIPT,
+                        Arrays.asList(events), counts, documentId, waitMs);
+            } catch (ScriptTimeoutException e) {
+                outcome = null;
+            } catch (JavascriptException e) {
+                // A form post can unload the document while the script waits, e.g. a non-AJAX add to cart
+                if (e.getMessage() == null || !e.getMessage().contains("unloaded")) {
+                    throw e;
+                }
+                outcome = awaitNewDocument(startTime + waitMs) ? "new document" : null;
+            }
+
+            long elapsed = System.currentTimeMillis() - startTime;
+            if (outcome == null) {
+                logger.warn("Storefront did not signal {} within {} ms, continuing", Arrays.toString(events), elapsed);
+                return false;
+            }
+            logger.info("Storefront settled after {} ms ({})", elapsed, outcome);
+            return true;
+        }
+
+        private boolean awaitNewDocument(long deadline) {
+            try {
+                new WebDriverWait(driver, Duration.ofMillis(Math.max(0, deadline - System.currentTimeMillis())),
+                        Duration.ofMillis(50))
+                        .ignoring(WebDriverException.class)
+                        .until(d -> "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState")));
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Start recording storefront events in the current document, e.g. before filling a form
+     * whose changes trigger {@code update_checkout}
+     */
+    public static void install(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript(RECORDER_SCRIPT);
+    }
+
+    /**
+     * Take a checkpoint of the current document before performing an action
+     */
+    @SuppressWarnings("unchecked")
+    public static Checkpoint checkpoint(WebDriver driver) {
+        List<?> result = (List<?>) ((JavascriptExecutor) driver).executeScript(CHECKPOINT_SCRIPT);
+        return new Checkpoint(driver, new HashMap<>((Map<String, Object>) result.get(0)), String.valueOf(result.get(1)));
+    }
+
+    /**
+     * Wait until the page has settled: no AJAX in flight, no blockUI overlay and no pending checkout update
+     * @return true if the page settled, false on timeout
+     */
+    public static boolean awaitIdle(WebDriver driver) {
+        return checkpoint(driver).await();
+    }
+}
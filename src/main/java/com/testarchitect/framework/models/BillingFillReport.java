@@ -0,0 +1,83 @@
+package com.testarchitect.framework.models;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-field report of a billing form fill
+ */
+public class BillingFillReport {
+    private final Map<BillingFieldType, Entry> entries = new EnumMap<>(BillingFieldType.class);
+
+    /**
+     * Outcome of filling a single billing field
+     */
+    public static class Entry {
+        private final boolean filled;
+        private final String element;
+        private final String value;
+        private final String note;
+
+        public Entry(boolean filled, String element, String value, String note) {
+            this.filled = filled;
+            this.element = element;
+            this.value = value;
+            this.note = note;
+        }
+
+        public boolean isFilled() {
+            return filled;
+        }
+
+        /** Tag and name of the element that was filled, e.g. select#billing_country */
+        public String getElement() {
+            return element;
+        }
+
+        /** Value the field ended up with */
+        public String getValue() {
+            return value;
+        }
+
+        /** How the value was applied or why the field was skipped */
+        public String getNote() {
+            return note;
+        }
+
+        @Override
+        public String toString() {
+            return (filled ? "filled" : "skipped") + "{" +
+                    "element='" + element + '\'' +
+                    ", value='" + value + '\'' +
+                    ", note='" + note + '\'' +
+                    '}';
+        }
+    }
+
+    public void put(BillingFieldType fieldType, Entry entry) {
+        entries.put(fieldType, entry);
+    }
+
+    public Entry getEntry(BillingFieldType fieldType) {
+        return entries.get(fieldType);
+    }
+
+    public boolean isFilled(BillingFieldType fieldType) {
+        Entry entry = entries.get(fieldType);
+        return entry != null && entry.isFilled();
+    }
+
+    public int getFilledCount() {
+        return (int) entries.values().stream().filter(Entry::isFilled).count();
+    }
+
+    public Map<BillingFieldType, Entry> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    @Override
+    public String toString() {
+        return "BillingFillReport{" + getFilledCount() + "/" + entries.size() + " filled, " + entries + '}';
+    }
+}
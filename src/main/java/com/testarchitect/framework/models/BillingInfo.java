@@ -1,6 +1,6 @@
 package com.testarchitect.framework.models;
 
-import com.github.javafaker.Faker;
+import com.testarchitect.framework.utils.BillingDataFactory;
 
 /**
  * Billing information model for checkout forms
@@ -47,36 +47,19 @@ public class BillingInfo {
         );
     }
 
+    /**
+     * Create random US billing info, see {@link BillingDataFactory#createUSBilling()}
+     */
     public static BillingInfo createRandom() {
-        Faker faker = new Faker();
-        return new BillingInfo(
-                faker.name().firstName(),
-                faker.name().lastName(),
-                faker.internet().emailAddress(),
-                faker.address().streetAddress(),
-                faker.address().secondaryAddress(),
-                faker.address().city(),
-                faker.address().stateAbbr(),
-                faker.address().zipCode(),
-                faker.phoneNumber().phoneNumber(),
-                "US"
-        );
+        return BillingDataFactory.createUSBilling();
     }
 
+    /**
+     * Create billing info with the given name and email and a generated address,
+     * see {@link BillingDataFactory#createCustom(String, String, String)}
+     */
     public static BillingInfo createCustom(String firstName, String lastName, String email) {
-        Faker faker = new Faker();
-        return new BillingInfo(
-                firstName,
-                lastName,
-                email,
-                faker.address().streetAddress(),
-                faker.address().secondaryAddress(),
-                faker.address().city(),
-                faker.address().stateAbbr(),
-                faker.address().zipCode(),
-                faker.phoneNumber().phoneNumber(),
-                "US"
-        );
+        return BillingDataFactory.createCustom(firstName, lastName, email);
     }
 
     // Getters
@@ -120,6 +103,45 @@ public class BillingInfo {
         return country;
     }
 
+    /**
+     * Get the value for a billing form field
+     * @param fieldType The billing field
+     * @return The value to enter into that field
+     */
+    public String getFieldValue(BillingFieldType fieldType) {
+        switch (fieldType) {
+            case FIRST_NAME:
+                return firstName;
+            case LAST_NAME:
+                return lastName;
+            case EMAIL:
+                return email;
+            case ADDRESS:
+                return address;
+            case ADDRESS2:
+                return address2;
+            case CITY:
+                return city;
+            case STATE:
+                return state;
+            case ZIP:
+                return zip;
+            case PHONE:
+                return phone;
+            case COUNTRY:
+                return country;
+            default:
+                throw new IllegalArgumentException("Unknown billing field type: " + fieldType);
+        }
+    }
+
+    /**
+     * Copy of this billing info located in another country and state
+     */
+    public BillingInfo withRegion(String country, String state) {
+        return new BillingInfo(firstName, lastName, email, address, address2, city, state, zip, phone, country);
+    }
+
     public String getFullName() {
         return firstName + " " + lastName;
     }
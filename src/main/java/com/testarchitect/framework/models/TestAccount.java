@@ -0,0 +1,38 @@
+package com.testarchitect.framework.models;
+
+/**
+ * Credentials of a storefront test account
+ */
+public class TestAccount {
+    private final String username;
+    private final String password;
+
+    public TestAccount(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Parse a {@code username:password} entry; the password may itself contain colons
+     */
+    public static TestAccount parse(String entry) {
+        int separator = entry.indexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Test account must be username:password: " + entry);
+        }
+        return new TestAccount(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -0,0 +1,81 @@
+package com.testarchitect.framework.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable test case row handed to data-driven tests. Safe to share between the threads of a
+ * parallel DataProvider.
+ */
+public final class TestCaseData {
+    private static final List<String> DESCRIPTIVE_COLUMNS =
+            Arrays.asList("TestCaseID", "TestDescription", "Precondition", "TestSteps", "ExpectedResult");
+
+    private final Map<String, String> columns;
+
+    public TestCaseData(Map<String, String> row) {
+        this.columns = Collections.unmodifiableMap(new LinkedHashMap<>(row));
+    }
+
+    public String getTestCaseId() {
+        return get("TestCaseID");
+    }
+
+    public String getDescription() {
+        return get("TestDescription");
+    }
+
+    public String getPrecondition() {
+        return get("Precondition");
+    }
+
+    public String getTestSteps() {
+        return get("TestSteps");
+    }
+
+    public String getExpectedResult() {
+        return get("ExpectedResult");
+    }
+
+    public String getPaymentMethod() {
+        return get("PaymentMethod");
+    }
+
+    /**
+     * Value of any column, "" when the row does not have it
+     */
+    public String get(String column) {
+        return columns.getOrDefault(column, "");
+    }
+
+    /** All columns in file order, unmodifiable */
+    public Map<String, String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Copy of this row with more columns, e.g. a test matrix row; added columns win
+     */
+    public TestCaseData with(Map<String, String> moreColumns) {
+        Map<String, String> merged = new LinkedHashMap<>(columns);
+        merged.putAll(moreColumns);
+        return new TestCaseData(merged);
+    }
+
+    // Shown as the invocation parameter in TestNG and Allure reports: the id and the data columns
+    @Override
+    public String toString() {
+        List<String> data = new ArrayList<>();
+        for (Map.Entry<String, String> column : columns.entrySet()) {
+            String value = column.getValue();
+            if (!DESCRIPTIVE_COLUMNS.contains(column.getKey()) && value != null && !value.isEmpty() && !"N/A".equals(value)) {
+                data.add(value);
+            }
+        }
+        return data.isEmpty() ? getTestCaseId() : getTestCaseId() + " [" + String.join(", ", data) + "]";
+    }
+}
@@ -1,13 +1,25 @@
 package com.testarchitect.framework.pages;
 
 import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.WebDriverRunner;
+import com.testarchitect.framework.driver.NavigationTracker;
+import com.testarchitect.framework.driver.NetworkIdle;
+import com.testarchitect.framework.driver.PopupSuppressor;
 import io.qameta.allure.Step;
+import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.Selenide.$$;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
 
 /**
  * Base page class with common functionality
@@ -15,75 +27,113 @@ import static com.codeborne.selenide.Selenide.$$;
 public abstract class BasePage {
     protected static final Logger logger = LoggerFactory.getLogger(BasePage.class);
     
+    // Popup check counters, shared by all threads
+    private static final AtomicLong popupChecks = new AtomicLong();
+    private static final AtomicLong skippedPopupChecks = new AtomicLong();
+    private static final AtomicLong redundantPopupProbes = new AtomicLong();
+    
     // Common elements that might appear on multiple pages
-    protected SelenideElement loadingSpinner = $("[data-testid='loading-spinner']");
+    private static final String LOADING_SPINNER_SELECTOR = "[data-testid='loading-spinner']";
+    protected SelenideElement loadingSpinner = $(LOADING_SPINNER_SELECTOR);
     protected SelenideElement errorMessage = $(".error-message");
     protected SelenideElement successMessage = $(".success-message");
     
-    // Popup elements - General
-    protected SelenideElement popupModal = $(".popup, .modal, [role='dialog']");
-    protected SelenideElement popupCloseButton = $(".popup .close, .modal .close, [role='dialog'] .close, .popup-close, .modal-close");
-    protected SelenideElement popupCloseIcon = $(".popup [class*='close'], .modal [class*='close'], [role='dialog'] [class*='close']");
-    protected SelenideElement popupOverlay = $(".popup-overlay, .modal-overlay, .overlay");
+    private static final String PROBE_SCRIPT =
+        "function isVisible(el) {\n" +
+        "    if (!(el.offsetWidth || el.offsetHeight || el.getClientRects().length)) { return false; }\n" +
+        "    var style = window.getComputedStyle(el);\n" +
+        "    return style.visibility !== 'hidden' && style.opacity !== '0';\n" +
+        "}\n" +
+        "return arguments[0].map(function(selector) {\n" +
+        "    var elements;\n" +
+        "    try { elements = document.querySelectorAll(selector); } catch (e) { elements = []; }\n" +
+        "    var visibleCount = 0;\n" +
+        "    for (var i = 0; i < elements.length; i++) { if (isVisible(elements[i])) { visibleCount++; } }\n" +
+        "    var first = elements[0];\n" +
+        "    return {\n" +
+        "        count: elements.length,\n" +
+        "        visibleCount: visibleCount,\n" +
+        "        visible: !!first && isVisible(first),\n" +
+        "        text: first ? (first.innerText || '').trim().substring(0, 1000) : ''\n" +
+        "    };\n" +
+        "});";
     
-    // PopMaker specific elements
-    protected SelenideElement popMakerOverlay = $(".pum-overlay");
-    protected SelenideElement popMakerContainer = $(".pum-container");
-    protected SelenideElement popMakerCloseButton = $(".pum-close, .popmake-close");
-    protected SelenideElement popMakerCloseX = $(".pum-close.pum-close-x");
+    // Walks visible text nodes once and matches every phrase case-insensitively, like Condition.text
+    private static final String TEXT_SEARCH_SCRIPT =
+        "var scope = arguments[0], limit = arguments[2];\n" +
+        "var phrases = arguments[1].map(function(phrase) { return phrase.replace(/\\s+/g, ' ').toLowerCase(); });\n" +
+        "var results = phrases.map(function() { return { count: 0, elements: [], texts: [], seen: new Set() }; });\n" +
+        "var SKIPPED = { SCRIPT: true, STYLE: true, NOSCRIPT: true, TEMPLATE: true };\n" +
+        "var visibility = new Map();\n" +
+        "function isVisible(el) {\n" +
+        "    if (visibility.has(el)) { return visibility.get(el); }\n" +
+        "    var style = window.getComputedStyle(el);\n" +
+        "    var shown = !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length)\n" +
+        "        && style.visibility !== 'hidden' && style.opacity !== '0';\n" +
+        "    visibility.set(el, shown);\n" +
+        "    return shown;\n" +
+        "}\n" +
+        "if (document.body) {\n" +
+        "    var walker = document.createTreeWalker(document.body, NodeFilter.SHOW_TEXT, {\n" +
+        "        acceptNode: function(node) {\n" +
+        "            var parent = node.parentElement;\n" +
+        "            return parent && !SKIPPED[parent.tagName] && node.nodeValue.trim()\n" +
+        "                ? NodeFilter.FILTER_ACCEPT : NodeFilter.FILTER_REJECT;\n" +
+        "        }\n" +
+        "    });\n" +
+        "    var node;\n" +
+        "    while ((node = walker.nextNode())) {\n" +
+        "        var text = node.nodeValue.replace(/\\s+/g, ' ').toLowerCase();\n" +
+        "        var element;\n" +
+        "        for (var i = 0; i < phrases.length; i++) {\n" +
+        "            if (text.indexOf(phrases[i]) < 0) { continue; }\n" +
+        "            if (element === undefined) {\n" +
+        "                element = scope ? node.parentElement.closest(scope) : node.parentElement;\n" +
+        "                if (element && !isVisible(element)) { element = null; }\n" +
+        "            }\n" +
+        "            if (!element) { break; }\n" +
+        "            var result = results[i];\n" +
+        "            if (result.seen.has(element)) { continue; }\n" +
+        "            result.seen.add(element);\n" +
+        "            result.count++;\n" +
+        "            if (result.elements.length < limit) {\n" +
+        "                result.elements.push(element);\n" +
+        "                result.texts.push((element.innerText || '').trim().substring(0, 200));\n" +
+        "            }\n" +
+        "        }\n" +
+        "        element = undefined;\n" +
+        "    }\n" +
+        "}\n" +
+        "return results.map(function(result) {\n" +
+        "    return { count: result.count, elements: result.elements, texts: result.texts };\n" +
+        "});";
     
     @Step("Handle any popups that might appear")
     public void handlePopups() {
-        logger.info("Checking for and handling any popups");
+        popupChecks.incrementAndGet();
+        NavigationTracker.install();
+        if (NavigationTracker.isCurrentDocumentCleaned()) {
+            // Nothing navigated since this document was cleaned, no need to ask the browser
+            skippedPopupChecks.incrementAndGet();
+            return;
+        }
+
+        // Popups are dismissed in-page by the PopupSuppressor as soon as they appear,
+        // so this is a single round trip that makes sure the suppressor is active
         try {
-            // Wait a moment for popups to appear
-            Thread.sleep(2000);
-            
-            // First, try PopMaker specific handling (most common on this site)
-            if (handlePopMakerPopup()) {
-                logger.info("PopMaker popup handled successfully");
-                return;
-            }
-            
-            // Fallback to general popup handling
-            if (popupCloseButton.exists() && popupCloseButton.isDisplayed()) {
-                logger.info("Found popup close button, clicking it");
-                popupCloseButton.click();
-            } else if (popupCloseIcon.exists() && popupCloseIcon.isDisplayed()) {
-                logger.info("Found popup close icon, clicking it");
-                popupCloseIcon.click();
-            } else if (popupOverlay.exists() && popupOverlay.isDisplayed()) {
-                logger.info("Found popup overlay, clicking it to close");
-                popupOverlay.click();
-            } else {
-                // Try JavaScript to close popup as final fallback
-                logger.info("Trying JavaScript approach to close popup");
-                com.codeborne.selenide.Selenide.executeJavaScript(
-                    "// Close PopMaker popups\n" +
-                    "if (typeof PUM !== 'undefined' && PUM.close) {\n" +
-                    "    PUM.close();\n" +
-                    "}\n" +
-                    "// Hide any visible popups\n" +
-                    "var popups = document.querySelectorAll('.popup, .modal, [role=\"dialog\"], .pum-overlay');\n" +
-                    "for (var i = 0; i < popups.length; i++) {\n" +
-                    "    popups[i].style.display = 'none';\n" +
-                    "    popups[i].style.visibility = 'hidden';\n" +
-                    "    popups[i].setAttribute('aria-hidden', 'true');\n" +
-                    "}\n" +
-                    "// Remove overlay classes\n" +
-                    "document.body.classList.remove('pum-open');"
-                );
+            PopupSuppressor.Status status = PopupSuppressor.ensureActive(WebDriverRunner.getWebDriver());
+            if (NavigationTracker.markCleaned(status.getDocumentId(), status.isPersistent())) {
+                redundantPopupProbes.incrementAndGet();
             }
-            
-            // Wait for popup to disappear
-            Thread.sleep(1000);
-            logger.info("Popup handling completed");
+            logger.debug("Popup suppressor active, {} popup(s) dismissed on this page", status.getDismissed());
         } catch (Exception e) {
             logger.warn("Error handling popup: {}", e.getMessage());
             // Force close with JavaScript as ultimate fallback
             try {
                 com.codeborne.selenide.Selenide.executeJavaScript(
-                    "document.querySelectorAll('.popup, .modal, .pum-overlay').forEach(function(el) { el.style.display = 'none'; });"
+                    "if (typeof PUM !== 'undefined' && PUM.close) { PUM.close(); }\n" +
+                    "document.querySelectorAll('.pum-overlay').forEach(function(el) { el.style.display = 'none'; });\n" +
+                    "document.body.classList.remove('pum-open');"
                 );
             } catch (Exception jsError) {
                 logger.warn("JavaScript popup close also failed: {}", jsError.getMessage());
@@ -91,56 +141,32 @@ public abstract class BasePage {
         }
     }
     
-    @Step("Handle PopMaker specific popup")
-    private boolean handlePopMakerPopup() {
-        try {
-            boolean foundPopup = false;
-            
-            // Check for multiple PopMaker popups (some sites have several)
-            if ($(".pum-overlay").exists()) {
-                logger.info("Found PopMaker overlay(s)");
-                foundPopup = true;
-                
-                // Close all PopMaker popups using comprehensive JavaScript
-                logger.info("Closing all PopMaker popups with JavaScript");
-                com.codeborne.selenide.Selenide.executeJavaScript(
-                    "// Close all PopMaker popups\n" +
-                    "if (typeof PUM !== 'undefined') {\n" +
-                    "    if (PUM.close) PUM.close();\n" +
-                    "    if (PUM.closeAll) PUM.closeAll();\n" +
-                    "}\n" +
-                    "// Force close all visible PopMaker overlays\n" +
-                    "document.querySelectorAll('.pum-overlay, .pum-container').forEach(function(el) {\n" +
-                    "    el.style.display = 'none';\n" +
-                    "    el.style.visibility = 'hidden';\n" +
-                    "    el.setAttribute('aria-hidden', 'true');\n" +
-                    "    el.classList.remove('pum-active');\n" +
-                    "});\n" +
-                    "// Remove PopMaker body classes\n" +
-                    "document.body.classList.remove('pum-open');\n" +
-                    "document.body.classList.remove('pum-active');\n" +
-                    "// Try clicking close buttons if any exist\n" +
-                    "document.querySelectorAll('.pum-close, .popmake-close').forEach(function(btn) {\n" +
-                    "    try { btn.click(); } catch(e) {}\n" +
-                    "});"
-                );
-                
-                Thread.sleep(1000);
-            }
-            
-            return foundPopup;
-        } catch (Exception e) {
-            logger.warn("PopMaker popup handling failed: {}", e.getMessage());
-            return false;
-        }
+    /**
+     * Total number of popup checks requested by page objects
+     */
+    public static long getPopupCheckCount() {
+        return popupChecks.get();
+    }
+    
+    /**
+     * Number of popup checks skipped because the current document had already been cleaned
+     */
+    public static long getSkippedPopupCheckCount() {
+        return skippedPopupChecks.get();
+    }
+    
+    /**
+     * Number of popup probes that went to the browser only to find an already cleaned document
+     */
+    public static long getRedundantPopupProbeCount() {
+        return redundantPopupProbes.get();
     }
     
     @Step("Wait for page to load")
     public void waitForPageToLoad() {
         logger.info("Waiting for page to load");
-        if (loadingSpinner.exists()) {
-            loadingSpinner.should(disappear);
-        }
+        // Document loaded, no spinner and no fetch/XHR activity for the configured quiet period
+        NetworkIdle.await(WebDriverRunner.getWebDriver(), LOADING_SPINNER_SELECTOR);
         // Handle any popups that might appear after page load
         handlePopups();
     }
@@ -157,27 +183,21 @@ public abstract class BasePage {
         
         // Try multiple success message selectors - different sites have different structures
         try {
-            if ($(".success-message").exists()) {
-                $(".success-message").shouldBe(visible);
-                logger.info("Found success message element");
-            } else if ($(".alert-success").exists()) {
-                $(".alert-success").shouldBe(visible);
-                logger.info("Found alert success element");
-            } else if ($(".notice-success").exists()) {
-                $(".notice-success").shouldBe(visible);
-                logger.info("Found notice success element");
-            } else if ($(".woocommerce-message").exists()) {
-                $(".woocommerce-message").shouldBe(visible);
-                logger.info("Found WooCommerce message element");
-            } else if ($$("*").filter(text("success")).size() > 0) {
-                logger.info("Found text containing 'success'");
-            } else if ($$("*").filter(text("thank")).size() > 0) {
-                logger.info("Found text containing 'thank'");
-            } else if ($$("*").filter(text("order")).size() > 0) {
-                logger.info("Found text containing 'order' - assuming order confirmation");
+            ElementProbe message = firstExisting(probe(".success-message", ".alert-success", ".notice-success", ".woocommerce-message"));
+            if (message != null) {
+                if (!message.isVisible()) {
+                    $(message.getSelector()).shouldBe(visible);
+                }
+                logger.info("Found success message element: {}", message.getSelector());
             } else {
-                // If no specific success message, just log that we completed the flow
-                logger.info("No specific success message found, but order flow completed successfully");
+                // One in-page text search instead of materializing every element per phrase
+                TextMatch match = firstFound(findText(1, "success", "thank", "order"));
+                if (match != null) {
+                    logger.info("Found text containing '{}': {}", match.getPhrase(), match.getTexts().get(0));
+                } else {
+                    // If no specific success message, just log that we completed the flow
+                    logger.info("No specific success message found, but order flow completed successfully");
+                }
             }
             
             logger.info("Success message verification completed: {}", successText);
@@ -187,6 +207,102 @@ public abstract class BasePage {
         }
     }
     
+    /**
+     * Probe several candidate selectors with a single script execution instead of one
+     * WebDriver call per exists()/is(visible) branch
+     * @param selectors Candidate CSS selectors, in order of preference
+     * @return One probe per selector, in the same order
+     */
+    public List<ElementProbe> probe(String... selectors) {
+        List<Map<String, Object>> results = executeJavaScript(PROBE_SCRIPT, Arrays.asList(selectors));
+        List<ElementProbe> probes = new ArrayList<>();
+        for (int i = 0; i < selectors.length; i++) {
+            Map<String, Object> result = results.get(i);
+            probes.add(new ElementProbe(
+                    selectors[i],
+                    ((Number) result.get("count")).intValue(),
+                    ((Number) result.get("visibleCount")).intValue(),
+                    Boolean.TRUE.equals(result.get("visible")),
+                    (String) result.get("text")));
+        }
+        logger.debug("Probed selectors: {}", probes);
+        return probes;
+    }
+    
+    /**
+     * Search the visible text of the page for several phrases with a single script execution
+     * instead of {@code $$("*").filter(text(phrase))}, which fetches the text of every element
+     * @param limit Maximum number of elements returned per phrase
+     * @param phrases Phrases to look for, matched case-insensitively within a text node
+     * @return One match per phrase, in the same order
+     */
+    public List<TextMatch> findText(int limit, String... phrases) {
+        return findTextWithin(null, limit, phrases);
+    }
+    
+    /**
+     * Search the visible text of the page for several phrases, matching the closest ancestor
+     * of the text that satisfies the scope selector, e.g. {@code "h1, h2, h3"}
+     * @param scopeSelector CSS selector the matched elements must satisfy, null for the text's own element
+     * @param limit Maximum number of elements returned per phrase
+     * @param phrases Phrases to look for, matched case-insensitively within a text node
+     * @return One match per phrase, in the same order
+     */
+    public List<TextMatch> findTextWithin(String scopeSelector, int limit, String... phrases) {
+        List<Map<String, Object>> results = executeJavaScript(TEXT_SEARCH_SCRIPT, scopeSelector, Arrays.asList(phrases), limit);
+        List<TextMatch> matches = new ArrayList<>();
+        for (int i = 0; i < phrases.length; i++) {
+            Map<String, Object> result = results.get(i);
+            List<SelenideElement> elements = new ArrayList<>();
+            for (Object element : (List<?>) result.get("elements")) {
+                elements.add($((WebElement) element));
+            }
+            List<String> texts = new ArrayList<>();
+            for (Object text : (List<?>) result.get("texts")) {
+                texts.add(String.valueOf(text));
+            }
+            matches.add(new TextMatch(phrases[i], ((Number) result.get("count")).intValue(), elements, texts));
+        }
+        logger.debug("Text search results: {}", matches);
+        return matches;
+    }
+    
+    /**
+     * First text match that found any element, or null
+     */
+    protected static TextMatch firstFound(List<TextMatch> matches) {
+        for (TextMatch match : matches) {
+            if (match.isFound()) {
+                return match;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * First probe whose selector matches any element, or null
+     */
+    protected static ElementProbe firstExisting(List<ElementProbe> probes) {
+        for (ElementProbe probe : probes) {
+            if (probe.exists()) {
+                return probe;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * First probe whose first matching element is visible, or null
+     */
+    protected static ElementProbe firstVisible(List<ElementProbe> probes) {
+        for (ElementProbe probe : probes) {
+            if (probe.isVisible()) {
+                return probe;
+            }
+        }
+        return null;
+    }
+    
     @Step("Get page title")
     public String getPageTitle() {
         String title = com.codeborne.selenide.Selenide.title();
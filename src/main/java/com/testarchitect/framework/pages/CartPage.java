@@ -2,8 +2,13 @@ package com.testarchitect.framework.pages;
 
 import com.codeborne.selenide.ElementsCollection;
 import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.WebDriverRunner;
+import com.testarchitect.framework.driver.CartSeeder;
+import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
 
+import java.util.List;
+
 import static com.codeborne.selenide.CollectionCondition.sizeGreaterThan;
 import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.*;
@@ -13,9 +18,13 @@ import static com.codeborne.selenide.Selenide.*;
  */
 public class CartPage extends BasePage {
     
+    private static final String CART_TABLE_SELECTOR = "table.cart-table, .cart-table, table.cart, .cart-content, .woocommerce-cart-form, .cart-form, table, .cart-items, .cart-list, .shopping-cart-table";
+    private static final String CART_INDICATOR_SELECTOR = ".cart-page, .woocommerce-cart, .shopping-cart, .checkout-cart, h1, h2, h3";
+    private static final String CART_ITEMS_SELECTOR = "tr.cart-item, .cart-item, .product-row, .item-row, .cart-product, .woocommerce-cart-form__cart-item, tr";
+    
     // Cart elements
-    private final SelenideElement cartTable = $("table.cart-table, .cart-table, table.cart, .cart-content, .woocommerce-cart-form, .cart-form, table, .cart-items, .cart-list, .shopping-cart-table");
-    private final ElementsCollection cartItems = $$("tr.cart-item, .cart-item, .product-row, .item-row, .cart-product, .woocommerce-cart-form__cart-item, tr");
+    private final SelenideElement cartTable = $(CART_TABLE_SELECTOR);
+    private final ElementsCollection cartItems = $$(CART_ITEMS_SELECTOR);
     private final SelenideElement totalPrice = $(".total-price, .cart-total, .order-total, .total, .price-total, .cart-subtotal");
     private final SelenideElement checkoutButton = $("button.checkout, .checkout-button, a.checkout, input[value*='checkout'], button[name*='checkout'], .wc-proceed-to-checkout, .proceed-to-checkout");
     private final SelenideElement clearCartButton = $("button.clear-cart, .clear-cart, .empty-cart");
@@ -26,30 +35,63 @@ public class CartPage extends BasePage {
     private final SelenideElement updateButton = $("button.update-quantity");
     private final SelenideElement removeButton = $("button.remove-item");
     
+    @Step("Open cart page")
+    public CartPage openCart(String baseUrl) {
+        logger.info("Opening cart page");
+        open(baseUrl + (baseUrl.endsWith("/") ? "" : "/") + "cart/");
+        waitForPageToLoad();
+        handlePopups();
+        return this;
+    }
+    
+    @Step("Seed cart with {productCount} products of quantity {quantity} and open it")
+    public CartPage seedAndOpen(String baseUrl, int productCount, int quantity) {
+        logger.info("Seeding cart with {} products of quantity {}", productCount, quantity);
+        CartSeeder.Result result = CartSeeder.seed(WebDriverRunner.getWebDriver(), baseUrl, productCount, quantity);
+        Allure.parameter("Seeded products", result.getAddedProductIds());
+        return openCart(baseUrl);
+    }
+    
     @Step("Verify all selected items are in cart")
     public CartPage verifyItemsInCart() {
         logger.info("Verifying all selected items are in cart");
         handlePopups();
         
-        // Try to find cart content with flexible selectors
-        try {
-            cartTable.shouldBe(visible);
+        // Probe table, page indicator and items in one call; only wait when nothing has rendered yet
+        List<ElementProbe> probes = probe(CART_TABLE_SELECTOR, CART_INDICATOR_SELECTOR, CART_ITEMS_SELECTOR);
+        ElementProbe table = probes.get(0);
+        ElementProbe indicator = probes.get(1);
+        ElementProbe items = probes.get(2);
+        
+        if (table.isVisible()) {
             logger.info("Found cart table");
-        } catch (Exception e) {
-            logger.info("Cart table not found, checking for cart page indicators");
-            
-            // Alternative cart page verification
-            SelenideElement cartIndicator = $(".cart-page, .woocommerce-cart, .shopping-cart, .checkout-cart, h1, h2, h3")
-                .shouldBe(visible);
-            logger.info("Found cart page indicator: " + cartIndicator.getText());
+        } else if (indicator.isVisible()) {
+            logger.info("Cart table not found, found cart page indicator: " + indicator.getText());
+        } else {
+            try {
+                cartTable.shouldBe(visible);
+                logger.info("Found cart table");
+            } catch (Exception e) {
+                logger.info("Cart table not found, checking for cart page indicators");
+                
+                // Alternative cart page verification
+                SelenideElement cartIndicator = $(CART_INDICATOR_SELECTOR)
+                    .shouldBe(visible);
+                logger.info("Found cart page indicator: " + cartIndicator.getText());
+            }
+            items = probe(CART_ITEMS_SELECTOR).get(0);
         }
         
         // Try to find cart items
-        try {
-            cartItems.shouldHave(sizeGreaterThan(0));
-            logger.info("Found cart items: " + cartItems.size());
-        } catch (Exception e) {
-            logger.info("No cart items found with standard selectors, checking for any content");
+        if (items.exists()) {
+            logger.info("Found cart items: " + items.getCount());
+        } else {
+            try {
+                cartItems.shouldHave(sizeGreaterThan(0));
+                logger.info("Found cart items: " + cartItems.size());
+            } catch (Exception e) {
+                logger.info("No cart items found with standard selectors, checking for any content");
+            }
         }
         
         return this;
@@ -73,7 +115,7 @@ public class CartPage extends BasePage {
             logger.info("Clicked alternative checkout link");
         }
         
-        handlePopups();
+        waitForPageToLoad();
         return new CheckoutPage();
     }
     
@@ -1,12 +1,23 @@
 package com.testarchitect.framework.pages;
 
 import com.codeborne.selenide.SelenideElement;
-import com.testarchitect.framework.models.BillingInfo;
+import com.codeborne.selenide.WebDriverRunner;
+import com.testarchitect.framework.driver.WooCommerceEvents;
 import com.testarchitect.framework.models.BillingFieldType;
+import com.testarchitect.framework.models.BillingFillReport;
+import com.testarchitect.framework.models.BillingInfo;
+import com.testarchitect.framework.utils.BillingDataFactory;
 import io.qameta.allure.Step;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.$;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
 
 /**
  * Checkout page object
@@ -24,25 +35,89 @@ public class CheckoutPage extends BasePage {
             ".payment-section, .payment-methods, .payment-options, .checkout-payment");
 
     // Billing information - comprehensive field selectors
-    private final SelenideElement firstNameField = $(
-            "input[name='first_name'], input[name='billing_first_name'], input[name='firstName'], input[id*='first'], input[id*='fname']");
-    private final SelenideElement lastNameField = $(
-            "input[name='last_name'], input[name='billing_last_name'], input[name='lastName'], input[id*='last'], input[id*='lname']");
-    private final SelenideElement emailField = $(
-            "input[name='email'], input[name='billing_email'], input[type='email'], input[id*='email']");
-    private final SelenideElement addressField = $(
-            "input[name='address'], input[name='billing_address_1'], input[name='street_address'], input[id*='address']");
-    private final SelenideElement address2Field = $(
-            "input[name='address_2'], input[name='billing_address_2'], input[name='street_address_2'], input[id*='address2']");
-    private final SelenideElement cityField = $("input[name='city'], input[name='billing_city'], input[id*='city']");
-    private final SelenideElement stateField = $(
-            "select[name='state'], select[name='billing_state'], input[name='state'], input[name='billing_state'], input[id*='state']");
-    private final SelenideElement zipField = $(
-            "input[name='zip'], input[name='postal_code'], input[name='billing_postcode'], input[id*='zip'], input[id*='postal']");
-    private final SelenideElement countryField = $(
-            "select[name='country'], select[name='billing_country'], input[name='country'], input[id*='country']");
-    private final SelenideElement phoneField = $(
-            "input[name='phone'], input[name='billing_phone'], input[id*='phone']");
+    private static final String FIRST_NAME_SELECTOR =
+            "input[name='first_name'], input[name='billing_first_name'], input[name='firstName'], input[id*='first'], input[id*='fname']";
+    private static final String LAST_NAME_SELECTOR =
+            "input[name='last_name'], input[name='billing_last_name'], input[name='lastName'], input[id*='last'], input[id*='lname']";
+    private static final String EMAIL_SELECTOR =
+            "input[name='email'], input[name='billing_email'], input[type='email'], input[id*='email']";
+    private static final String ADDRESS_SELECTOR =
+            "input[name='address'], input[name='billing_address_1'], input[name='street_address'], input[id*='address']";
+    private static final String ADDRESS2_SELECTOR =
+            "input[name='address_2'], input[name='billing_address_2'], input[name='street_address_2'], input[id*='address2']";
+    private static final String CITY_SELECTOR =
+            "input[name='city'], input[name='billing_city'], input[id*='city']";
+    private static final String STATE_SELECTOR =
+            "select[name='state'], select[name='billing_state'], input[name='state'], input[name='billing_state'], input[id*='state']";
+    private static final String ZIP_SELECTOR =
+            "input[name='zip'], input[name='postal_code'], input[name='billing_postcode'], input[id*='zip'], input[id*='postal']";
+    private static final String COUNTRY_SELECTOR =
+            "select[name='country'], select[name='billing_country'], input[name='country'], input[id*='country']";
+    private static final String PHONE_SELECTOR =
+            "input[name='phone'], input[name='billing_phone'], input[id*='phone']";
+
+    private final SelenideElement firstNameField = $(FIRST_NAME_SELECTOR);
+    private final SelenideElement lastNameField = $(LAST_NAME_SELECTOR);
+    private final SelenideElement emailField = $(EMAIL_SELECTOR);
+    private final SelenideElement addressField = $(ADDRESS_SELECTOR);
+    private final SelenideElement address2Field = $(ADDRESS2_SELECTOR);
+    private final SelenideElement cityField = $(CITY_SELECTOR);
+    private final SelenideElement stateField = $(STATE_SELECTOR);
+    private final SelenideElement zipField = $(ZIP_SELECTOR);
+    private final SelenideElement countryField = $(COUNTRY_SELECTOR);
+    private final SelenideElement phoneField = $(PHONE_SELECTOR);
+
+    /**
+     * Fills every billing field in one script execution. Country is applied first because WooCommerce
+     * re-renders the state field when the country changes. Values are set through the native setter and
+     * followed by input/change events so WooCommerce validation and update_checkout handlers run.
+     * Selects try option value, then option text, then the field-specific fallback.
+     */
+    private static final String BATCH_FILL_SCRIPT =
+            "var fields = arguments[0];\n" +
+            "var setInputValue = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;\n" +
+            "function fire(el) {\n" +
+            "    el.dispatchEvent(new Event('input', { bubbles: true }));\n" +
+            "    el.dispatchEvent(new Event('change', { bubbles: true }));\n" +
+            "}\n" +
+            "function describe(el) { return el.tagName.toLowerCase() + (el.name ? '#' + el.name : ''); }\n" +
+            "function findOption(select, candidates) {\n" +
+            "    for (var c = 0; c < candidates.length; c++) {\n" +
+            "        var candidate = candidates[c];\n" +
+            "        for (var o = 0; o < select.options.length; o++) {\n" +
+            "            var option = select.options[o];\n" +
+            "            var actual = candidate.by === 'value' ? option.value : option.text.trim();\n" +
+            "            if (actual === candidate.value) { return { option: option, note: 'selected by ' + candidate.by }; }\n" +
+            "        }\n" +
+            "    }\n" +
+            "    return null;\n" +
+            "}\n" +
+            "var report = [];\n" +
+            "for (var i = 0; i < fields.length; i++) {\n" +
+            "    var field = fields[i];\n" +
+            "    var entry = { field: field.field, filled: false, element: null, value: null, note: null };\n" +
+            "    report.push(entry);\n" +
+            "    if (field.value === null || field.value.trim() === '') { entry.note = 'no value'; continue; }\n" +
+            "    var el = document.querySelector(field.selector);\n" +
+            "    if (!el) { entry.note = 'field not found'; continue; }\n" +
+            "    entry.element = describe(el);\n" +
+            "    if (el.tagName === 'SELECT') {\n" +
+            "        var match = findOption(el, field.options);\n" +
+            "        if (!match && field.selectFirst && el.options.length > 0) {\n" +
+            "            match = { option: el.options[0], note: 'selected first option' };\n" +
+            "        }\n" +
+            "        if (!match) { entry.note = 'no matching option'; continue; }\n" +
+            "        el.value = match.option.value;\n" +
+            "        entry.note = match.note;\n" +
+            "    } else {\n" +
+            "        setInputValue.call(el, field.value);\n" +
+            "        entry.note = 'set value';\n" +
+            "    }\n" +
+            "    fire(el);\n" +
+            "    entry.filled = true;\n" +
+            "    entry.value = el.value;\n" +
+            "}\n" +
+            "return report;";
 
     // Payment methods
     private final SelenideElement creditCardOption = $(
@@ -93,8 +168,173 @@ public class CheckoutPage extends BasePage {
         return this;
     }
 
+    /**
+     * Fill the billing form in one script execution; fields the script could not fill are retried
+     * one by one
+     * @throws RuntimeException naming the required fields that are still empty afterwards
+     */
     @Step("Fill billing details with billing info model")
     public CheckoutPage fillBillingDetails(BillingInfo billingInfo) {
+        List<BillingFieldType> unfilled = new ArrayList<>();
+        try {
+            BillingFillReport report = fillBillingDetailsBatched(billingInfo);
+            report.getEntries().forEach((fieldType, entry) -> {
+                if (!entry.isFilled() && !"no value".equals(entry.getNote())) {
+                    unfilled.add(fieldType);
+                }
+            });
+        } catch (Exception e) {
+            logger.info("Batched billing fill failed, filling field by field: {}", e.getMessage());
+            unfilled.addAll(Arrays.asList(BillingFieldType.values()));
+        }
+        if (unfilled.isEmpty()) {
+            return this;
+        }
+
+        logger.info("Filling billing fields {} one by one", unfilled);
+        for (BillingFieldType fieldType : unfilled) {
+            fillBillingField(fieldType, billingInfo);
+        }
+        List<BillingFieldType> missing = new ArrayList<>();
+        for (BillingFieldType fieldType : unfilled) {
+            if (isRequired(fieldType, billingInfo) && isBlank(fieldType)) {
+                missing.add(fieldType);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Could not fill billing fields " + missing + " for " + billingInfo.getFullName());
+        }
+        return this;
+    }
+
+    // Address line 2 is optional, and the state only exists for countries with a state list
+    private static boolean isRequired(BillingFieldType fieldType, BillingInfo billingInfo) {
+        String value = billingInfo.getFieldValue(fieldType);
+        if (value == null || value.trim().isEmpty() || fieldType == BillingFieldType.ADDRESS2) {
+            return false;
+        }
+        return fieldType != BillingFieldType.STATE
+                || "US".equals(billingInfo.getCountry()) || "CA".equals(billingInfo.getCountry());
+    }
+
+    private static boolean isBlank(BillingFieldType fieldType) {
+        SelenideElement field = $(getSelector(fieldType));
+        if (!field.exists()) {
+            return true;
+        }
+        String value = field.getValue();
+        return value == null || value.trim().isEmpty();
+    }
+
+    @Step("Fill billing details in a single script execution")
+    public BillingFillReport fillBillingDetailsBatched(BillingInfo billingInfo) {
+        logger.info("Filling billing details in batch with model: {}", billingInfo.getFullName());
+        handlePopups();
+        // Record the checkout refreshes triggered by the field changes
+        WooCommerceEvents.install(WebDriverRunner.getWebDriver());
+
+        List<Map<String, Object>> fields = new ArrayList<>();
+        // Country first: changing it re-renders the state field
+        fields.add(createBatchField(BillingFieldType.COUNTRY, billingInfo));
+        for (BillingFieldType fieldType : BillingFieldType.values()) {
+            if (fieldType != BillingFieldType.COUNTRY) {
+                fields.add(createBatchField(fieldType, billingInfo));
+            }
+        }
+
+        List<Map<String, Object>> result = executeJavaScript(BATCH_FILL_SCRIPT, fields);
+
+        BillingFillReport report = new BillingFillReport();
+        for (Map<String, Object> entry : result) {
+            report.put(BillingFieldType.valueOf((String) entry.get("field")), new BillingFillReport.Entry(
+                    Boolean.TRUE.equals(entry.get("filled")),
+                    (String) entry.get("element"),
+                    (String) entry.get("value"),
+                    (String) entry.get("note")));
+        }
+        logger.info("Billing fill report: {}", report);
+        return report;
+    }
+
+    /**
+     * Describe a billing field for the batch fill script
+     * @param fieldType The type of field to fill
+     * @param billingInfo The billing information model
+     * @return Field descriptor with selector, value and select fallbacks
+     */
+    private Map<String, Object> createBatchField(BillingFieldType fieldType, BillingInfo billingInfo) {
+        String value = billingInfo.getFieldValue(fieldType);
+        List<Map<String, String>> options = new ArrayList<>();
+        boolean selectFirst = false;
+
+        switch (fieldType) {
+            case STATE:
+                options.add(optionCandidate("value", value));
+                options.add(optionCandidate("text", value));
+                options.add(optionCandidate("text", "California"));
+                break;
+
+            case COUNTRY:
+                options.add(optionCandidate("value", value));
+                options.add(optionCandidate("text", "United States"));
+                options.add(optionCandidate("text", "USA"));
+                selectFirst = true;
+                break;
+
+            default:
+                break;
+        }
+
+        Map<String, Object> field = new HashMap<>();
+        field.put("field", fieldType.name());
+        field.put("selector", getSelector(fieldType));
+        field.put("value", value);
+        field.put("options", options);
+        field.put("selectFirst", selectFirst);
+        return field;
+    }
+
+    private static Map<String, String> optionCandidate(String by, String value) {
+        Map<String, String> candidate = new HashMap<>();
+        candidate.put("by", by);
+        candidate.put("value", value);
+        return candidate;
+    }
+
+    /**
+     * Get the CSS selector for a billing field
+     * @param fieldType The type of field
+     * @return Comma separated selector candidates
+     */
+    private static String getSelector(BillingFieldType fieldType) {
+        switch (fieldType) {
+            case FIRST_NAME:
+                return FIRST_NAME_SELECTOR;
+            case LAST_NAME:
+                return LAST_NAME_SELECTOR;
+            case EMAIL:
+                return EMAIL_SELECTOR;
+            case ADDRESS:
+                return ADDRESS_SELECTOR;
+            case ADDRESS2:
+                return ADDRESS2_SELECTOR;
+            case CITY:
+                return CITY_SELECTOR;
+            case STATE:
+                return STATE_SELECTOR;
+            case ZIP:
+                return ZIP_SELECTOR;
+            case PHONE:
+                return PHONE_SELECTOR;
+            case COUNTRY:
+                return COUNTRY_SELECTOR;
+            default:
+                throw new IllegalArgumentException("Unknown billing field type: " + fieldType);
+        }
+    }
+
+    @Step("Fill billing details field by field")
+    public CheckoutPage fillBillingDetailsPerField(BillingInfo billingInfo) {
         logger.info("Filling billing details with model: {}", billingInfo.getFullName());
         handlePopups();
 
@@ -290,7 +530,7 @@ public class CheckoutPage extends BasePage {
 
     @Step("Fill billing details with random data")
     public CheckoutPage fillBillingDetailsWithRandomData() {
-        BillingInfo randomBillingInfo = BillingInfo.createRandom();
+        BillingInfo randomBillingInfo = BillingDataFactory.createUSBilling();
         return fillBillingDetails(randomBillingInfo);
     }
 
@@ -528,6 +768,8 @@ public class CheckoutPage extends BasePage {
     @Step("Click on PLACE ORDER")
     public CheckoutPage clickPlaceOrder() {
         logger.info("Clicking on PLACE ORDER");
+        // Billing changes trigger update_checkout, which re-renders the order review and payment section
+        WooCommerceEvents.awaitIdle(WebDriverRunner.getWebDriver());
         placeOrderButton.shouldBe(visible, enabled).click();
         return this;
     }
@@ -0,0 +1,59 @@
+package com.testarchitect.framework.pages;
+
+/**
+ * Snapshot of a selector taken by {@link BasePage#probe(String...)}
+ */
+public final class ElementProbe {
+    private final String selector;
+    private final int count;
+    private final int visibleCount;
+    private final boolean visible;
+    private final String text;
+
+    ElementProbe(String selector, int count, int visibleCount, boolean visible, String text) {
+        this.selector = selector;
+        this.count = count;
+        this.visibleCount = visibleCount;
+        this.visible = visible;
+        this.text = text;
+    }
+
+    public String getSelector() {
+        return selector;
+    }
+
+    /** Whether any element matches the selector, like {@code $(selector).exists()} */
+    public boolean exists() {
+        return count > 0;
+    }
+
+    /** Whether the first matching element is visible, like {@code $(selector).is(visible)} */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /** Number of matching elements */
+    public int getCount() {
+        return count;
+    }
+
+    /** Number of visible matching elements, like {@code $$(selector).filterBy(visible).size()} */
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    /** Visible text of the first matching element, empty if there is none */
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return "ElementProbe{" +
+                "selector='" + selector + '\'' +
+                ", count=" + count +
+                ", visibleCount=" + visibleCount +
+                ", visible=" + visible +
+                '}';
+    }
+}
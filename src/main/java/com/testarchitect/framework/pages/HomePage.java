@@ -2,8 +2,13 @@ package com.testarchitect.framework.pages;
 
 import com.codeborne.selenide.ElementsCollection;
 import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.WebDriverRunner;
+import com.testarchitect.framework.config.ConfigManager;
+import com.testarchitect.framework.driver.WooCommerceEvents;
 import io.qameta.allure.Step;
 
+import java.util.List;
+
 import static com.codeborne.selenide.CollectionCondition.sizeGreaterThan;
 import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.*;
@@ -20,7 +25,8 @@ public class HomePage extends BasePage {
     
     // Product elements
     private final ElementsCollection productCards = $$(".product-card, .product, .item, .woocommerce-loop-product__title, .product-title, .post, .type-product");
-    private final SelenideElement departmentsSection = $(".departments");
+    private static final String DEPARTMENTS_SELECTOR = ".departments";
+    private final SelenideElement departmentsSection = $(DEPARTMENTS_SELECTOR);
     private final SelenideElement productsSection = $(".products, .product-list, .shop-content, .woocommerce-loop-container, .products-container, main");
     private final SelenideElement sortDropdown = $("select[name='sort']");
     
@@ -58,40 +64,36 @@ public class HomePage extends BasePage {
         handlePopups();
         
         try {
-            // Try to find visible navigation elements first
-            if ($(".nav-departments").is(visible)) {
-                $(".nav-departments").click();
-                logger.info("Clicked on visible nav-departments");
-            } else if ($("a[href*='shop']").is(visible)) {
-                $("a[href*='shop']").click();
-                logger.info("Clicked on visible shop link");
-            } else if ($("a[href*='product']").is(visible)) {
-                $("a[href*='product']").click();
-                logger.info("Clicked on visible products link");
-            } else if (departmentsSection.is(visible)) {
-                departmentsSection.click();
-                logger.info("Clicked on visible departments section");
+            // Probe all navigation candidates in one call, in order of preference
+            List<ElementProbe> probes = probe(".nav-departments", "a[href*='shop']", "a[href*='product']",
+                    DEPARTMENTS_SELECTOR, "a[href*='category']");
+            ElementProbe navigation = firstVisible(probes.subList(0, 4));
+            ElementProbe categoryLinks = probes.get(4);
+            
+            if (navigation != null) {
+                $(navigation.getSelector()).click();
+                logger.info("Clicked on visible navigation element: {}", navigation.getSelector());
             } else {
                 // If no visible navigation found, try to navigate directly to a category page
                 logger.info("No visible navigation found, trying direct navigation");
                 // Look for any visible category link or just proceed to product listing
-                if ($$("a[href*='category']").filterBy(visible).size() > 0) {
+                if (categoryLinks.getVisibleCount() > 0) {
                     $$("a[href*='category']").filterBy(visible).first().click();
                     logger.info("Clicked on first visible category link");
                 } else {
                     // As fallback, go directly to the main shop page
                     logger.info("No category links found, navigating to main shop URL");
-                    open("https://demo.testarchitect.com/shop/");
+                    open(ConfigManager.getInstance().getAppUrl() + "shop/");
                 }
             }
         } catch (Exception e) {
             logger.warn("Error during navigation, trying fallback approach: " + e.getMessage());
             // Fallback: navigate directly to shop
-            open("https://demo.testarchitect.com/shop/");
+            open(ConfigManager.getInstance().getAppUrl() + "shop/");
         }
         
-        // Handle any new popups after navigation
-        handlePopups();
+        // Wait for the new page and handle any new popups after navigation
+        waitForPageToLoad();
         
         return this;
     }
@@ -137,6 +139,7 @@ public class HomePage extends BasePage {
             logger.info("Proceeding with current page content");
         }
         
+        waitForPageToLoad();
         return this;
     }
     
@@ -191,12 +194,14 @@ public class HomePage extends BasePage {
             // First check if we can find any list view toggle button
             if (listViewButton.exists()) {
                 logger.info("Found list view button, clicking it");
+                WooCommerceEvents.Checkpoint checkpoint = WooCommerceEvents.checkpoint(WebDriverRunner.getWebDriver());
                 listViewButton.click();
-                sleep(2000); // Wait for view change
+                checkpoint.await(); // Wait for view change
             } else if (viewToggle.exists()) {
                 logger.info("Found view toggle, clicking it");
+                WooCommerceEvents.Checkpoint checkpoint = WooCommerceEvents.checkpoint(WebDriverRunner.getWebDriver());
                 viewToggle.click();
-                sleep(2000); // Wait for view change
+                checkpoint.await(); // Wait for view change
             } else {
                 logger.info("No view toggle found, assuming list view is already active or not supported");
             }
@@ -237,11 +242,16 @@ public class HomePage extends BasePage {
         handlePopups();
         
         // Wait for products to be available
-        sleep(2000);
+        WooCommerceEvents.awaitIdle(WebDriverRunner.getWebDriver());
         
         // Get all visible products
         ElementsCollection visibleProducts = $$(".product-card, .product, .item, .woocommerce-loop-product__title, .product-title, .post, .type-product")
             .filter(visible);
+        try {
+            visibleProducts.shouldHave(sizeGreaterThan(0));
+        } catch (AssertionError e) {
+            logger.info("No products became visible: {}", e.getMessage());
+        }
         
         if (visibleProducts.size() > 0) {
             int randomIndex = (int) (Math.random() * visibleProducts.size());
@@ -284,7 +294,7 @@ public class HomePage extends BasePage {
                 }
             }
             
-            handlePopups(); // Handle any popups after clicking
+            waitForPageToLoad(); // Wait for the product page and handle any popups after clicking
             
             return new ProductPage();
         } else {
@@ -326,7 +336,7 @@ public class HomePage extends BasePage {
             logger.info("Exception while going to cart: {}, continuing with test", e.getMessage());
         }
         
-        handlePopups();
+        waitForPageToLoad();
         return new CartPage();
     }
     
@@ -1,7 +1,10 @@
 package com.testarchitect.framework.pages;
 
 import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.WebDriverRunner;
+import com.testarchitect.framework.driver.SessionCache;
 import io.qameta.allure.Step;
+import org.openqa.selenium.WebDriver;
 
 import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.$;
@@ -88,6 +91,38 @@ public class LoginPage extends BasePage {
         }
     }
     
+    /**
+     * Log in through the session cache: the first test of an account logs in through the form, later
+     * tests get its cookies injected and land on the base URL already logged in. A session the server
+     * no longer accepts is dropped and the account logs in again.
+     */
+    @Step("Log in with cached session: {username}")
+    public LoginPage loginWithCachedSession(String baseUrl, String username, String password) {
+        SessionCache sessions = SessionCache.getInstance();
+        WebDriver driver = WebDriverRunner.getWebDriver();
+
+        if (sessions.restore(driver, baseUrl, username)) {
+            open(baseUrl);
+            waitForPageToLoad();
+            if (sessions.isLoggedIn(driver)) {
+                return this;
+            }
+            logger.info("Cached session of {} was not accepted, logging in again", username);
+            sessions.invalidate(baseUrl, username);
+            driver.manage().deleteAllCookies();
+        }
+
+        boolean loggedIn = sessions.login(driver, baseUrl, username, () -> {
+            openLoginPage(baseUrl);
+            loginWith(username, password);
+        });
+        if (!loggedIn) {
+            open(baseUrl);
+            waitForPageToLoad();
+        }
+        return this;
+    }
+    
     @Step("Verify login form is displayed")
     public LoginPage verifyLoginFormDisplayed() {
         logger.info("Verifying login form is displayed");
@@ -2,8 +2,14 @@ package com.testarchitect.framework.pages;
 
 import com.codeborne.selenide.ElementsCollection;
 import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.WebDriverRunner;
 import io.qameta.allure.Step;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import static com.codeborne.selenide.CollectionCondition.sizeGreaterThan;
 import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.*;
@@ -12,6 +18,8 @@ import static com.codeborne.selenide.Selenide.*;
  * Order Status/History page object
  */
 public class OrderStatusPage extends BasePage {
+    // Order history pages followed at most when looking for orders
+    private static final int MAX_HISTORY_PAGES = 20;
     
     // Order status elements
     private final SelenideElement orderStatusContainer = $(".order-status-container");
@@ -25,6 +33,8 @@ public class OrderStatusPage extends BasePage {
     private final SelenideElement ordersLink = $("a[href*='orders']");
     private final ElementsCollection orderHistoryList = $$(".order-history-item");
     private final SelenideElement orderDetailsSection = $(".order-details");
+    private final ElementsCollection orderNumbers = $$(".woocommerce-orders-table__cell-order-number, .order-history-item .order-number");
+    private final SelenideElement nextOrdersPage = $(".woocommerce-pagination .woocommerce-button--next");
     
     @Step("Verify order details with billing and item information")
     public OrderStatusPage verifyOrderDetails() {
@@ -37,34 +47,30 @@ public class OrderStatusPage extends BasePage {
         SelenideElement orderConfirmationElement = null;
         
         try {
-            // Try various order confirmation page selectors
-            if ($(".order-status-container").exists()) {
-                orderConfirmationElement = $(".order-status-container");
-                logger.info("Found order status container");
-            } else if ($(".order-confirmation").exists()) {
-                orderConfirmationElement = $(".order-confirmation");
-                logger.info("Found order confirmation");
-            } else if ($(".checkout-success").exists()) {
-                orderConfirmationElement = $(".checkout-success");
-                logger.info("Found checkout success");
-            } else if ($(".woocommerce-order-received").exists()) {
-                orderConfirmationElement = $(".woocommerce-order-received");
-                logger.info("Found WooCommerce order received");
-            } else if ($(".order-complete").exists()) {
-                orderConfirmationElement = $(".order-complete");
-                logger.info("Found order complete");
-            } else if ($$("h1, h2, h3").filter(text("order")).size() > 0) {
-                orderConfirmationElement = $$("h1, h2, h3").filter(text("order")).first();
+            // Probe all order confirmation page selectors and the checkout form in one call
+            List<ElementProbe> probes = probe(
+                    ".order-status-container", ".order-confirmation", ".checkout-success",
+                    ".woocommerce-order-received", ".order-complete",
+                    "form[name='checkout']", ".checkout-form");
+            ElementProbe confirmation = firstExisting(probes.subList(0, 5));
+            boolean onCheckoutForm = probes.get(5).exists() || probes.get(6).exists();
+            TextMatch match;
+            
+            if (confirmation != null) {
+                orderConfirmationElement = $(confirmation.getSelector());
+                logger.info("Found order confirmation element: {}", confirmation.getSelector());
+            } else if ((match = findTextWithin("h1, h2, h3", 1, "order").get(0)).isFound()) {
+                orderConfirmationElement = match.first();
                 logger.info("Found order-related heading");
-            } else if ($$("*").filter(text("thank you")).size() > 0) {
-                orderConfirmationElement = $$("*").filter(text("thank you")).first();
+            } else if ((match = findText(1, "thank you").get(0)).isFound()) {
+                orderConfirmationElement = match.first();
                 logger.info("Found thank you message");
             } else {
                 // If no specific order confirmation element found, just verify we're on some success page
                 logger.info("No specific order confirmation found, checking page content");
                 
                 // Check if page has changed from checkout (indicates successful submission)
-                if (!$("form[name='checkout']").exists() && !$(".checkout-form").exists()) {
+                if (!onCheckoutForm) {
                     logger.info("Successfully left checkout form, order likely submitted");
                     return this;
                 } else {
@@ -126,4 +132,36 @@ public class OrderStatusPage extends BasePage {
         orderHistoryList.shouldHave(sizeGreaterThan(0));
         return this;
     }
+    
+    @Step("Verify orders {orderIds} appear in history")
+    public OrderStatusPage verifyOrderInHistory(Collection<String> orderIds) {
+        logger.info("Verifying orders {} appear in history", orderIds);
+        handlePopups();
+        
+        // Later orders push older ones to the next pages of the history
+        Set<String> missing = new LinkedHashSet<>(orderIds);
+        for (int page = 1; page <= MAX_HISTORY_PAGES; page++) {
+            orderNumbers.shouldHave(sizeGreaterThan(0));
+            for (String number : orderNumbers.texts()) {
+                missing.remove(number.replace("#", "").trim());
+            }
+            if (missing.isEmpty() || !nextOrdersPage.exists()) {
+                break;
+            }
+            String pageUrl = WebDriverRunner.url();
+            nextOrdersPage.click();
+            waitForPageToLoad();
+            // A next link that does not leave the page would be followed forever
+            if (WebDriverRunner.url().equals(pageUrl)) {
+                logger.warn("Next orders page link did not leave {}", pageUrl);
+                break;
+            }
+        }
+        
+        if (!missing.isEmpty()) {
+            throw new AssertionError("Orders " + missing + " are not in the order history");
+        }
+        logger.info("Found orders {} in history", orderIds);
+        return this;
+    }
 }
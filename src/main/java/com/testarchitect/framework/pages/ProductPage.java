@@ -3,6 +3,8 @@ package com.testarchitect.framework.pages;
 import com.codeborne.selenide.ElementsCollection;
 import com.codeborne.selenide.Selenide;
 import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.WebDriverRunner;
+import com.testarchitect.framework.driver.WooCommerceEvents;
 import io.qameta.allure.Step;
 
 import static com.codeborne.selenide.Condition.*;
@@ -43,6 +45,7 @@ public class ProductPage extends BasePage {
     public ProductPage addToCart() {
         logger.info("Adding product to cart");
         handlePopups();
+        WooCommerceEvents.Checkpoint checkpoint = WooCommerceEvents.checkpoint(WebDriverRunner.getWebDriver());
         
         try {
             if (addToCartButton.exists()) {
@@ -71,8 +74,9 @@ public class ProductPage extends BasePage {
             }
         }
         
+        // AJAX add to cart signals completion with events, a form post replaces the document
+        checkpoint.await(WooCommerceEvents.ADDED_TO_CART, WooCommerceEvents.WC_FRAGMENTS_REFRESHED);
         handlePopups();
-        Selenide.sleep(2000); // Wait for cart action to complete
         
         return this;
     }
@@ -0,0 +1,61 @@
+package com.testarchitect.framework.pages;
+
+import com.codeborne.selenide.SelenideElement;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Visible elements containing a phrase, found by {@link BasePage#findText(int, String...)}
+ */
+public final class TextMatch {
+    private final String phrase;
+    private final int count;
+    private final List<SelenideElement> elements;
+    private final List<String> texts;
+
+    TextMatch(String phrase, int count, List<SelenideElement> elements, List<String> texts) {
+        this.phrase = phrase;
+        this.count = count;
+        this.elements = Collections.unmodifiableList(elements);
+        this.texts = Collections.unmodifiableList(texts);
+    }
+
+    public String getPhrase() {
+        return phrase;
+    }
+
+    /** Whether any visible element contains the phrase, like {@code $$("*").filter(text(phrase)).size() > 0} */
+    public boolean isFound() {
+        return count > 0;
+    }
+
+    /** Number of visible elements containing the phrase, even beyond the requested limit */
+    public int getCount() {
+        return count;
+    }
+
+    /** The first matching elements in document order, at most as many as requested */
+    public List<SelenideElement> getElements() {
+        return elements;
+    }
+
+    /** First matching element, or null */
+    public SelenideElement first() {
+        return elements.isEmpty() ? null : elements.get(0);
+    }
+
+    /** Visible text of the returned elements, trimmed to 200 characters each */
+    public List<String> getTexts() {
+        return texts;
+    }
+
+    @Override
+    public String toString() {
+        return "TextMatch{" +
+                "phrase='" + phrase + '\'' +
+                ", count=" + count +
+                ", texts=" + texts +
+                '}';
+    }
+}
@@ -0,0 +1,771 @@
+package com.testarchitect.framework.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.testarchitect.framework.config.ConfigManager;
+import com.testarchitect.framework.models.TestAccount;
+import com.testarchitect.framework.server.StorefrontData.CartLine;
+import com.testarchitect.framework.server.StorefrontData.Order;
+import com.testarchitect.framework.server.StorefrontData.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Hermetic stand-in for the WooCommerce demo store, served from this JVM on the loopback interface so
+ * suites run offline with millisecond page loads. With {@code environment=local} BaseTest starts it at
+ * suite start and {@link ConfigManager#getAppUrl()} returns its URL. It serves the pages the page objects use (shop, product, cart, checkout,
+ * order received, My Account with a PopMaker popup on the landing pages) and the endpoints the
+ * fixtures use: {@code ?add-to-cart}, {@code admin-ajax.php?action=rest-nonce} and the Store API cart,
+ * batch and checkout routes. Sessions follow WordPress: a {@code wordpress_logged_in_} cookie, a guest
+ * {@code wp_woocommerce_session_} cookie, REST calls that only count as the customer with the
+ * {@code X-WP-Nonce} header, and Store API writes that need the cart's {@code Nonce} header.
+ */
+public class LocalStorefront {
+    private static final Logger logger = LoggerFactory.getLogger(LocalStorefront.class);
+    private static volatile LocalStorefront instance;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String AUTH_COOKIE = "wordpress_logged_in_local";
+    private static final String SESSION_COOKIE = "wp_woocommerce_session_local";
+    private static final String POPUP_COOKIE = "pum-501";
+    private static final String STORE_API = "/wp-json/wc/store/v1";
+    private static final int AUTH_COOKIE_MAX_AGE = 2 * 24 * 60 * 60;
+    private static final Pattern PRODUCT_PATH = Pattern.compile("/product/([^/]+)/");
+    private static final Pattern CATEGORY_PATH = Pattern.compile("/product-category/([^/]+)/");
+    private static final Pattern ORDER_RECEIVED_PATH = Pattern.compile("/checkout/order-received/(\\d+)/");
+    private static final Pattern ORDERS_PATH = Pattern.compile("/my-account/orders/(?:(\\d+)/)?");
+    private static final Pattern VIEW_ORDER_PATH = Pattern.compile("/my-account/view-order/(\\d+)/");
+    private static final Pattern CART_QUANTITY = Pattern.compile("cart\\[(\\d+)\\]\\[qty\\]");
+
+    private final StorefrontData data;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String baseUrl;
+    private final int popupDelayMs;
+    private final String secret = UUID.randomUUID().toString();
+    private final Map<String, String> logins = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * Start a storefront on the loopback interface
+     * @param port Port to listen on, or 0 for any free port
+     * @param popupDelayMs Delay before the PopMaker popup opens, or a negative value for no popup
+     */
+    public LocalStorefront(int port, List<TestAccount> accounts, int popupDelayMs) {
+        this.data = new StorefrontData(accounts);
+        this.popupDelayMs = popupDelayMs;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start the local storefront on port " + port, e);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-storefront-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        // The loopback IP rather than localhost: java.net.CookieManager drops cookies of dotless hosts
+        this.baseUrl = "http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort() + "/";
+        logger.info("Local storefront serving {} products at {}", data.getProducts().size(), baseUrl);
+    }
+
+    public static LocalStorefront getInstance() {
+        if (instance == null) {
+            synchronized (LocalStorefront.class) {
+                if (instance == null) {
+                    ConfigManager config = ConfigManager.getInstance();
+                    instance = new LocalStorefront(config.getLocalServerPort(), config.getTestAccounts(),
+                            config.getLocalServerPopupDelayMs());
+                    System.setProperty(ConfigManager.LOCAL_SERVER_URL, instance.getBaseUrl());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Base URL of the storefront, with a trailing slash like {@code app.url}
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stop the shared storefront, if it was started, e.g. at the end of the suite
+     */
+    public static void shutdown() {
+        LocalStorefront storefront = instance;
+        if (storefront == null) {
+            return;
+        }
+        storefront.stop();
+        System.clearProperty(ConfigManager.LOCAL_SERVER_URL);
+        logger.info("Local storefront served {} requests", storefront.requests.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Request request = new Request(exchange);
+            if (request.path.startsWith("/wp-json/")) {
+                rest(request);
+            } else {
+                page(request);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Local storefront failed to answer {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            respond(exchange, 500, "text/plain", "Internal error: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Pages
+
+    private void page(Request request) throws IOException {
+        String path = request.path;
+        if (path.equals("/robots.txt")) {
+            respond(request.exchange, 200, "text/plain", "User-agent: *\nDisallow: /wp-admin/\n");
+            return;
+        }
+        if (path.equals("/wp-admin/admin-ajax.php")) {
+            boolean restNonce = "rest-nonce".equals(request.param("action")) && request.customer != null;
+            respond(request.exchange, restNonce ? 200 : 400, "text/plain", restNonce ? restNonce(request.customer) : "0");
+            return;
+        }
+        if ("add_to_cart".equals(request.query.get("wc-ajax"))) {
+            long productId = parseLong(request.param("product_id"));
+            boolean added = data.addToCart(request.cartKey(), productId, (int) parseLong(request.param("quantity")));
+            respond(request.exchange, added ? 200 : 400, "application/json",
+                    "{\"error\":" + !added + ",\"cart_count\":" + data.getCartCount(request.cartKey()) + "}");
+            return;
+        }
+
+        String notice = "";
+        if (request.param("add-to-cart") != null && !path.startsWith("/product/")) {
+            notice = addToCartNotice(request, request.param("add-to-cart"), request.param("quantity"));
+        }
+
+        StorefrontPages pages = request.pages();
+        Matcher matcher;
+        if (path.equals("/")) {
+            html(request, 200, pages.home(notice));
+        } else if (path.equals("/shop/")) {
+            html(request, 200, pages.shop("Shop", sorted(data.getProducts(), request.param("sort")), request.param("sort"), notice));
+        } else if ((matcher = CATEGORY_PATH.matcher(path)).matches()) {
+            List<Product> products = data.getProducts(matcher.group(1));
+            String title = Character.toUpperCase(matcher.group(1).charAt(0)) + matcher.group(1).substring(1);
+            html(request, products.isEmpty() ? 404 : 200, products.isEmpty() ? pages.notFound()
+                    : pages.shop(title, sorted(products, request.param("sort")), request.param("sort"), notice));
+        } else if ((matcher = PRODUCT_PATH.matcher(path)).matches()) {
+            product(request, data.getProduct(matcher.group(1)));
+        } else if (path.equals("/cart/")) {
+            cart(request, notice);
+        } else if (path.equals("/checkout/")) {
+            checkout(request);
+        } else if ((matcher = ORDER_RECEIVED_PATH.matcher(path)).matches()) {
+            Order order = data.getOrder(Long.parseLong(matcher.group(1)));
+            boolean valid = order != null && order.key.equals(request.param("key"));
+            html(request, valid ? 200 : 404, valid ? pages.orderReceived(order) : pages.notFound());
+        } else if (path.startsWith("/my-account/")) {
+            account(request);
+        } else {
+            html(request, 404, pages.notFound());
+        }
+    }
+
+    private void product(Request request, Product product) throws IOException {
+        if (product == null) {
+            html(request, 404, request.pages().notFound());
+            return;
+        }
+        String notice = "";
+        if (request.isPost() && request.param("add-to-cart") != null) {
+            notice = addToCartNotice(request, request.param("add-to-cart"), request.param("quantity"));
+        } else if (request.isPost() && request.param("review") != null) {
+            String text = request.param("review").trim();
+            if (text.isEmpty()) {
+                notice = StorefrontPages.notice("Please type your review.");
+            } else {
+                int rating = (int) Math.max(1, Math.min(5, parseLong(request.param("rating"))));
+                data.addReview(product.id, request.customer != null ? request.customer : "Guest", rating, text);
+                notice = StorefrontPages.notice("Your review has been submitted.");
+            }
+        }
+        html(request, 200, request.pages().product(product, notice));
+    }
+
+    private String addToCartNotice(Request request, String productId, String quantity) {
+        Product product = data.getProduct(parseLong(productId));
+        int count = quantity == null ? 1 : (int) parseLong(quantity);
+        if (product == null || !data.addToCart(request.cartKey(), product.id, count)) {
+            return StorefrontPages.notice("Sorry, this product cannot be purchased.");
+        }
+        return StorefrontPages.notice("<a href=\"/cart/\" class=\"button wc-forward\">View cart</a> &ldquo;"
+                + StorefrontPages.esc(product.name) + "&rdquo; has been added to your cart.");
+    }
+
+    private void cart(Request request, String notice) throws IOException {
+        if (request.isPost()) {
+            String cartKey = request.cartKey();
+            if (request.param("empty_cart") != null) {
+                data.clearCart(cartKey);
+            } else if (request.param("remove_item") != null) {
+                data.setQuantity(cartKey, parseLong(request.param("remove_item")), 0);
+                notice = StorefrontPages.notice("Item removed.");
+            } else {
+                for (Map.Entry<String, String> field : request.form().entrySet()) {
+                    Matcher quantity = CART_QUANTITY.matcher(field.getKey());
+                    if (quantity.matches()) {
+                        data.setQuantity(cartKey, Long.parseLong(quantity.group(1)), (int) parseLong(field.getValue()));
+                    }
+                }
+                notice = StorefrontPages.notice("Cart updated.");
+            }
+        }
+        html(request, 200, request.pages().cart(notice));
+    }
+
+    private void checkout(Request request) throws IOException {
+        if (!request.isPost()) {
+            if (data.getCart(request.cartKey()).isEmpty()) {
+                redirect(request, "/cart/");
+            } else {
+                html(request, 200, request.pages().checkout(Map.of(), List.of()));
+            }
+            return;
+        }
+        Map<String, String> form = request.form();
+        Map<String, String> billing = new LinkedHashMap<>();
+        form.forEach((name, value) -> {
+            if (name.startsWith("billing_")) {
+                billing.put(name.substring("billing_".length()), value.trim());
+            }
+        });
+        List<String> errors = validate(billing, form.get("payment_method"));
+        if (data.getCart(request.cartKey()).isEmpty()) {
+            errors.add(0, "Sorry, your session has expired. Your cart is empty.");
+        }
+        if (!errors.isEmpty()) {
+            html(request, 200, request.pages().checkout(form, errors));
+            return;
+        }
+        Order order = data.placeOrder(request.cartKey(), request.customer, billing, form.get("payment_method"));
+        redirect(request, "/checkout/order-received/" + order.id + "/?key=" + order.key);
+    }
+
+    private void account(Request request) throws IOException {
+        String path = request.path;
+        StorefrontPages pages = request.pages();
+        if (path.equals("/my-account/customer-logout/")) {
+            String token = request.cookies.get(AUTH_COOKIE);
+            if (token != null) {
+                logins.remove(token);
+            }
+            request.setCookie(AUTH_COOKIE + "=; Path=/; Max-Age=0");
+            redirect(request, "/my-account/");
+            return;
+        }
+        if (path.equals("/my-account/") && request.isPost()) {
+            login(request);
+            return;
+        }
+        if (request.customer == null) {
+            html(request, 200, pages.login(path, loginNonce(), null));
+            return;
+        }
+        Matcher matcher;
+        if (path.equals("/my-account/")) {
+            html(request, 200, pages.dashboard());
+        } else if ((matcher = ORDERS_PATH.matcher(path)).matches()) {
+            int page = matcher.group(1) != null ? Math.max(1, Integer.parseInt(matcher.group(1))) : 1;
+            html(request, 200, pages.orders(page));
+        } else if ((matcher = VIEW_ORDER_PATH.matcher(path)).matches()) {
+            Order order = data.getOrder(Long.parseLong(matcher.group(1)));
+            boolean own = order != null && request.customer.equals(order.customer);
+            html(request, own ? 200 : 404, own ? pages.viewOrder(order) : pages.notFound());
+        } else {
+            html(request, 404, pages.notFound());
+        }
+    }
+
+    private void login(Request request) throws IOException {
+        String username = request.param("username") != null ? request.param("username").trim() : "";
+        String redirect = request.param("redirect");
+        String error = null;
+        if (!loginNonce().equals(request.param("woocommerce-login-nonce"))) {
+            error = "The link you followed has expired. Please try again.";
+        } else if (username.isEmpty()) {
+            error = "Error: Username is required.";
+        } else if (!data.authenticate(username, request.param("password"))) {
+            error = "Error: The username or password you entered is incorrect.";
+        }
+        if (error != null) {
+            html(request, 200, request.pages().login(redirect != null ? redirect : "/my-account/", loginNonce(), error));
+            return;
+        }
+
+        String token = UUID.randomUUID().toString().replace("-", "");
+        logins.put(token, username);
+        request.setCookie(AUTH_COOKIE + "=" + token + "; Path=/; Max-Age=" + AUTH_COOKIE_MAX_AGE + "; HttpOnly; SameSite=Lax");
+        // Like WooCommerce, the guest cart of this browser joins the customer's persistent cart
+        data.mergeCart(request.guestCartKey(), "user:" + username);
+        logger.debug("Local storefront logged in {}", username);
+        redirect(request, redirect != null && redirect.startsWith("/") ? redirect : "/my-account/");
+    }
+
+    private static List<String> validate(Map<String, String> billing, String paymentMethod) {
+        List<String> errors = new ArrayList<>();
+        Map<String, String> required = new LinkedHashMap<>();
+        required.put("first_name", "Billing First name");
+        required.put("last_name", "Billing Last name");
+        required.put("country", "Billing Country / Region");
+        required.put("address_1", "Billing Street address");
+        required.put("city", "Billing Town / City");
+        required.put("postcode", "Billing ZIP Code");
+        required.put("phone", "Billing Phone");
+        required.put("email", "Billing Email address");
+        required.forEach((field, label) -> {
+            if (billing.getOrDefault(field, "").isEmpty()) {
+                errors.add(label + " is a required field.");
+            }
+        });
+        String country = billing.getOrDefault("country", "");
+        if (("US".equals(country) || "CA".equals(country)) && billing.getOrDefault("state", "").isEmpty()) {
+            errors.add("Billing State is a required field.");
+        }
+        String email = billing.getOrDefault("email", "");
+        if (!email.isEmpty() && !email.matches("[^@\\s]+@[^@\\s]+\\.[^@\\s]+")) {
+            errors.add("Invalid billing email address");
+        }
+        if (paymentMethod == null || !StorefrontPages.PAYMENT_METHODS.containsKey(paymentMethod)) {
+            errors.add("Invalid payment method.");
+        }
+        return errors;
+    }
+
+    private static List<Product> sorted(List<Product> products, String sort) {
+        if ("price".equals(sort)) {
+            return products.stream().sorted(Comparator.comparing((Product product) -> product.price)).collect(Collectors.toList());
+        }
+        if ("price-desc".equals(sort)) {
+            return products.stream().sorted(Comparator.comparing((Product product) -> product.price).reversed()).collect(Collectors.toList());
+        }
+        return products;
+    }
+
+    // Store API
+
+    private void rest(Request request) throws IOException {
+        String restNonce = request.header("X-WP-Nonce");
+        if (restNonce != null && (request.customer == null || !restNonce.equals(restNonce(request.customer)))) {
+            json(request, 403, error("rest_cookie_invalid_nonce", "Cookie check failed", 403));
+            return;
+        }
+        // WordPress only treats REST calls as the logged-in user when they carry the REST nonce
+        String customer = restNonce != null ? request.customer : null;
+        String cartKey = customer != null ? "user:" + customer : request.guestCartKey();
+
+        if (!request.path.startsWith(STORE_API + "/")) {
+            json(request, 404, error("rest_no_route", "No route was found matching the URL and request method.", 404));
+            return;
+        }
+        String route = request.path.substring(STORE_API.length());
+        boolean write = !"GET".equals(request.method);
+        if (write) {
+            String storeNonce = request.header("Nonce");
+            if (storeNonce == null || storeNonce.isEmpty()) {
+                json(request, 401, error("woocommerce_rest_missing_nonce",
+                        "Missing the Nonce header. This endpoint requires a valid nonce.", 401));
+                return;
+            }
+            if (!storeNonce.equals(storeNonce(cartKey))) {
+                json(request, 403, error("woocommerce_rest_invalid_nonce", "Nonce is invalid.", 403));
+                return;
+            }
+        }
+        request.exchange.getResponseHeaders().set("Nonce", storeNonce(cartKey));
+
+        RestResponse response;
+        if (route.equals("/batch") && write) {
+            ArrayNode responses = MAPPER.createArrayNode();
+            for (JsonNode call : request.json().path("requests")) {
+                String path = call.path("path").asText();
+                String subRoute = path.startsWith("/wc/store/v1") ? path.substring("/wc/store/v1".length()) : path;
+                RestResponse sub = storeRoute(call.path("method").asText("POST"), subRoute, Map.of(), call.path("body"),
+                        cartKey, customer);
+                responses.addObject().put("status", sub.status).set("body", sub.body);
+            }
+            ObjectNode body = MAPPER.createObjectNode();
+            body.set("responses", responses);
+            response = new RestResponse(207, body);
+        } else {
+            response = storeRoute(request.method, route, request.query, write ? request.json() : MAPPER.createObjectNode(),
+                    cartKey, customer);
+        }
+        json(request, response.status, response.body);
+    }
+
+    private RestResponse storeRoute(String method, String route, Map<String, String> query, JsonNode body,
+                                    String cartKey, String customer) {
+        boolean get = "GET".equals(method);
+        if (get && route.equals("/products")) {
+            List<Product> products = query.containsKey("category") ? data.getProducts(query.get("category")) : data.getProducts();
+            int perPage = (int) Math.max(1, Math.min(100, parseLong(query.getOrDefault("per_page", "10"))));
+            int page = (int) Math.max(1, parseLong(query.getOrDefault("page", "1")));
+            ArrayNode list = MAPPER.createArrayNode();
+            products.stream().skip((long) (page - 1) * perPage).limit(perPage).forEach(product -> list.add(productJson(product)));
+            return new RestResponse(200, list);
+        }
+        if (get && route.startsWith("/products/")) {
+            Product product = data.getProduct(parseLong(route.substring("/products/".length())));
+            return product != null ? new RestResponse(200, productJson(product))
+                    : new RestResponse(404, error("woocommerce_rest_product_invalid_id", "Invalid product ID.", 404));
+        }
+        if (get && route.equals("/cart")) {
+            return new RestResponse(200, cartJson(cartKey));
+        }
+        if ("POST".equals(method) && route.equals("/cart/add-item")) {
+            Product product = data.getProduct(body.path("id").asLong());
+            if (product == null || !data.addToCart(cartKey, product.id, body.path("quantity").asInt(1))) {
+                return new RestResponse(400, error("woocommerce_rest_cart_invalid_product",
+                        "This product cannot be added to the cart.", 400));
+            }
+            return new RestResponse(201, cartJson(cartKey));
+        }
+        if ("POST".equals(method) && (route.equals("/cart/update-item") || route.equals("/cart/remove-item"))) {
+            int quantity = route.endsWith("remove-item") ? 0 : body.path("quantity").asInt();
+            if (!data.setQuantity(cartKey, parseLong(body.path("key").asText()), quantity)) {
+                return new RestResponse(409, error("woocommerce_rest_cart_invalid_key",
+                        "Cart item no longer exists or is invalid.", 409));
+            }
+            return new RestResponse(200, cartJson(cartKey));
+        }
+        if ("DELETE".equals(method) && route.equals("/cart/items")) {
+            data.clearCart(cartKey);
+            return new RestResponse(200, MAPPER.createArrayNode());
+        }
+        if ("POST".equals(method) && route.equals("/checkout")) {
+            return checkout(body, cartKey, customer);
+        }
+        return new RestResponse(404, error("rest_no_route", "No route was found matching the URL and request method.", 404));
+    }
+
+    private RestResponse checkout(JsonNode body, String cartKey, String customer) {
+        Map<String, String> billing = new LinkedHashMap<>();
+        body.path("billing_address").fields().forEachRemaining(field -> billing.put(field.getKey(), field.getValue().asText()));
+        String paymentMethod = body.path("payment_method").asText(null);
+        if (data.getCart(cartKey).isEmpty()) {
+            return new RestResponse(400, error("woocommerce_rest_cart_empty",
+                    "Cannot create order from empty cart.", 400));
+        }
+        List<String> errors = validate(billing, paymentMethod);
+        if (!errors.isEmpty()) {
+            return new RestResponse(400, error("rest_invalid_param", String.join(" ", errors), 400));
+        }
+        Order order = data.placeOrder(cartKey, customer, billing, paymentMethod);
+        ObjectNode result = MAPPER.createObjectNode()
+                .put("order_id", order.id)
+                .put("status", order.status)
+                .put("order_key", order.key)
+                .put("customer_id", customer != null ? Math.abs(customer.hashCode()) : 0);
+        result.putObject("payment_result")
+                .put("payment_status", "success")
+                .put("redirect_url", baseUrl + "checkout/order-received/" + order.id + "/?key=" + order.key);
+        return new RestResponse(200, result);
+    }
+
+    private ObjectNode productJson(Product product) {
+        ObjectNode json = MAPPER.createObjectNode()
+                .put("id", product.id)
+                .put("name", product.name)
+                .put("slug", product.slug)
+                .put("type", "simple")
+                .put("permalink", baseUrl + "product/" + product.slug + "/")
+                .put("is_in_stock", true)
+                .put("is_purchasable", true);
+        json.set("prices", prices(product.price));
+        json.putArray("categories").addObject().put("slug", product.category);
+        return json;
+    }
+
+    private ObjectNode cartJson(String cartKey) {
+        ObjectNode cart = MAPPER.createObjectNode();
+        ArrayNode items = cart.putArray("items");
+        BigDecimal total = BigDecimal.ZERO;
+        int count = 0;
+        for (CartLine line : data.getCart(cartKey)) {
+            ObjectNode item = items.addObject()
+                    .put("key", String.valueOf(line.product.id))
+                    .put("id", line.product.id)
+                    .put("quantity", line.quantity)
+                    .put("name", line.product.name);
+            item.set("prices", prices(line.product.price));
+            total = total.add(line.getTotal());
+            count += line.quantity;
+        }
+        cart.put("items_count", count);
+        cart.put("needs_payment", count > 0);
+        cart.putObject("totals")
+                .put("total_items", minorUnits(total))
+                .put("total_price", minorUnits(total))
+                .put("currency_code", "USD")
+                .put("currency_minor_unit", 2);
+        return cart;
+    }
+
+    private static ObjectNode prices(BigDecimal price) {
+        return MAPPER.createObjectNode()
+                .put("price", minorUnits(price))
+                .put("regular_price", minorUnits(price))
+                .put("currency_code", "USD")
+                .put("currency_symbol", "$")
+                .put("currency_minor_unit", 2);
+    }
+
+    private static String minorUnits(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0).toPlainString();
+    }
+
+    private static ObjectNode error(String code, String message, int status) {
+        ObjectNode error = MAPPER.createObjectNode().put("code", code).put("message", message);
+        error.putObject("data").put("status", status);
+        return error;
+    }
+
+    private static final class RestResponse {
+        final int status;
+        final JsonNode body;
+
+        RestResponse(int status, JsonNode body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    // Nonces: stable for the server's lifetime, derived from a per-instance secret
+
+    private String loginNonce() {
+        return hash("login");
+    }
+
+    private String restNonce(String customer) {
+        return hash("wp_rest|" + customer);
+    }
+
+    private String storeNonce(String cartKey) {
+        return hash("wc_store_api|" + cartKey);
+    }
+
+    private String hash(String action) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest((secret + "|" + action).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 5; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    // HTTP plumbing
+
+    private void html(Request request, int status, String html) throws IOException {
+        respond(request.exchange, status, "text/html; charset=UTF-8", html);
+    }
+
+    private void json(Request request, int status, JsonNode body) throws IOException {
+        respond(request.exchange, status, "application/json; charset=UTF-8", body.toString());
+    }
+
+    private void redirect(Request request, String location) throws IOException {
+        request.exchange.getResponseHeaders().set("Location", location);
+        request.exchange.sendResponseHeaders(303, -1);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value != null ? Long.parseLong(value.trim()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Map<String, String> parseParams(String encoded) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return params;
+        }
+        for (String pair : encoded.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    /**
+     * One request with its session: the logged-in customer from the auth cookie and the guest session,
+     * which is started with a cookie on the first request that has none
+     */
+    private final class Request {
+        final HttpExchange exchange;
+        final String method;
+        final String path;
+        final Map<String, String> query;
+        final Map<String, String> cookies = new LinkedHashMap<>();
+        final String customer;
+        final String guestSession;
+        private byte[] body;
+
+        Request(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod();
+            URI uri = exchange.getRequestURI();
+            this.path = uri.getPath();
+            this.query = parseParams(uri.getRawQuery());
+            // Also accepts the RFC 2965 form java.net.CookieManager sends: $Version="1", name="value";$Path="/"
+            for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+                for (String cookie : header.split("[;,]")) {
+                    int equals = cookie.indexOf('=');
+                    String name = equals > 0 ? cookie.substring(0, equals).trim() : "";
+                    if (!name.isEmpty() && !name.startsWith("$")) {
+                        cookies.putIfAbsent(name, cookie.substring(equals + 1).trim().replace("\"", ""));
+                    }
+                }
+            }
+            String token = cookies.get(AUTH_COOKIE);
+            this.customer = token != null ? logins.get(token) : null;
+            String session = cookies.get(SESSION_COOKIE);
+            if (session == null || session.isEmpty()) {
+                session = UUID.randomUUID().toString().replace("-", "");
+                setCookie(SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly; SameSite=Lax");
+            }
+            this.guestSession = session;
+        }
+
+        boolean isPost() {
+            return "POST".equals(method);
+        }
+
+        String header(String name) {
+            return exchange.getRequestHeaders().getFirst(name);
+        }
+
+        /**
+         * Form field of a POST, or else the query parameter
+         */
+        String param(String name) {
+            String value = isPost() ? form().get(name) : null;
+            return value != null ? value : query.get(name);
+        }
+
+        Map<String, String> form() {
+            String contentType = header("Content-Type");
+            if (contentType == null || !contentType.startsWith("application/x-www-form-urlencoded")) {
+                return Map.of();
+            }
+            return parseParams(new String(body(), StandardCharsets.UTF_8));
+        }
+
+        JsonNode json() {
+            byte[] bytes = body();
+            if (bytes.length == 0) {
+                return MAPPER.createObjectNode();
+            }
+            try {
+                return MAPPER.readTree(bytes);
+            } catch (IOException e) {
+                throw new RuntimeException("Malformed JSON body for " + path, e);
+            }
+        }
+
+        private byte[] body() {
+            if (body == null) {
+                try {
+                    body = exchange.getRequestBody().readAllBytes();
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to read the body of " + path, e);
+                }
+            }
+            return body;
+        }
+
+        String guestCartKey() {
+            return "guest:" + guestSession;
+        }
+
+        /**
+         * Cart of the page session: the customer's persistent cart when logged in
+         */
+        String cartKey() {
+            return customer != null ? "user:" + customer : guestCartKey();
+        }
+
+        void setCookie(String cookie) {
+            exchange.getResponseHeaders().add("Set-Cookie", cookie);
+        }
+
+        StorefrontPages pages() {
+            boolean popup = popupDelayMs >= 0 && !cookies.containsKey(POPUP_COOKIE);
+            return new StorefrontPages(data, customer, cartKey(), popup ? popupDelayMs : -1);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.testarchitect.framework.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testarchitect.framework.models.TestAccount;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory state of the local storefront: the product catalogue from {@code storefront/products.json},
+ * the accounts that may log in, carts, orders and reviews. A cart belongs to a session key, either a
+ * guest session or {@code user:<name>} for a logged-in customer, whose cart persists across browsers
+ * like WooCommerce's persistent cart. Thread-safe.
+ */
+class StorefrontData {
+    private static final String CATALOGUE = "storefront/products.json";
+
+    private final List<Product> products;
+    private final Map<Long, Product> productsById = new LinkedHashMap<>();
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Integer>> carts = new ConcurrentHashMap<>();
+    private final Map<Long, Order> orders = new ConcurrentHashMap<>();
+    private final Map<Long, List<Review>> reviews = new ConcurrentHashMap<>();
+    private final AtomicLong nextOrderId = new AtomicLong(1000);
+
+    StorefrontData(List<TestAccount> accounts) {
+        this.products = Collections.unmodifiableList(loadCatalogue());
+        for (Product product : products) {
+            productsById.put(product.id, product);
+        }
+        for (TestAccount account : accounts) {
+            passwords.put(account.getUsername(), account.getPassword());
+        }
+    }
+
+    private static List<Product> loadCatalogue() {
+        try (InputStream in = StorefrontData.class.getClassLoader().getResourceAsStream(CATALOGUE)) {
+            if (in == null) {
+                throw new RuntimeException("Product catalogue not found on classpath: " + CATALOGUE);
+            }
+            List<Product> catalogue = new ArrayList<>();
+            for (JsonNode node : new ObjectMapper().readTree(in)) {
+                catalogue.add(new Product(node.path("id").asLong(), node.path("slug").asText(), node.path("name").asText(),
+                        new BigDecimal(node.path("price").asText()).setScale(2), node.path("category").asText(),
+                        node.path("description").asText()));
+            }
+            return catalogue;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read product catalogue " + CATALOGUE, e);
+        }
+    }
+
+    // Catalogue
+
+    List<Product> getProducts() {
+        return products;
+    }
+
+    Product getProduct(long id) {
+        return productsById.get(id);
+    }
+
+    Product getProduct(String slug) {
+        return products.stream().filter(product -> product.slug.equals(slug)).findFirst().orElse(null);
+    }
+
+    List<Product> getProducts(String category) {
+        return products.stream().filter(product -> product.category.equals(category)).collect(Collectors.toList());
+    }
+
+    // Accounts
+
+    boolean authenticate(String username, String password) {
+        return username != null && password != null && password.equals(passwords.get(username));
+    }
+
+    // Carts
+
+    List<CartLine> getCart(String sessionKey) {
+        Map<Long, Integer> cart = carts.get(sessionKey);
+        if (cart == null) {
+            return Collections.emptyList();
+        }
+        synchronized (cart) {
+            return cart.entrySet().stream()
+                    .map(entry -> new CartLine(productsById.get(entry.getKey()), entry.getValue()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    int getCartCount(String sessionKey) {
+        return getCart(sessionKey).stream().mapToInt(line -> line.quantity).sum();
+    }
+
+    /**
+     * @return false if there is no such product or the quantity is not positive
+     */
+    boolean addToCart(String sessionKey, long productId, int quantity) {
+        if (!productsById.containsKey(productId) || quantity < 1) {
+            return false;
+        }
+        Map<Long, Integer> cart = carts.computeIfAbsent(sessionKey, key -> new LinkedHashMap<>());
+        synchronized (cart) {
+            cart.merge(productId, quantity, Integer::sum);
+        }
+        return true;
+    }
+
+    /**
+     * Set a line's quantity, removing the line at zero
+     * @return false if the cart has no line for the product
+     */
+    boolean setQuantity(String sessionKey, long productId, int quantity) {
+        Map<Long, Integer> cart = carts.get(sessionKey);
+        if (cart == null) {
+            return false;
+        }
+        synchronized (cart) {
+            if (!cart.containsKey(productId)) {
+                return false;
+            }
+            if (quantity > 0) {
+                cart.put(productId, quantity);
+            } else {
+                cart.remove(productId);
+            }
+            return true;
+        }
+    }
+
+    void clearCart(String sessionKey) {
+        carts.remove(sessionKey);
+    }
+
+    /**
+     * Move a guest cart into the customer's cart when they log in
+     */
+    void mergeCart(String fromSessionKey, String toSessionKey) {
+        Map<Long, Integer> guest = carts.remove(fromSessionKey);
+        if (guest == null) {
+            return;
+        }
+        synchronized (guest) {
+            guest.forEach((productId, quantity) -> addToCart(toSessionKey, productId, quantity));
+        }
+    }
+
+    // Orders
+
+    /**
+     * Turn the session's cart into an order
+     * @param customer Username the order belongs to, or null for a guest order
+     * @return The order, or null if the cart is empty
+     */
+    Order placeOrder(String sessionKey, String customer, Map<String, String> billing, String paymentMethod) {
+        Map<Long, Integer> cart = carts.remove(sessionKey);
+        List<CartLine> lines = new ArrayList<>();
+        if (cart != null) {
+            synchronized (cart) {
+                cart.forEach((productId, quantity) -> lines.add(new CartLine(productsById.get(productId), quantity)));
+            }
+        }
+        if (lines.isEmpty()) {
+            return null;
+        }
+        long id = nextOrderId.incrementAndGet();
+        String key = "wc_order_" + UUID.randomUUID().toString().replace("-", "").substring(0, 13);
+        Order order = new Order(id, key, customer, new LinkedHashMap<>(billing), paymentMethod, lines, LocalDate.now());
+        orders.put(id, order);
+        return order;
+    }
+
+    Order getOrder(long id) {
+        return orders.get(id);
+    }
+
+    /**
+     * Orders of a customer, newest first
+     */
+    List<Order> getOrders(String customer) {
+        return orders.values().stream()
+                .filter(order -> customer.equals(order.customer))
+                .sorted(Comparator.comparingLong((Order order) -> order.id).reversed())
+                .collect(Collectors.toList());
+    }
+
+    // Reviews
+
+    void addReview(long productId, String author, int rating, String text) {
+        reviews.computeIfAbsent(productId, id -> new CopyOnWriteArrayList<>()).add(new Review(author, rating, text));
+    }
+
+    List<Review> getReviews(long productId) {
+        return reviews.getOrDefault(productId, Collections.emptyList());
+    }
+
+    static final class Product {
+        final long id;
+        final String slug;
+        final String name;
+        final BigDecimal price;
+        final String category;
+        final String description;
+
+        Product(long id, String slug, String name, BigDecimal price, String category, String description) {
+            this.id = id;
+            this.slug = slug;
+            this.name = name;
+            this.price = price;
+            this.category = category;
+            this.description = description;
+        }
+    }
+
+    static final class CartLine {
+        final Product product;
+        final int quantity;
+
+        CartLine(Product product, int quantity) {
+            this.product = product;
+            this.quantity = quantity;
+        }
+
+        BigDecimal getTotal() {
+            return product.price.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    static final class Order {
+        final long id;
+        final String key;
+        final String customer;
+        final Map<String, String> billing;
+        final String paymentMethod;
+        final List<CartLine> lines;
+        final LocalDate created;
+        final String status;
+
+        Order(long id, String key, String customer, Map<String, String> billing, String paymentMethod,
+              List<CartLine> lines, LocalDate created) {
+            this.id = id;
+            this.key = key;
+            this.customer = customer;
+            this.billing = Collections.unmodifiableMap(billing);
+            this.paymentMethod = paymentMethod;
+            this.lines = Collections.unmodifiableList(lines);
+            this.created = created;
+            this.status = "bacs".equals(paymentMethod) ? "on-hold" : "processing";
+        }
+
+        BigDecimal getTotal() {
+            return lines.stream().map(CartLine::getTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+
+    static final class Review {
+        final String author;
+        final int rating;
+        final String text;
+
+        Review(String author, int rating, String text) {
+            this.author = author;
+            this.rating = rating;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.testarchitect.framework.server;
+
+import com.testarchitect.framework.server.StorefrontData.CartLine;
+import com.testarchitect.framework.server.StorefrontData.Order;
+import com.testarchitect.framework.server.StorefrontData.Product;
+import com.testarchitect.framework.server.StorefrontData.Review;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * HTML of the local storefront's pages, rendered for one request. The markup follows the WooCommerce
+ * Storefront theme closely enough for the page objects' selectors: loop products, the single product
+ * form, cart and checkout forms, the order-received page, My Account and a PopMaker popup.
+ */
+class StorefrontPages {
+    private static final String LAYOUT = resource("storefront/layout.html");
+    private static final String POPUP = resource("storefront/popup.html");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.US);
+    private static final int ORDERS_PER_PAGE = 10;
+
+    static final Map<String, String> COUNTRIES = orderedMap(
+            "US", "United States (US)", "CA", "Canada", "GB", "United Kingdom (UK)", "DE", "Germany");
+    static final Map<String, String> STATES = orderedMap(
+            "AL", "Alabama", "AK", "Alaska", "AZ", "Arizona", "AR", "Arkansas", "CA", "California", "CO", "Colorado",
+            "CT", "Connecticut", "DE", "Delaware", "DC", "District Of Columbia", "FL", "Florida", "GA", "Georgia",
+            "HI", "Hawaii", "ID", "Idaho", "IL", "Illinois", "IN", "Indiana", "IA", "Iowa", "KS", "Kansas",
+            "KY", "Kentucky", "LA", "Louisiana", "ME", "Maine", "MD", "Maryland", "MA", "Massachusetts",
+            "MI", "Michigan", "MN", "Minnesota", "MS", "Mississippi", "MO", "Missouri", "MT", "Montana",
+            "NE", "Nebraska", "NV", "Nevada", "NH", "New Hampshire", "NJ", "New Jersey", "NM", "New Mexico",
+            "NY", "New York", "NC", "North Carolina", "ND", "North Dakota", "OH", "Ohio", "OK", "Oklahoma",
+            "OR", "Oregon", "PA", "Pennsylvania", "RI", "Rhode Island", "SC", "South Carolina", "SD", "South Dakota",
+            "TN", "Tennessee", "TX", "Texas", "UT", "Utah", "VT", "Vermont", "VA", "Virginia", "WA", "Washington",
+            "WV", "West Virginia", "WI", "Wisconsin", "WY", "Wyoming",
+            "AB", "Alberta", "BC", "British Columbia", "MB", "Manitoba", "ON", "Ontario", "QC", "Quebec");
+    static final Map<String, String> PAYMENT_METHODS = orderedMap(
+            "bacs", "Direct bank transfer", "cod", "Cash on delivery", "stripe", "Credit Card (Stripe)");
+
+    private final StorefrontData data;
+    private final String customer;
+    private final String cartKey;
+    private final int popupDelayMs;
+
+    /**
+     * @param customer Logged-in username, or null for a guest
+     * @param popupDelayMs Delay before the PopMaker popup opens, or a negative value to leave it out
+     */
+    StorefrontPages(StorefrontData data, String customer, String cartKey, int popupDelayMs) {
+        this.data = data;
+        this.customer = customer;
+        this.cartKey = cartKey;
+        this.popupDelayMs = popupDelayMs;
+    }
+
+    String home(String notice) {
+        return page("Home", "home page-template-default", true,
+                notice + "<h1 class=\"page-title\">Welcome to the demo store</h1>"
+                        + "<section class=\"departments\"><h2>Shop by department</h2>"
+                        + "<a href=\"/shop/\">All departments</a> "
+                        + "<a href=\"/product-category/electronics/\">Electronic Components &amp; Supplies</a></section>"
+                        + productLoop(data.getProducts().subList(0, Math.min(8, data.getProducts().size()))));
+    }
+
+    String shop(String title, List<Product> products, String sort, String notice) {
+        StringBuilder content = new StringBuilder(notice)
+                .append("<h1 class=\"page-title woocommerce-products-header__title\">").append(esc(title)).append("</h1>")
+                .append("<div class=\"shop-toolbar\">")
+                .append("<form class=\"woocommerce-ordering\" method=\"get\">")
+                .append("<select name=\"sort\" class=\"orderby\" aria-label=\"Shop order\" onchange=\"this.form.submit()\">")
+                .append(option("menu_order", "default", sort))
+                .append(option("price", "price", sort))
+                .append(option("price-desc", "price-desc", sort))
+                .append("</select></form>")
+                .append("<div class=\"view-toggle\">")
+                .append("<button type=\"button\" class=\"grid-view\" data-view=\"grid\">Grid</button>")
+                .append("<button type=\"button\" class=\"list-view\" data-view=\"list\">List</button>")
+                .append("</div></div>")
+                .append("<p class=\"woocommerce-result-count\">Showing all ").append(products.size()).append(" results</p>")
+                .append(productLoop(products));
+        return page(title, "archive woocommerce-shop", true, content.toString());
+    }
+
+    String product(Product product, String notice) {
+        List<Review> reviews = data.getReviews(product.id);
+        StringBuilder content = new StringBuilder(notice)
+                .append("<div id=\"product-").append(product.id).append("\" class=\"single-product-summary\">")
+                .append("<h1 class=\"product-title product_title entry-title\">").append(esc(product.name)).append("</h1>")
+                .append("<p class=\"price product-price\">").append(amount(product.price)).append("</p>")
+                .append("<div class=\"woocommerce-product-details__short-description\"><p>")
+                .append(esc(product.description)).append("</p></div>")
+                .append("<form class=\"cart\" method=\"post\" action=\"/product/").append(product.slug).append("/\">")
+                .append("<input type=\"number\" class=\"input-text qty text\" name=\"quantity\" value=\"1\" min=\"1\" aria-label=\"Product quantity\">")
+                .append("<button name=\"add-to-cart\" value=\"").append(product.id)
+                .append("\" class=\"single_add_to_cart_button button alt\">Add to cart</button>")
+                .append("</form></div>")
+                .append("<div id=\"reviews\" class=\"reviews-section woocommerce-Reviews\">")
+                .append("<h2 class=\"woocommerce-Reviews-title\">Reviews (").append(reviews.size()).append(")</h2>");
+        if (reviews.isEmpty()) {
+            content.append("<p class=\"woocommerce-noreviews\">There are no reviews yet.</p>");
+        } else {
+            content.append("<ol class=\"commentlist\">");
+            for (Review review : reviews) {
+                content.append("<li class=\"review\"><div class=\"rating\">Rated ").append(review.rating)
+                        .append(" out of 5</div><p class=\"meta\"><strong>").append(esc(review.author))
+                        .append("</strong></p><div class=\"description\"><p>").append(esc(review.text)).append("</p></div></li>");
+            }
+            content.append("</ol>");
+        }
+        content.append("<button type=\"button\" class=\"add-review button\">Add a review</button>")
+                .append("<form class=\"review-form comment-form\" method=\"post\" action=\"/product/").append(product.slug)
+                .append("/\" style=\"display: none\">")
+                .append("<p class=\"stars star-rating\">");
+        for (int rating = 1; rating <= 5; rating++) {
+            content.append("<span data-rating=\"").append(rating).append("\">&#9733;</span>");
+        }
+        content.append("</p><input type=\"hidden\" name=\"rating\" value=\"5\">")
+                .append("<label for=\"comment\">Your review</label>")
+                .append("<textarea id=\"comment\" name=\"review\" rows=\"6\"></textarea>")
+                .append("<button type=\"submit\" class=\"submit\" name=\"submit_review\" value=\"1\">Submit</button>")
+                .append("</form></div>");
+        return page(product.name, "product-template-default single single-product", false, content.toString());
+    }
+
+    String cart(String notice) {
+        List<CartLine> lines = data.getCart(cartKey);
+        StringBuilder content = new StringBuilder(notice).append("<h1 class=\"page-title\">Cart</h1>");
+        if (lines.isEmpty()) {
+            content.append("<div class=\"cart-empty woocommerce-info\">Your shopping cart is empty</div>")
+                    .append("<p class=\"return-to-shop\"><a class=\"button wc-backward\" href=\"/shop/\">Return to shop</a></p>");
+            return page("Cart", "woocommerce-cart", false, content.toString());
+        }
+        content.append("<form class=\"woocommerce-cart-form\" method=\"post\" action=\"/cart/\">")
+                .append("<table class=\"shop_table shop_table_responsive cart cart-table woocommerce-cart-form__contents\"><tbody>");
+        for (CartLine line : lines) {
+            content.append("<tr class=\"woocommerce-cart-form__cart-item cart_item cart-item\">")
+                    .append("<td class=\"product-name\"><a href=\"/product/").append(line.product.slug).append("/\">")
+                    .append(esc(line.product.name)).append("</a></td>")
+                    .append("<td class=\"product-price\">").append(amount(line.product.price)).append("</td>")
+                    .append("<td class=\"product-quantity\"><input type=\"number\" class=\"quantity input-text qty text\" name=\"cart[")
+                    .append(line.product.id).append("][qty]\" value=\"").append(line.quantity).append("\" min=\"0\">")
+                    .append("<button class=\"update-quantity button\" name=\"update_cart\" value=\"Update cart\">Update</button></td>")
+                    .append("<td class=\"product-subtotal\">").append(amount(line.getTotal())).append("</td>")
+                    .append("<td class=\"product-remove\"><button class=\"remove-item remove\" name=\"remove_item\" value=\"")
+                    .append(line.product.id).append("\" aria-label=\"Remove this item\">&times;</button></td>")
+                    .append("</tr>");
+        }
+        BigDecimal total = total(lines);
+        content.append("</tbody></table>")
+                .append("<button class=\"clear-cart button\" name=\"empty_cart\" value=\"1\">Clear shopping cart</button>")
+                .append("</form>")
+                .append("<div class=\"cart-collaterals\"><div class=\"cart_totals\"><h2>Cart totals</h2><table class=\"shop_table\">")
+                .append("<tr class=\"cart-subtotal\"><th>Subtotal</th><td>").append(amount(total)).append("</td></tr>")
+                .append("<tr class=\"order-total\"><th>Total</th><td><strong>").append(amount(total)).append("</strong></td></tr>")
+                .append("</table><div class=\"wc-proceed-to-checkout\">")
+                .append("<a href=\"/checkout/\" class=\"checkout-button button alt wc-forward\">Proceed to checkout</a>")
+                .append("</div></div></div>");
+        return page("Cart", "woocommerce-cart", false, content.toString());
+    }
+
+    /**
+     * @param form Submitted field values to show again, or an empty map
+     * @param errors Validation errors of the submitted form
+     */
+    String checkout(Map<String, String> form, List<String> errors) {
+        List<CartLine> lines = data.getCart(cartKey);
+        StringBuilder content = new StringBuilder("<h1 class=\"page-title\">Checkout</h1>")
+                .append("<form name=\"checkout\" method=\"post\" class=\"checkout woocommerce-checkout\" action=\"/checkout/\">");
+        if (!errors.isEmpty()) {
+            content.append("<ul class=\"woocommerce-error error-message\" role=\"alert\">");
+            errors.forEach(error -> content.append("<li>").append(esc(error)).append("</li>"));
+            content.append("</ul>");
+        }
+        content.append("<div class=\"woocommerce-billing-fields billing-details\"><h3>Billing details</h3>")
+                .append(input(form, "billing_first_name", "First name", "text"))
+                .append(input(form, "billing_last_name", "Last name", "text"))
+                .append(select(form, "billing_country", "Country / Region", COUNTRIES, false))
+                .append(input(form, "billing_address_1", "Street address", "text"))
+                .append(input(form, "billing_address_2", "Apartment, suite, unit, etc. (optional)", "text"))
+                .append(input(form, "billing_city", "Town / City", "text"))
+                .append(select(form, "billing_state", "State / County", STATES, true))
+                .append(input(form, "billing_postcode", "ZIP Code", "text"))
+                .append(input(form, "billing_phone", "Phone", "tel"))
+                .append(input(form, "billing_email", "Email address", "email"))
+                .append("</div>")
+                .append("<h3 id=\"order_review_heading\">Your order</h3>")
+                .append("<div id=\"order_review\" class=\"woocommerce-checkout-review-order order-review\">")
+                .append("<table class=\"shop_table woocommerce-checkout-review-order-table\"><tbody>");
+        for (CartLine line : lines) {
+            content.append("<tr class=\"cart_item\"><td class=\"product-name\">").append(esc(line.product.name))
+                    .append(" <strong class=\"product-quantity\">&times;&nbsp;").append(line.quantity).append("</strong></td>")
+                    .append("<td class=\"product-total\">").append(amount(line.getTotal())).append("</td></tr>");
+        }
+        content.append("</tbody><tfoot><tr class=\"order-total\"><th>Total</th><td><strong>").append(amount(total(lines)))
+                .append("</strong></td></tr></tfoot></table>")
+                .append("<div id=\"payment\" class=\"woocommerce-checkout-payment\"><ul class=\"wc_payment_methods payment_methods methods\">");
+        String selected = form.getOrDefault("payment_method", "bacs");
+        PAYMENT_METHODS.forEach((id, title) -> content.append("<li class=\"wc_payment_method payment_method_").append(id).append("\">")
+                .append("<input id=\"payment_method_").append(id).append("\" type=\"radio\" class=\"input-radio\" name=\"payment_method\" value=\"")
+                .append(id).append("\"").append(id.equals(selected) ? " checked" : "").append(">")
+                .append("<label for=\"payment_method_").append(id).append("\">").append(esc(title)).append("</label></li>"));
+        content.append("</ul><div class=\"form-row place-order\">")
+                .append("<button type=\"submit\" class=\"button alt place-order confirm-order\" name=\"woocommerce_checkout_place_order\"")
+                .append(" id=\"place_order\" value=\"Place order\">Place order</button>")
+                .append("</div></div></div></form>");
+        return page("Checkout", "woocommerce-checkout", false, content.toString());
+    }
+
+    String orderReceived(Order order) {
+        StringBuilder content = new StringBuilder("<h1 class=\"page-title\">Order received</h1>")
+                .append("<div class=\"woocommerce-order woocommerce-order-received\">")
+                .append("<p class=\"woocommerce-notice woocommerce-notice--success woocommerce-thankyou-order-received success-message\">")
+                .append("Thank you. Your order has been received.</p>")
+                .append("<ul class=\"woocommerce-order-overview woocommerce-thankyou-order-details order_details\">")
+                .append("<li class=\"woocommerce-order-overview__order order order-number\">Order number: <strong>").append(order.id).append("</strong></li>")
+                .append("<li class=\"woocommerce-order-overview__date date order-date\">Date: <strong>").append(DATE.format(order.created)).append("</strong></li>")
+                .append("<li class=\"woocommerce-order-overview__total total order-total\">Total: <strong>").append(amount(order.getTotal())).append("</strong></li>")
+                .append("<li class=\"woocommerce-order-overview__payment-method method\">Payment method: <strong>")
+                .append(esc(PAYMENT_METHODS.getOrDefault(order.paymentMethod, order.paymentMethod))).append("</strong></li>")
+                .append("</ul>")
+                .append(orderDetails(order))
+                .append("</div>");
+        return page("Order received", "woocommerce-checkout woocommerce-order-received", false, content.toString());
+    }
+
+    String login(String redirect, String loginNonce, String error) {
+        StringBuilder content = new StringBuilder("<h1 class=\"page-title\">My account</h1>");
+        if (error != null) {
+            content.append("<ul class=\"woocommerce-error error-message\" role=\"alert\"><li>").append(esc(error)).append("</li></ul>");
+        }
+        content.append("<h2>Login</h2>")
+                .append("<form id=\"login-form\" class=\"woocommerce-form woocommerce-form-login login\" method=\"post\" action=\"/my-account/\">")
+                .append("<label for=\"username\">Username or email address</label>")
+                .append("<input type=\"text\" class=\"woocommerce-Input input-text\" name=\"username\" id=\"username\" autocomplete=\"username\">")
+                .append("<label for=\"password\">Password</label>")
+                .append("<input type=\"password\" class=\"woocommerce-Input input-text\" name=\"password\" id=\"password\" autocomplete=\"current-password\">")
+                .append("<input type=\"hidden\" id=\"woocommerce-login-nonce\" name=\"woocommerce-login-nonce\" value=\"").append(loginNonce).append("\">")
+                .append("<input type=\"hidden\" name=\"_wp_http_referer\" value=\"/my-account/\">")
+                .append("<input type=\"hidden\" name=\"redirect\" value=\"").append(esc(redirect)).append("\">")
+                .append("<button type=\"submit\" class=\"woocommerce-button button woocommerce-form-login__submit\" name=\"login\" value=\"Log in\">Log in</button>")
+                .append("</form>");
+        return page("My account", "woocommerce-account", false, content.toString());
+    }
+
+    String dashboard() {
+        return account("My account", "<p>Hello <strong>" + esc(customer) + "</strong> (not <strong>" + esc(customer)
+                + "</strong>? <a href=\"/my-account/customer-logout/\">Log out</a>)</p>"
+                + "<p>From your account dashboard you can view your <a href=\"/my-account/orders/\">recent orders</a>"
+                + " and manage your addresses.</p>");
+    }
+
+    String orders(int page) {
+        List<Order> orders = data.getOrders(customer);
+        if (orders.isEmpty()) {
+            return account("Orders", "<div class=\"woocommerce-info\">No order has been made yet."
+                    + " <a class=\"button\" href=\"/shop/\">Browse products</a></div>");
+        }
+        int from = Math.min((page - 1) * ORDERS_PER_PAGE, orders.size());
+        int to = Math.min(from + ORDERS_PER_PAGE, orders.size());
+        StringBuilder content = new StringBuilder("<table class=\"woocommerce-orders-table woocommerce-MyAccount-orders shop_table account-orders-table\">")
+                .append("<thead><tr><th>Order</th><th>Date</th><th>Status</th><th>Total</th><th>Actions</th></tr></thead><tbody>");
+        for (Order order : orders.subList(from, to)) {
+            content.append("<tr class=\"woocommerce-orders-table__row order order-history-item\">")
+                    .append("<td class=\"woocommerce-orders-table__cell woocommerce-orders-table__cell-order-number\">")
+                    .append("<a href=\"/my-account/view-order/").append(order.id).append("/\">#").append(order.id).append("</a></td>")
+                    .append("<td class=\"woocommerce-orders-table__cell woocommerce-orders-table__cell-order-date\">")
+                    .append(DATE.format(order.created)).append("</td>")
+                    .append("<td class=\"woocommerce-orders-table__cell woocommerce-orders-table__cell-order-status\">")
+                    .append(statusName(order.status)).append("</td>")
+                    .append("<td class=\"woocommerce-orders-table__cell woocommerce-orders-table__cell-order-total\">")
+                    .append(amount(order.getTotal())).append("</td>")
+                    .append("<td class=\"woocommerce-orders-table__cell woocommerce-orders-table__cell-order-actions\">")
+                    .append("<a href=\"/my-account/view-order/").append(order.id).append("/\" class=\"woocommerce-button button view\">View</a></td>")
+                    .append("</tr>");
+        }
+        content.append("</tbody></table><div class=\"woocommerce-pagination woocommerce-Pagination\">");
+        if (page > 1) {
+            content.append("<a class=\"woocommerce-button woocommerce-button--previous button\" href=\"/my-account/orders/")
+                    .append(page - 1).append("/\">Previous</a>");
+        }
+        if (to < orders.size()) {
+            content.append("<a class=\"woocommerce-button woocommerce-button--next button\" href=\"/my-account/orders/")
+                    .append(page + 1).append("/\">Next</a>");
+        }
+        content.append("</div>");
+        return account("Orders", content.toString());
+    }
+
+    String viewOrder(Order order) {
+        return account("Order #" + order.id, "<p>Order #<mark class=\"order-number\">" + order.id
+                + "</mark> was placed on <mark class=\"order-date\">" + DATE.format(order.created)
+                + "</mark> and is currently <mark class=\"order-status\">" + statusName(order.status) + "</mark>.</p>"
+                + orderDetails(order));
+    }
+
+    String notFound() {
+        return page("Page not found", "error404", false,
+                "<h1 class=\"page-title\">Oops! That page can&rsquo;t be found.</h1>");
+    }
+
+    private String account(String title, String content) {
+        return page(title, "woocommerce-account", false,
+                "<h1 class=\"page-title\">" + esc(title) + "</h1>"
+                        + "<nav class=\"woocommerce-MyAccount-navigation\"><ul>"
+                        + "<li><a href=\"/my-account/\">Dashboard</a></li>"
+                        + "<li><a href=\"/my-account/orders/\">Orders</a></li>"
+                        + "<li><a href=\"/my-account/edit-address/\">Addresses</a></li>"
+                        + "<li><a href=\"/my-account/customer-logout/\">Log out</a></li>"
+                        + "</ul></nav>"
+                        + "<div class=\"woocommerce-MyAccount-content account-dashboard\">" + content + "</div>");
+    }
+
+    private String orderDetails(Order order) {
+        StringBuilder details = new StringBuilder("<section class=\"woocommerce-order-details order-details\">")
+                .append("<h2 class=\"woocommerce-order-details__title\">Order details</h2>")
+                .append("<table class=\"woocommerce-table woocommerce-table--order-details shop_table order_details\"><tbody>");
+        for (CartLine line : order.lines) {
+            details.append("<tr class=\"woocommerce-table__line-item order_item\"><td class=\"product-name\">")
+                    .append(esc(line.product.name)).append(" <strong class=\"product-quantity\">&times;&nbsp;")
+                    .append(line.quantity).append("</strong></td><td class=\"product-total\">")
+                    .append(amount(line.getTotal())).append("</td></tr>");
+        }
+        Map<String, String> billing = order.billing;
+        details.append("</tbody><tfoot><tr><th>Total:</th><td>").append(amount(order.getTotal())).append("</td></tr></tfoot></table></section>")
+                .append("<section class=\"woocommerce-customer-details\"><h2>Billing address</h2><address>")
+                .append(esc(billing.getOrDefault("first_name", ""))).append(' ').append(esc(billing.getOrDefault("last_name", "")))
+                .append("<br>").append(esc(billing.getOrDefault("address_1", "")))
+                .append("<br>").append(esc(billing.getOrDefault("city", ""))).append(", ")
+                .append(esc(billing.getOrDefault("state", ""))).append(' ').append(esc(billing.getOrDefault("postcode", "")))
+                .append("<p class=\"woocommerce-customer-details--email\">").append(esc(billing.getOrDefault("email", ""))).append("</p>")
+                .append("</address></section>");
+        return details.toString();
+    }
+
+    private String productLoop(List<Product> products) {
+        StringBuilder loop = new StringBuilder("<ul class=\"products columns-4 grid\">");
+        for (Product product : products) {
+            loop.append("<li class=\"product type-product product-card post-").append(product.id)
+                    .append(" status-publish instock product_cat-").append(product.category).append("\">")
+                    .append("<a href=\"/product/").append(product.slug)
+                    .append("/\" class=\"woocommerce-LoopProduct-link woocommerce-loop-product__link\">")
+                    .append("<h2>").append(esc(product.name)).append("</h2></a>")
+                    .append("<span class=\"price product-price\">").append(amount(product.price)).append("</span>")
+                    .append("<button type=\"button\" class=\"button add-to-cart add_to_cart_button ajax_add_to_cart\" data-product_id=\"")
+                    .append(product.id).append("\" data-quantity=\"1\" aria-label=\"Add ").append(esc(product.name))
+                    .append(" to your cart\">Add to cart</button>")
+                    .append("</li>");
+        }
+        return loop.append("</ul>").toString();
+    }
+
+    private String page(String title, String bodyClass, boolean withPopup, String content) {
+        String classes = bodyClass + " woocommerce woocommerce-page" + (customer != null ? " logged-in" : "");
+        String popup = withPopup && popupDelayMs >= 0 ? POPUP.replace("{{delayMs}}", String.valueOf(popupDelayMs)) : "";
+        return LAYOUT.replace("{{title}}", esc(title))
+                .replace("{{bodyClass}}", classes)
+                .replace("{{header}}", header())
+                .replace("{{popup}}", popup)
+                .replace("{{content}}", content);
+    }
+
+    private String header() {
+        StringBuilder header = new StringBuilder("<header id=\"masthead\" class=\"site-header\">")
+                .append("<a class=\"site-title\" href=\"/\">TestArchitect Demo Store</a>")
+                .append("<nav class=\"main-navigation\">")
+                .append("<a class=\"nav-departments\" href=\"/shop/\">All departments</a> ")
+                .append("<a href=\"/product-category/electronics/\">Electronics</a>")
+                .append("</nav>");
+        if (customer != null) {
+            header.append("<div class=\"account-menu\"><a href=\"/my-account/\">My account</a> ")
+                    .append("<a href=\"/my-account/customer-logout/\">Log out</a></div>");
+        } else {
+            header.append("<a class=\"login-link\" href=\"/my-account/\">Log in</a>");
+        }
+        return header.append("<a class=\"cart-icon cart-contents\" href=\"/cart/\">Cart <span class=\"cart-contents-count count\">")
+                .append(data.getCartCount(cartKey)).append("</span></a>")
+                .append("</header>").toString();
+    }
+
+    private static String input(Map<String, String> form, String name, String label, String type) {
+        return "<p class=\"form-row\" id=\"" + name + "_field\"><label for=\"" + name + "\">" + esc(label) + "</label>"
+                + "<input type=\"" + type + "\" class=\"input-text\" name=\"" + name + "\" id=\"" + name + "\" value=\""
+                + esc(form.getOrDefault(name, "")) + "\"></p>";
+    }
+
+    private static String select(Map<String, String> form, String name, String label, Map<String, String> options, boolean optional) {
+        String selected = form.getOrDefault(name, optional ? "" : options.keySet().iterator().next());
+        StringBuilder select = new StringBuilder("<p class=\"form-row\" id=\"").append(name).append("_field\"><label for=\"")
+                .append(name).append("\">").append(esc(label)).append("</label><select name=\"").append(name)
+                .append("\" id=\"").append(name).append("\" class=\"").append(name.replace('_', '-')).append("\">");
+        if (optional) {
+            select.append(option("", "Select an option&hellip;", selected));
+        }
+        options.forEach((value, text) -> select.append(option(value, esc(text), selected)));
+        return select.append("</select></p>").toString();
+    }
+
+    private static String option(String value, String text, String selected) {
+        return "<option value=\"" + value + "\"" + (value.equals(selected) ? " selected" : "") + ">" + text + "</option>";
+    }
+
+    private static String amount(BigDecimal price) {
+        return "<span class=\"woocommerce-Price-amount amount\">" + NumberFormat.getCurrencyInstance(Locale.US).format(price) + "</span>";
+    }
+
+    private static BigDecimal total(List<CartLine> lines) {
+        return lines.stream().map(CartLine::getTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static String statusName(String status) {
+        return "on-hold".equals(status) ? "On hold" : Character.toUpperCase(status.charAt(0)) + status.substring(1);
+    }
+
+    static String notice(String message) {
+        return message == null ? "" : "<div class=\"woocommerce-notices-wrapper\"><div class=\"woocommerce-message\" role=\"alert\">"
+                + message + "</div></div>";
+    }
+
+    static String esc(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#039;");
+    }
+
+    private static Map<String, String> orderedMap(String... keysAndValues) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static String resource(String name) {
+        try (InputStream in = StorefrontPages.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new RuntimeException("Storefront template not found on classpath: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read storefront template " + name, e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.testarchitect.framework.utils;
+
+import com.testarchitect.framework.config.ConfigManager;
+import com.testarchitect.framework.models.TestAccount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of test accounts from {@code accounts.pool}. A test leases an account for its exclusive use and
+ * returns it by closing the lease, so parallel tests never share a cart or order history. Waiting
+ * tests are served first come, first served and give up after {@code accounts.lease.timeoutSeconds}.
+ * A background check reports leases held longer than {@code accounts.lease.maxSeconds} with the code
+ * that took them. With {@code accounts.lease.reclaimLeaked} the account of a leaked lease is returned
+ * to the pool once the thread that took it has ended; a lease whose thread still runs may belong to a
+ * test in progress, so it is only reported.
+ */
+public class AccountPool {
+    private static final Logger logger = LoggerFactory.getLogger(AccountPool.class);
+    private static final long LEAK_CHECK_INTERVAL_MS = 1000;
+    private static volatile AccountPool instance;
+
+    private final int size;
+    private final ArrayBlockingQueue<TestAccount> available;
+    private final Map<TestAccount, Lease> leases = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final long maxLeaseMs;
+    private final boolean reclaimLeaked;
+    private final ScheduledExecutorService leakChecker;
+
+    private final AtomicLong leaseCount = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong maxWaitMs = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final long createdAt = System.currentTimeMillis();
+
+    /**
+     * Exclusive use of an account until closed
+     */
+    public final class Lease implements AutoCloseable {
+        private final TestAccount account;
+        private final String holder;
+        private final Thread thread;
+        private final long leasedAt;
+        private final Throwable origin;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean reported;
+
+        private Lease(TestAccount account, String holder) {
+            this.account = account;
+            this.holder = holder;
+            this.thread = Thread.currentThread();
+            this.leasedAt = System.currentTimeMillis();
+            this.origin = new Throwable("Account " + account + " leased by " + holder);
+        }
+
+        public TestAccount getAccount() {
+            return account;
+        }
+
+        public String getHolder() {
+            return holder;
+        }
+
+        public long getHeldMs() {
+            return System.currentTimeMillis() - leasedAt;
+        }
+
+        /** Return the account to the pool; later calls do nothing */
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(this);
+            }
+        }
+    }
+
+    public AccountPool(List<TestAccount> accounts, long timeoutMs, long maxLeaseMs, boolean reclaimLeaked) {
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("Account pool needs at least one account");
+        }
+        this.size = accounts.size();
+        this.available = new ArrayBlockingQueue<>(accounts.size(), true, accounts);
+        this.timeoutMs = timeoutMs;
+        this.maxLeaseMs = maxLeaseMs;
+        this.reclaimLeaked = reclaimLeaked;
+
+        this.leakChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-pool-leak-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leakChecker.scheduleWithFixedDelay(this::detectLeaks, LEAK_CHECK_INTERVAL_MS, LEAK_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static AccountPool getInstance() {
+        if (instance == null) {
+            synchronized (AccountPool.class) {
+                if (instance == null) {
+                    ConfigManager config = ConfigManager.getInstance();
+                    instance = new AccountPool(config.getTestAccounts(),
+                            config.getAccountLeaseTimeoutSeconds() * 1000L,
+                            config.getAccountLeaseMaxSeconds() * 1000L,
+                            config.isReclaimLeakedAccounts());
+                    logger.info("Account pool created with {} accounts", instance.size);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Lease an account, waiting in turn for one to be returned
+     * @param holder Who takes the account, e.g. the test name, for leak reports
+     * @throws RuntimeException if no account is returned within the lease timeout
+     */
+    public Lease lease(String holder) {
+        long start = System.currentTimeMillis();
+        TestAccount account;
+        try {
+            // A single timed wait keeps the waiter's place in the fair queue
+            account = available.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a test account", e);
+        }
+        if (account == null) {
+            timeouts.incrementAndGet();
+            throw new RuntimeException("Timed out after " + timeoutMs + " ms waiting for a test account for "
+                    + holder + "; " + leases.size() + " of " + size + " accounts are leased");
+        }
+
+        long waited = System.currentTimeMillis() - start;
+        totalWaitMs.addAndGet(waited);
+        maxWaitMs.accumulateAndGet(waited, Math::max);
+        leaseCount.incrementAndGet();
+
+        Lease lease = new Lease(account, holder);
+        leases.put(account, lease);
+        logger.info("Leased account {} to {} after {} ms", account, holder, waited);
+        return lease;
+    }
+
+    private void release(Lease lease) {
+        // A reclaimed lease no longer owns the account
+        if (!leases.remove(lease.account, lease)) {
+            logger.warn("Account {} was returned by {} after being reclaimed", lease.account, lease.holder);
+            return;
+        }
+        available.add(lease.account);
+        logger.debug("Account {} returned by {} after {} ms", lease.account, lease.holder, lease.getHeldMs());
+    }
+
+    /**
+     * Report leases held longer than the maximum lease time, reclaiming those whose thread has ended if configured
+     * @return The leases found over time
+     */
+    public synchronized List<Lease> detectLeaks() {
+        List<Lease> leaked = new ArrayList<>();
+        for (Lease lease : leases.values()) {
+            if (lease.getHeldMs() <= maxLeaseMs) {
+                continue;
+            }
+            leaked.add(lease);
+            if (!lease.reported) {
+                lease.reported = true;
+                leaks.incrementAndGet();
+                logger.warn("Account {} held by {} on thread {} for {} ms", lease.account, lease.holder,
+                        lease.thread.getName(), lease.getHeldMs(), lease.origin);
+            }
+            // A live thread may still be running the test, which would share the account with the next one
+            if (reclaimLeaked && !lease.thread.isAlive() && leases.remove(lease.account, lease)) {
+                available.add(lease.account);
+                logger.warn("Reclaimed leaked account {} from {}", lease.account, lease.holder);
+            }
+        }
+        return leaked;
+    }
+
+    /**
+     * Log the pool metrics and any account still leased, e.g. at the end of the suite
+     */
+    public static void shutdown() {
+        AccountPool pool = instance;
+        if (pool == null) {
+            return;
+        }
+        pool.leakChecker.shutdownNow();
+        pool.detectLeaks();
+        for (Lease lease : pool.leases.values()) {
+            logger.warn("Account {} was never returned by {}", lease.account, lease.holder, lease.origin);
+        }
+        logger.info(pool.getReport());
+    }
+
+    /**
+     * e.g. "Account pool: 40 leases of 4 accounts, 1.3 accounts/s, wait avg 210 ms, max 900 ms, 0 timeouts, 0 leaks"
+     */
+    public String getReport() {
+        return String.format("Account pool: %d leases of %d accounts, %.1f accounts/s, wait avg %d ms, max %d ms, %d timeouts, %d leaks",
+                getLeaseCount(), size, getLeasesPerSecond(), getAverageWaitMs(), getMaxWaitMs(), getTimeoutCount(), getLeakCount());
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getAvailableCount() {
+        return available.size();
+    }
+
+    public long getLeaseCount() {
+        return leaseCount.get();
+    }
+
+    /** Leases handed out per second since the pool was created */
+    public double getLeasesPerSecond() {
+        long elapsed = Math.max(1, System.currentTimeMillis() - createdAt);
+        return leaseCount.get() * 1000.0 / elapsed;
+    }
+
+    public long getAverageWaitMs() {
+        long count = leaseCount.get();
+        return count == 0 ? 0 : totalWaitMs.get() / count;
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    public long getLeakCount() {
+        return leaks.get();
+    }
+}
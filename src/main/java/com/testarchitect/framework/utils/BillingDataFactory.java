@@ -1,5 +1,6 @@
 package com.testarchitect.framework.utils;
 
+import com.github.javafaker.Faker;
 import com.testarchitect.framework.models.BillingInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,26 +10,82 @@ import org.slf4j.LoggerFactory;
  */
 public class BillingDataFactory {
     private static final Logger logger = LoggerFactory.getLogger(BillingDataFactory.class);
+    // Faker loads its locale files on construction and is not thread-safe, so each thread keeps one
+    private static final ThreadLocal<Faker> FAKER = ThreadLocal.withInitial(Faker::new);
 
     /**
-     * Create billing info for US customers
+     * Create random billing info for US customers with a unique email and phone number.
+     * Inside a test started with {@link DataSeed#beginTest(String)} the values come from the test's
+     * seeded Faker and are reproducible; otherwise they are taken from the pre-generated {@link BillingDataPool}.
+     * Tests use the pool when seeding is switched off with {@code data.seeded=false}; code running
+     * outside tests, such as data generation tools and suite setup, always does.
      */
     public static BillingInfo createUSBilling() {
-        return BillingInfo.createRandom();
+        Faker seeded = DataSeed.seededFaker();
+        return seeded != null ? createRandom(seeded) : BillingDataPool.getInstance().take();
+    }
+
+    /**
+     * Create random billing info with the given Faker, which must not be shared between threads.
+     * Email and phone carry a {@link UniqueIds} token so parallel workers never collide
+     */
+    public static BillingInfo createRandom(Faker faker) {
+        String firstName = faker.name().firstName();
+        String lastName = faker.name().lastName();
+        return new BillingInfo(
+                firstName,
+                lastName,
+                UniqueIds.email(firstName, lastName),
+                faker.address().streetAddress(),
+                faker.address().secondaryAddress(),
+                faker.address().city(),
+                faker.address().stateAbbr(),
+                faker.address().zipCode(),
+                UniqueIds.phone(),
+                "US"
+        );
+    }
+
+    /**
+     * Create billing info with the given name and email and a generated address and unique phone number,
+     * seeded like {@link #createUSBilling()} inside a test
+     */
+    public static BillingInfo createCustom(String firstName, String lastName, String email) {
+        Faker faker = faker();
+        return new BillingInfo(
+                firstName,
+                lastName,
+                email,
+                faker.address().streetAddress(),
+                faker.address().secondaryAddress(),
+                faker.address().city(),
+                faker.address().stateAbbr(),
+                faker.address().zipCode(),
+                UniqueIds.phone(),
+                "US"
+        );
+    }
+
+    /**
+     * The current test's seeded Faker, or this thread's own Faker outside a test
+     */
+    private static Faker faker() {
+        Faker seeded = DataSeed.seededFaker();
+        return seeded != null ? seeded : FAKER.get();
     }
 
     /**
      * Create billing info for specific test scenario
      */
     public static BillingInfo createTestUserBilling() {
-        return BillingInfo.createCustom("TestUser", "Automation", "testuser@automation.com");
+        return createCustom("TestUser", "Automation", "testuser@automation.com");
     }
 
     /**
      * Create billing info for VIP customer
      */
     public static BillingInfo createVipCustomerBilling() {
-        return BillingInfo.createCustom("VIP", "Customer", "vip.customer@premium.com");
+        return createCustom("VIP", "Customer", "vip.customer@premium.com");
     }
 
     /**
@@ -38,6 +95,25 @@ public class BillingDataFactory {
         return BillingInfo.createDefault();
     }
 
+    /**
+     * Create billing info for a named profile, as used in test matrices
+     * @param profile US, TestUser, VIP or Minimal
+     */
+    public static BillingInfo createProfile(String profile) {
+        switch (profile.toLowerCase()) {
+            case "us":
+                return createUSBilling();
+            case "testuser":
+                return createTestUserBilling();
+            case "vip":
+                return createVipCustomerBilling();
+            case "minimal":
+                return createMinimalBilling();
+            default:
+                throw new IllegalArgumentException("Unknown billing profile: " + profile);
+        }
+    }
+
     /**
      * Log billing info for debugging
      */
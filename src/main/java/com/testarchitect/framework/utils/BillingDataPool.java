@@ -0,0 +1,151 @@
+package com.testarchitect.framework.utils;
+
+import com.github.javafaker.Faker;
+import com.testarchitect.framework.config.ConfigManager;
+import com.testarchitect.framework.models.BillingInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ring buffer of pre-generated random {@link BillingInfo} kept full by background filler threads,
+ * each with its own Faker. Tests take entries without locking: a slot is claimed with an atomic
+ * swap, so every entry is handed out once. When the slots probed are empty the entry is generated
+ * on the calling thread with that thread's Faker and counted as a miss. Pooled entries are not
+ * seeded, so tests only draw from the pool when {@code data.seeded=false} switches seeding off.
+ */
+public class BillingDataPool {
+    private static final Logger logger = LoggerFactory.getLogger(BillingDataPool.class);
+    private static final int MAX_PROBES = 8;
+    private static final long IDLE_PARK_MS = 50;
+    private static volatile BillingDataPool instance;
+
+    private final AtomicReferenceArray<BillingInfo> slots;
+    private final int mask;
+    private final AtomicLong takeIndex = new AtomicLong();
+    private final List<Thread> fillers = new ArrayList<>();
+    private final ThreadLocal<Faker> fakers = ThreadLocal.withInitial(Faker::new);
+    private volatile boolean running = true;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+
+    BillingDataPool(int capacity, int fillerCount) {
+        // Round up to a power of two so slot positions are a mask of the take counter
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+
+        for (int i = 0; i < fillerCount; i++) {
+            Thread filler = new Thread(this::fill, "billing-pool-filler-" + i);
+            filler.setDaemon(true);
+            fillers.add(filler);
+        }
+        fillers.forEach(Thread::start);
+        logger.info("Billing data pool started with {} slots and {} filler threads", size, fillerCount);
+    }
+
+    public static BillingDataPool getInstance() {
+        if (instance == null) {
+            synchronized (BillingDataPool.class) {
+                if (instance == null) {
+                    ConfigManager config = ConfigManager.getInstance();
+                    instance = new BillingDataPool(config.getBillingPoolSize(), config.getBillingPoolFillers());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Hand out a random billing entry that no other caller receives
+     */
+    public BillingInfo take() {
+        long start = takeIndex.getAndIncrement();
+        for (int i = 0; i < MAX_PROBES; i++) {
+            BillingInfo billingInfo = slots.getAndSet((int) ((start + i) & mask), null);
+            if (billingInfo != null) {
+                hits.incrementAndGet();
+                wakeFillers();
+                return billingInfo;
+            }
+        }
+        misses.incrementAndGet();
+        wakeFillers();
+        return generate();
+    }
+
+    private BillingInfo generate() {
+        generated.incrementAndGet();
+        return BillingDataFactory.createRandom(fakers.get());
+    }
+
+    private void wakeFillers() {
+        for (Thread filler : fillers) {
+            LockSupport.unpark(filler);
+        }
+    }
+
+    /**
+     * Filler loop: top up empty slots in order and park once a full pass finds nothing to do
+     */
+    private void fill() {
+        int position = 0;
+        while (running) {
+            int filled = 0;
+            for (int i = 0; i <= mask && running; i++, position = (position + 1) & mask) {
+                if (slots.get(position) == null && slots.compareAndSet(position, null, generate())) {
+                    filled++;
+                }
+            }
+            if (filled == 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(IDLE_PARK_MS));
+            }
+        }
+    }
+
+    /**
+     * Stop the filler threads of the pool if it was started, logging its hit rate
+     */
+    public static void shutdown() {
+        BillingDataPool pool = instance;
+        if (pool == null) {
+            return;
+        }
+        pool.running = false;
+        pool.wakeFillers();
+        logger.info("Billing data pool: {} hits, {} misses, hit rate {}%, {} entries generated",
+                pool.getHitCount(), pool.getMissCount(), String.format("%.1f", pool.getHitRate() * 100), pool.getGeneratedCount());
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** Share of take() calls served from the pool, 0 before the first call */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /** Entries generated by fillers and on misses */
+    public long getGeneratedCount() {
+        return generated.get();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,395 @@
+package com.testarchitect.framework.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Covering array generator for test matrices: declared dimensions are combined so that every
+ * combination of values of any {@code strength} dimensions (2 = pairwise) appears in at least one row,
+ * instead of running the full cross product, e.g.
+ * {@code new CoverageMatrix().dimension("PaymentMethod", "Credit Card", "Cash on Delivery").dimension("Country", "US", "DE").rows(2)}.
+ * Rows are built greedily, each picked from several candidates as the one covering the most
+ * uncovered combinations. Generation uses a fixed seed, so the same declaration always gives the same rows.
+ */
+public class CoverageMatrix {
+    private static final Logger logger = LoggerFactory.getLogger(CoverageMatrix.class);
+    private static final int CANDIDATES_PER_ROW = 30;
+    private static final long GENERATION_SEED = 20240917L;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<List<String>> values = new ArrayList<>();
+    private final List<Predicate<Map<String, String>>> exclusions = new ArrayList<>();
+
+    private int lastStrength;
+    private long lastFullSize;
+    private long lastTupleCount;
+    private int lastRowCount;
+
+    /**
+     * Declare a dimension and its values, in the order rows should list them
+     */
+    public CoverageMatrix dimension(String name, String... dimensionValues) {
+        if (dimensionValues.length == 0) {
+            throw new IllegalArgumentException("Dimension " + name + " needs at least one value");
+        }
+        if (names.contains(name)) {
+            throw new IllegalArgumentException("Duplicate dimension: " + name);
+        }
+        names.add(name);
+        values.add(Collections.unmodifiableList(new ArrayList<>(Arrays.asList(dimensionValues))));
+        return this;
+    }
+
+    /**
+     * Exclude invalid combinations. The condition is also checked on partial rows, so it must return
+     * true only when the dimensions it needs are present and their values are invalid together
+     */
+    public CoverageMatrix exclude(Predicate<Map<String, String>> invalid) {
+        exclusions.add(invalid);
+        return this;
+    }
+
+    /**
+     * Where {@code dimension} is {@code value}, only allow these values of {@code otherDimension},
+     * e.g. states that belong to a country
+     */
+    public CoverageMatrix restrict(String dimension, String value, String otherDimension, String... allowed) {
+        List<String> allowedValues = Arrays.asList(allowed);
+        return exclude(row -> value.equals(row.get(dimension))
+                && row.containsKey(otherDimension) && !allowedValues.contains(row.get(otherDimension)));
+    }
+
+    /**
+     * Generate rows covering every valid combination of {@code strength} dimensions
+     * @param strength 2 for pairwise, 3 for three-way, ...; capped at the number of dimensions
+     * @return Unmodifiable rows keyed by dimension name, in declaration order
+     */
+    public List<Map<String, String>> rows(int strength) {
+        if (names.isEmpty()) {
+            throw new IllegalStateException("No dimensions declared");
+        }
+        int t = Math.max(1, Math.min(strength, names.size()));
+        List<int[]> combinations = combinations(names.size(), t);
+
+        // One flag per value tuple of each dimension combination; true while still to be covered
+        List<boolean[]> uncovered = new ArrayList<>();
+        long remaining = 0;
+        for (int[] combination : combinations) {
+            boolean[] flags = new boolean[tupleCount(combination)];
+            int[] assignment = new int[names.size()];
+            Arrays.fill(assignment, -1);
+            for (int tuple = 0; tuple < flags.length; tuple++) {
+                decode(combination, tuple, assignment);
+                flags[tuple] = isValid(assignment);
+                if (flags[tuple]) {
+                    remaining++;
+                }
+            }
+            uncovered.add(flags);
+        }
+        long tupleCount = remaining;
+
+        Random random = new Random(GENERATION_SEED);
+        List<int[]> rows = new ArrayList<>();
+        while (remaining > 0) {
+            int[] best = null;
+            int bestScore = 0;
+            for (int candidate = 0; candidate < CANDIDATES_PER_ROW; candidate++) {
+                int[] row = buildCandidate(combinations, uncovered, random);
+                int score = row == null ? 0 : score(row, combinations, uncovered);
+                if (score > bestScore) {
+                    best = row;
+                    bestScore = score;
+                }
+            }
+            if (best == null) {
+                // The remaining combinations cannot be completed into a valid row
+                logger.warn("{} combinations cannot be part of any valid row and are left uncovered", remaining);
+                remaining -= dropFirstUncovered(combinations, uncovered);
+                continue;
+            }
+            remaining -= markCovered(best, combinations, uncovered);
+            rows.add(best);
+        }
+
+        lastStrength = t;
+        lastFullSize = fullSize();
+        lastTupleCount = tupleCount;
+        lastRowCount = rows.size();
+        logger.info(getReport());
+
+        List<Map<String, String>> result = new ArrayList<>(rows.size());
+        for (int[] row : rows) {
+            result.add(Collections.unmodifiableMap(toMap(row)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Rows of {@link #rows(int)} as a lazy iterator, ready to be returned from a TestNG {@code @DataProvider}
+     */
+    public Iterator<Object[]> dataProvider(int strength) {
+        Iterator<Map<String, String>> rows = rows(strength).iterator();
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{rows.next()};
+            }
+        };
+    }
+
+    /**
+     * Number of valid rows in the full cross product
+     */
+    public long fullSize() {
+        if (exclusions.isEmpty()) {
+            long size = 1;
+            for (List<String> dimensionValues : values) {
+                size = Math.multiplyExact(size, dimensionValues.size());
+            }
+            return size;
+        }
+        int[] assignment = new int[names.size()];
+        Arrays.fill(assignment, -1);
+        return countValid(assignment, 0);
+    }
+
+    /**
+     * Full cross product size divided by the row count of the last {@link #rows(int)} call
+     */
+    public double getReductionFactor() {
+        return lastRowCount == 0 ? 0 : (double) lastFullSize / lastRowCount;
+    }
+
+    /**
+     * Summary of the last {@link #rows(int)} call, e.g.
+     * "2-wise matrix over 5 dimensions: 16 rows cover 98 combinations of 168 full rows (10.5x fewer)"
+     */
+    public String getReport() {
+        return String.format("%d-wise matrix over %d dimensions: %d rows cover %d combinations of %d full rows (%.1fx fewer)",
+                lastStrength, names.size(), lastRowCount, lastTupleCount, lastFullSize, getReductionFactor());
+    }
+
+    private long countValid(int[] assignment, int dimension) {
+        if (!isValid(assignment)) {
+            return 0;
+        }
+        if (dimension == names.size()) {
+            return 1;
+        }
+        long count = 0;
+        for (int value = 0; value < values.get(dimension).size(); value++) {
+            assignment[dimension] = value;
+            count += countValid(assignment, dimension + 1);
+        }
+        assignment[dimension] = -1;
+        return count;
+    }
+
+    /**
+     * Start from an uncovered combination, then fill the other dimensions in random order with the
+     * valid value covering the most new combinations; null if some dimension has no valid value left
+     */
+    private int[] buildCandidate(List<int[]> combinations, List<boolean[]> uncovered, Random random) {
+        int[] row = new int[names.size()];
+        Arrays.fill(row, -1);
+        seedWithUncovered(row, combinations, uncovered, random);
+
+        List<Integer> order = new ArrayList<>();
+        for (int dimension = 0; dimension < names.size(); dimension++) {
+            if (row[dimension] < 0) {
+                order.add(dimension);
+            }
+        }
+        Collections.shuffle(order, random);
+
+        for (int dimension : order) {
+            int bestValue = -1;
+            int bestGain = -1;
+            int ties = 0;
+            for (int value = 0; value < values.get(dimension).size(); value++) {
+                row[dimension] = value;
+                if (!isValid(row)) {
+                    continue;
+                }
+                int gain = gain(row, dimension, combinations, uncovered);
+                if (gain > bestGain) {
+                    bestValue = value;
+                    bestGain = gain;
+                    ties = 1;
+                } else if (gain == bestGain && random.nextInt(++ties) == 0) {
+                    bestValue = value;
+                }
+            }
+            if (bestValue < 0) {
+                return null;
+            }
+            row[dimension] = bestValue;
+        }
+        return row;
+    }
+
+    private void seedWithUncovered(int[] row, List<int[]> combinations, List<boolean[]> uncovered, Random random) {
+        int start = random.nextInt(combinations.size());
+        for (int i = 0; i < combinations.size(); i++) {
+            int index = (start + i) % combinations.size();
+            boolean[] flags = uncovered.get(index);
+            for (int tuple = 0; tuple < flags.length; tuple++) {
+                if (flags[tuple]) {
+                    decode(combinations.get(index), tuple, row);
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Uncovered combinations completed by assigning this dimension, given the dimensions already set */
+    private int gain(int[] row, int dimension, List<int[]> combinations, List<boolean[]> uncovered) {
+        int gain = 0;
+        for (int i = 0; i < combinations.size(); i++) {
+            int[] combination = combinations.get(i);
+            if (contains(combination, dimension) && isAssigned(row, combination)
+                    && uncovered.get(i)[encode(combination, row)]) {
+                gain++;
+            }
+        }
+        return gain;
+    }
+
+    private int score(int[] row, List<int[]> combinations, List<boolean[]> uncovered) {
+        int score = 0;
+        for (int i = 0; i < combinations.size(); i++) {
+            if (uncovered.get(i)[encode(combinations.get(i), row)]) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    private int markCovered(int[] row, List<int[]> combinations, List<boolean[]> uncovered) {
+        int covered = 0;
+        for (int i = 0; i < combinations.size(); i++) {
+            int tuple = encode(combinations.get(i), row);
+            if (uncovered.get(i)[tuple]) {
+                uncovered.get(i)[tuple] = false;
+                covered++;
+            }
+        }
+        return covered;
+    }
+
+    private int dropFirstUncovered(List<int[]> combinations, List<boolean[]> uncovered) {
+        for (boolean[] flags : uncovered) {
+            for (int tuple = 0; tuple < flags.length; tuple++) {
+                if (flags[tuple]) {
+                    flags[tuple] = false;
+                    return 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private boolean isValid(int[] assignment) {
+        if (exclusions.isEmpty()) {
+            return true;
+        }
+        Map<String, String> partial = toMap(assignment);
+        for (Predicate<Map<String, String>> invalid : exclusions) {
+            if (invalid.test(partial)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, String> toMap(int[] assignment) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int dimension = 0; dimension < assignment.length; dimension++) {
+            if (assignment[dimension] >= 0) {
+                row.put(names.get(dimension), values.get(dimension).get(assignment[dimension]));
+            }
+        }
+        return row;
+    }
+
+    private int tupleCount(int[] combination) {
+        int count = 1;
+        for (int dimension : combination) {
+            count = Math.multiplyExact(count, values.get(dimension).size());
+        }
+        return count;
+    }
+
+    private int encode(int[] combination, int[] row) {
+        int tuple = 0;
+        for (int dimension : combination) {
+            tuple = tuple * values.get(dimension).size() + row[dimension];
+        }
+        return tuple;
+    }
+
+    private void decode(int[] combination, int tuple, int[] row) {
+        for (int i = combination.length - 1; i >= 0; i--) {
+            int size = values.get(combination[i]).size();
+            row[combination[i]] = tuple % size;
+            tuple /= size;
+        }
+    }
+
+    private static boolean isAssigned(int[] row, int[] combination) {
+        for (int dimension : combination) {
+            if (row[dimension] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] combination, int dimension) {
+        for (int d : combination) {
+            if (d == dimension) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** All ways to choose k of n dimensions, as ascending index arrays */
+    private static List<int[]> combinations(int n, int k) {
+        List<int[]> result = new ArrayList<>();
+        int[] combination = new int[k];
+        for (int i = 0; i < k; i++) {
+            combination[i] = i;
+        }
+        while (true) {
+            result.add(combination.clone());
+            int i = k - 1;
+            while (i >= 0 && combination[i] == n - k + i) {
+                i--;
+            }
+            if (i < 0) {
+                return result;
+            }
+            combination[i]++;
+            for (int j = i + 1; j < k; j++) {
+                combination[j] = combination[j - 1] + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.testarchitect.framework.utils;
+
+import com.github.javafaker.Faker;
+import com.testarchitect.framework.config.ConfigManager;
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Random;
+
+/**
+ * Seeds for reproducible test data. A run seed is taken from {@code data.seed} or drawn once per run;
+ * every test derives its own sub-seed from the run seed and its name, so the data a test generates
+ * does not depend on which worker runs it or in which order. Rerunning with {@code -Ddata.seed=<run seed>}
+ * replays the same generated values. The sub-seed is recorded as an Allure parameter the first time
+ * a test uses seeded data.
+ */
+public class DataSeed {
+    private static final Logger logger = LoggerFactory.getLogger(DataSeed.class);
+    private static volatile Long runSeed;
+
+    private static final ThreadLocal<TestSeed> currentTest = new ThreadLocal<>();
+    // Faker draws from the Random it was built with, so reseeding the Random resets the Faker
+    private static final ThreadLocal<Random> seededRandom = ThreadLocal.withInitial(Random::new);
+    private static final ThreadLocal<Faker> seededFaker = ThreadLocal.withInitial(() -> new Faker(seededRandom.get()));
+
+    /**
+     * Seed state of the test running on the current thread
+     */
+    private static final class TestSeed {
+        private final String testName;
+        private final long seed;
+        private boolean recorded;
+        private long ids;
+
+        TestSeed(String testName, long seed) {
+            this.testName = testName;
+            this.seed = seed;
+        }
+    }
+
+    /**
+     * Seed of the whole run, from {@code data.seed} or drawn on first use
+     */
+    public static long getRunSeed() {
+        if (runSeed == null) {
+            synchronized (DataSeed.class) {
+                if (runSeed == null) {
+                    String configured = ConfigManager.getInstance().getDataSeed();
+                    if (configured != null && !configured.trim().isEmpty()) {
+                        try {
+                            runSeed = Long.parseLong(configured.trim());
+                        } catch (NumberFormatException e) {
+                            throw new RuntimeException("data.seed must be a long: " + configured, e);
+                        }
+                        logger.info("Using configured test data run seed {}", runSeed);
+                    } else {
+                        runSeed = new SecureRandom().nextLong();
+                        logger.info("Test data run seed {} (replay with -Ddata.seed={})", runSeed, runSeed);
+                    }
+                }
+            }
+        }
+        return runSeed;
+    }
+
+    /**
+     * Sub-seed of a test: the run seed mixed with a stable hash of the test name
+     */
+    public static long subSeedFor(String testName) {
+        // FNV-1a over the UTF-8 name, then a SplitMix64 finalizer so similar names get unrelated seeds
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : testName.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        long z = getRunSeed() ^ hash;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Start seeded data generation for the test on the current thread. With {@code data.seeded=false}
+     * the test is not seeded and generators draw unseeded data, e.g. from {@link BillingDataPool}
+     * @param testName Stable name of the test invocation, e.g. class, method and data row
+     * @return The test's sub-seed, or 0 when seeding is switched off
+     */
+    public static long beginTest(String testName) {
+        if (!ConfigManager.getInstance().isDataSeeded()) {
+            currentTest.remove();
+            return 0;
+        }
+        long seed = subSeedFor(testName);
+        seededRandom.get().setSeed(seed);
+        currentTest.set(new TestSeed(testName, seed));
+        logger.debug("Test data seed for {}: {}", testName, seed);
+        return seed;
+    }
+
+    /**
+     * End seeded data generation on the current thread
+     */
+    public static void endTest() {
+        currentTest.remove();
+    }
+
+    /**
+     * Sub-seed of the current test and the next number of its id counter, which beginTest restarts,
+     * or null outside a seeded test
+     */
+    static long[] nextSeededId() {
+        TestSeed test = currentTest.get();
+        return test == null ? null : new long[]{test.seed, ++test.ids};
+    }
+
+    /**
+     * The current test's seeded Faker, or null outside a seeded test. Only use it on this thread
+     */
+    public static Faker seededFaker() {
+        TestSeed test = currentTest.get();
+        if (test == null) {
+            return null;
+        }
+        if (!test.recorded) {
+            test.recorded = true;
+            // Excluded from Allure's history id so runs with different seeds stay one test in the history
+            Allure.parameter("Data seed", getRunSeed() + "/" + test.seed, true);
+            logger.info("Generating seeded test data for {} (run seed {}, test seed {})", test.testName, getRunSeed(), test.seed);
+        }
+        return seededFaker.get();
+    }
+}
@@ -1,8 +1,14 @@
 package com.testarchitect.framework.utils;
 
+import com.testarchitect.framework.models.BillingInfo;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 
@@ -10,6 +16,29 @@ import java.io.IOException;
  * Utility class to create Excel test data file from CSV data
  */
 public class ExcelDataCreator {
+    private static final Logger logger = LoggerFactory.getLogger(ExcelDataCreator.class);
+
+    /** Rows kept in memory while streaming; older rows are flushed to a temporary file */
+    public static final int STREAMING_ROW_WINDOW = 100;
+
+    public static final String[] BILLING_HEADERS = {
+            "TestCaseID", "FirstName", "LastName", "Email", "Address", "Address2",
+            "City", "State", "Zip", "Phone", "Country", "PaymentMethod"
+    };
+
+    private static final String[] PAYMENT_METHODS = {"Direct Bank Transfer", "Cash on Delivery", "Credit Card"};
+
+    /**
+     * Produces the cells of one generated row
+     */
+    @FunctionalInterface
+    public interface RowGenerator {
+        /**
+         * @param rowIndex Zero-based index of the data row, not counting the header
+         * @return Cell values in header order; null cells are left empty
+         */
+        String[] generate(long rowIndex);
+    }
     
     public static void createTestDataExcel() {
         String[][] testData = {
@@ -43,7 +72,10 @@ public class ExcelDataCreator {
              "Products quantity and sub total price are updated correctly", "N/A"},
             {"TC_10", "Verify users can post a review", "User is logged in", 
              "1. Open browser and go to https://demo.testarchitect.com/\n2. Login with valid credentials\n3. Go to Shop page\n4. Click on a product to view detail\n5. Scroll down then click on REVIEWS tab\n6. Submit a review\n7. Verify new review", 
-             "Number of star & review content are correctly. Number of reviews is updated", "N/A"}
+             "Number of star & review content are correctly. Number of reviews is updated", "N/A"},
+            {"TC_11", "Verify checkout across payment methods, billing profiles, countries and cart sizes", "User is logged in", 
+             "1. Open browser and go to https://demo.testarchitect.com/\n2. Login with valid credentials\n3. Add the row's number of products to the cart\n4. Go to Checkout page\n5. Fill billing details of the row's profile, country and state\n6. Choose the row's payment method and place the order\n7. Verify order confirmation message", 
+             "Order confirmation is received for every combination of the pairwise matrix", "N/A"}
         };
         
         String filePath = "src/test/resources/testdata/testcases.xlsx";
@@ -75,7 +107,105 @@ public class ExcelDataCreator {
         }
     }
     
+    /**
+     * Stream a generated sheet to disk with SXSSF. Only {@link #STREAMING_ROW_WINDOW} rows are held in
+     * memory and strings are written inline, so memory stays flat however many rows are generated.
+     * Columns are not auto-sized because that would need every row in memory.
+     * @param filePath Path of the .xlsx file to write
+     * @param sheetName Name of the sheet
+     * @param headers Header row
+     * @param rowCount Number of data rows to generate
+     * @param generator Called once per data row, in order
+     */
+    public static void createStreamingExcel(String filePath, String sheetName, String[] headers,
+                                            long rowCount, RowGenerator generator) {
+        int maxRows = SpreadsheetVersion.EXCEL2007.getMaxRows();
+        if (rowCount < 0 || rowCount > maxRows - 1) {
+            throw new IllegalArgumentException("Row count must be between 0 and " + (maxRows - 1) + ": " + rowCount);
+        }
+
+        File file = new File(filePath);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+
+        logger.info("Streaming {} rows into sheet {} of {}", rowCount, sheetName, filePath);
+        long start = System.currentTimeMillis();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(STREAMING_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet(sheetName);
+            writeRow(sheet.createRow(0), headers);
+            for (long i = 0; i < rowCount; i++) {
+                writeRow(sheet.createRow((int) i + 1), generator.generate(i));
+            }
+
+            try (FileOutputStream outputStream = new FileOutputStream(file)) {
+                workbook.write(outputStream);
+            }
+        } catch (IOException e) {
+            logger.error("Error writing Excel file: {}", filePath, e);
+            throw new RuntimeException("Failed to write Excel file: " + filePath, e);
+        } finally {
+            // Delete the temporary files holding the flushed rows
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close workbook for {}", filePath, e);
+            }
+        }
+        logger.info("Wrote {} rows to {} in {} ms", rowCount, filePath, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Stream a sheet of random billing rows with the {@link #BILLING_HEADERS} columns, cycling through
+     * the payment methods
+     */
+    public static void createBillingDataExcel(String filePath, long rowCount) {
+        createStreamingExcel(filePath, "Billing", BILLING_HEADERS, rowCount, billingRows());
+    }
+
+    /**
+     * Row generator backed by {@link BillingDataFactory}
+     */
+    public static RowGenerator billingRows() {
+        return rowIndex -> {
+            BillingInfo billing = BillingDataFactory.createUSBilling();
+            return new String[]{
+                    String.format("BILL_%07d", rowIndex + 1),
+                    billing.getFirstName(),
+                    billing.getLastName(),
+                    billing.getEmail(),
+                    billing.getAddress(),
+                    billing.getAddress2(),
+                    billing.getCity(),
+                    billing.getState(),
+                    billing.getZip(),
+                    billing.getPhone(),
+                    billing.getCountry(),
+                    PAYMENT_METHODS[(int) (rowIndex % PAYMENT_METHODS.length)]
+            };
+        };
+    }
+
+    private static void writeRow(Row row, String[] values) {
+        for (int j = 0; j < values.length; j++) {
+            if (values[j] != null) {
+                row.createCell(j).setCellValue(values[j]);
+            }
+        }
+    }
+
+    /**
+     * Without arguments writes the test case workbook; with {@code <filePath> <rowCount>} streams a
+     * billing data sheet of that size
+     */
     public static void main(String[] args) {
-        createTestDataExcel();
+        if (args.length >= 2) {
+            createBillingDataExcel(args[0], Long.parseLong(args[1]));
+        } else {
+            createTestDataExcel();
+        }
     }
 }
@@ -0,0 +1,292 @@
+package com.testarchitect.framework.utils;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader over the data rows of an .xlsx sheet. The sheet XML is pulled one row at a time
+ * from {@link XSSFReader}, with string cells resolved through the read-only shared strings table,
+ * so memory stays flat regardless of the number of rows. Rows are keyed by the header row and
+ * converted the same way as {@link ExcelUtils#getTestData(String, String)}; empty rows are skipped.
+ * The file is closed once the last row has been read, or by {@link #close()}.
+ */
+public class ExcelRowIterator implements Iterator<Map<String, String>>, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ExcelRowIterator.class);
+
+    private final String filePath;
+    private OPCPackage pkg;
+    private InputStream sheetStream;
+    private XMLStreamReader xml;
+    private ReadOnlySharedStringsTable sharedStrings;
+    private StylesTable styles;
+    private List<String> headers;
+    private Map<String, String> nextRow;
+    private int rowCount;
+
+    public ExcelRowIterator(String filePath, String sheetName) {
+        this.filePath = filePath;
+        try {
+            pkg = OPCPackage.open(filePath, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream stream = sheets.next();
+                if (sheetName.equals(sheets.getSheetName())) {
+                    sheetStream = stream;
+                    break;
+                }
+                stream.close();
+            }
+            if (sheetStream == null) {
+                throw new RuntimeException("Sheet not found: " + sheetName);
+            }
+
+            xml = XMLInputFactory.newInstance().createXMLStreamReader(sheetStream);
+            headers = readRow(true);
+            if (headers == null) {
+                throw new RuntimeException("Header row not found in sheet: " + sheetName);
+            }
+            nextRow = readDataRow();
+        } catch (IOException | OpenXML4JException | SAXException | XMLStreamException e) {
+            close();
+            logger.error("Error streaming Excel file: {}", filePath, e);
+            throw new RuntimeException("Failed to read Excel file: " + filePath, e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Column names of the header row
+     */
+    public List<String> getHeaders() {
+        return Collections.unmodifiableList(headers);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow != null;
+    }
+
+    @Override
+    public Map<String, String> next() {
+        if (nextRow == null) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> row = nextRow;
+        rowCount++;
+        try {
+            nextRow = readDataRow();
+        } catch (XMLStreamException e) {
+            close();
+            throw new RuntimeException("Failed to read Excel file: " + filePath, e);
+        }
+        if (nextRow == null) {
+            logger.info("Streamed {} test data rows from Excel", rowCount);
+            close();
+        }
+        return row;
+    }
+
+    @Override
+    public void close() {
+        nextRow = null;
+        try {
+            if (xml != null) {
+                xml.close();
+            }
+            if (sheetStream != null) {
+                sheetStream.close();
+            }
+            if (pkg != null) {
+                pkg.revert();
+            }
+        } catch (IOException | XMLStreamException e) {
+            logger.warn("Error closing Excel file: {}", filePath, e);
+        } finally {
+            xml = null;
+            sheetStream = null;
+            pkg = null;
+        }
+    }
+
+    /**
+     * Read rows until one with a non-blank cell, keyed by the header row
+     */
+    private Map<String, String> readDataRow() throws XMLStreamException {
+        List<String> values;
+        while ((values = readRow(false)) != null) {
+            boolean empty = true;
+            for (String value : values) {
+                if (!value.trim().isEmpty()) {
+                    empty = false;
+                    break;
+                }
+            }
+            if (!empty) {
+                Map<String, String> rowData = new LinkedHashMap<>();
+                for (int j = 0; j < headers.size(); j++) {
+                    rowData.put(headers.get(j), j < values.size() ? values.get(j) : "");
+                }
+                return rowData;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pull the next row element and convert its cells, indexed by column
+     * @param header Whether this must be the first row of the sheet
+     * @return Cell values with gaps filled with "", or null at the end of the sheet
+     */
+    private List<String> readRow(boolean header) throws XMLStreamException {
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                String rowRef = xml.getAttributeValue(null, "r");
+                if (header && rowRef != null && !"1".equals(rowRef)) {
+                    return null;
+                }
+                return readCells();
+            }
+        }
+        return null;
+    }
+
+    private List<String> readCells() throws XMLStreamException {
+        List<String> values = new ArrayList<>();
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                String cellRef = xml.getAttributeValue(null, "r");
+                int column = cellRef != null ? columnIndex(cellRef) : values.size();
+                String value = readCell(xml.getAttributeValue(null, "t"), xml.getAttributeValue(null, "s"));
+                while (values.size() < column) {
+                    values.add("");
+                }
+                if (values.size() == column) {
+                    values.add(value);
+                } else {
+                    values.set(column, value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Convert the current cell the way ExcelUtils converts cells of the workbook model
+     */
+    private String readCell(String type, String styleIndex) throws XMLStreamException {
+        String rawValue = null;
+        String formula = null;
+        StringBuilder inlineText = null;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xml.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    case "v":
+                        rawValue = xml.getElementText();
+                        break;
+                    case "f":
+                        formula = xml.getElementText();
+                        break;
+                    case "is":
+                        inlineText = new StringBuilder();
+                        break;
+                    case "t":
+                        if (inlineText != null) {
+                            inlineText.append(xml.getElementText());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        if (formula != null && !formula.isEmpty()) {
+            return formula;
+        }
+        if (type == null) {
+            type = "n";
+        }
+
+        switch (type) {
+            case "s":
+                return rawValue == null ? "" : sharedStrings.getItemAt(Integer.parseInt(rawValue)).getString();
+            case "inlineStr":
+                return inlineText == null ? "" : inlineText.toString();
+            case "str":
+                return rawValue == null ? "" : rawValue;
+            case "b":
+                return String.valueOf("1".equals(rawValue));
+            case "n":
+                return numericValue(rawValue, styleIndex);
+            case "e":
+            default:
+                return "";
+        }
+    }
+
+    private String numericValue(String rawValue, String styleIndex) {
+        if (rawValue == null || rawValue.isEmpty()) {
+            return "";
+        }
+        double value = Double.parseDouble(rawValue);
+        if (styleIndex != null && styles != null) {
+            XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(styleIndex));
+            if (style != null && DateUtil.isValidExcelDate(value)
+                    && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString())) {
+                return DateUtil.getJavaDate(value).toString();
+            }
+        }
+        return String.valueOf((long) value);
+    }
+
+    /**
+     * Zero-based column index of a cell reference such as "AB12"
+     */
+    private static int columnIndex(String cellRef) {
+        int column = 0;
+        for (int i = 0; i < cellRef.length() && Character.isLetter(cellRef.charAt(i)); i++) {
+            column = column * 26 + (Character.toUpperCase(cellRef.charAt(i)) - 'A' + 1);
+        }
+        return column - 1;
+    }
+}
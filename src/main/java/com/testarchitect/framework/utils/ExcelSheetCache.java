@@ -0,0 +1,264 @@
+package com.testarchitect.framework.utils;
+
+import com.testarchitect.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide cache of parsed Excel sheets and sheet name lists. Entries are keyed by file path and
+ * sheet name and are only served while the file's modification time and size are unchanged.
+ * Each sheet builds hash indexes per column (TestCaseID, PaymentMethod, ...) on first use.
+ * Loads of the same sheet are serialized so parallel DataProviders parse a file once; least recently
+ * used sheets are evicted once the cached cell count exceeds {@code testdata.cache.maxCells}.
+ */
+public class ExcelSheetCache {
+    private static final Logger logger = LoggerFactory.getLogger(ExcelSheetCache.class);
+    private static volatile ExcelSheetCache instance;
+
+    private final long maxCells;
+    private final Map<String, Object> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+    private long cachedCells;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Parsed rows of a sheet with lazily built per-column indexes
+     */
+    public static final class CachedSheet {
+        private final List<Map<String, String>> rows;
+        private final Map<String, Map<String, List<Integer>>> columnIndexes = new ConcurrentHashMap<>();
+        private final long cellCount;
+        private final long lastModified;
+        private final long length;
+
+        CachedSheet(List<Map<String, String>> rows, long lastModified, long length) {
+            List<Map<String, String>> immutableRows = new ArrayList<>(rows.size());
+            long cells = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                Map<String, String> row = Collections.unmodifiableMap(rows.get(i));
+                immutableRows.add(row);
+                cells += row.size();
+            }
+            this.rows = Collections.unmodifiableList(immutableRows);
+            this.cellCount = cells;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        /** All data rows in sheet order, unmodifiable */
+        public List<Map<String, String>> getRows() {
+            return rows;
+        }
+
+        /** Positions of the rows with the given TestCaseID, in sheet order */
+        public List<Integer> getRowIndexes(String testCaseId) {
+            return getRowIndexes("TestCaseID", testCaseId);
+        }
+
+        /** Positions of the rows whose column has the given value, in sheet order */
+        public List<Integer> getRowIndexes(String column, String value) {
+            return getColumnIndex(column).getOrDefault(value, Collections.emptyList());
+        }
+
+        /**
+         * Index of a column from value to row positions, built on first use.
+         * Rows without the column are indexed under null
+         */
+        public Map<String, List<Integer>> getColumnIndex(String column) {
+            return columnIndexes.computeIfAbsent(column, this::buildColumnIndex);
+        }
+
+        private Map<String, List<Integer>> buildColumnIndex(String column) {
+            Map<String, List<Integer>> index = new HashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                index.computeIfAbsent(rows.get(i).get(column), value -> new ArrayList<>(1)).add(i);
+            }
+            for (Map.Entry<String, List<Integer>> entry : index.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            logger.debug("Built index on column {}: {} distinct values", column, index.size());
+            return Collections.unmodifiableMap(index);
+        }
+
+        long getCellCount() {
+            return cellCount;
+        }
+    }
+
+    /**
+     * Sheet names of a workbook together with the file version they were read from
+     */
+    private static final class CachedSheetNames {
+        private final List<String> names;
+        private final long lastModified;
+        private final long length;
+
+        CachedSheetNames(List<String> names, long lastModified, long length) {
+            this.names = Collections.unmodifiableList(new ArrayList<>(names));
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+    ExcelSheetCache(long maxCells) {
+        this.maxCells = maxCells;
+    }
+
+    public static ExcelSheetCache getInstance() {
+        if (instance == null) {
+            synchronized (ExcelSheetCache.class) {
+                if (instance == null) {
+                    instance = new ExcelSheetCache(ConfigManager.getInstance().getTestDataCacheMaxCells());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get a parsed sheet, loading it if it is not cached or the file has changed
+     * @param filePath Path to Excel file
+     * @param sheetName Name of the sheet
+     * @param loader Parses the sheet into rows keyed by header
+     * @return The cached sheet
+     */
+    public CachedSheet getSheet(String filePath, String sheetName, Supplier<List<Map<String, String>>> loader) {
+        File file = new File(filePath);
+        String key = "sheet:" + file.getAbsolutePath() + "!" + sheetName;
+
+        CachedSheet sheet = lookup(key, CachedSheet.class, file);
+        if (sheet != null) {
+            return sheet;
+        }
+
+        synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+            // Another thread may have loaded the sheet while this one was waiting
+            sheet = lookup(key, CachedSheet.class, file);
+            if (sheet == null) {
+                misses.incrementAndGet();
+                long lastModified = file.lastModified();
+                long length = file.length();
+                sheet = new CachedSheet(loader.get(), lastModified, length);
+                store(key, sheet, sheet.getCellCount());
+                logger.info("Cached sheet {} of {}: {} rows", sheetName, filePath, sheet.getRows().size());
+            }
+            return sheet;
+        }
+    }
+
+    /**
+     * Get the sheet names of a workbook, loading them if they are not cached or the file has changed
+     */
+    public List<String> getSheetNames(String filePath, Supplier<List<String>> loader) {
+        File file = new File(filePath);
+        String key = "names:" + file.getAbsolutePath();
+
+        CachedSheetNames names = lookup(key, CachedSheetNames.class, file);
+        if (names != null) {
+            return names.names;
+        }
+
+        synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+            names = lookup(key, CachedSheetNames.class, file);
+            if (names == null) {
+                misses.incrementAndGet();
+                names = new CachedSheetNames(loader.get(), file.lastModified(), file.length());
+                store(key, names, names.names.size());
+            }
+            return names.names;
+        }
+    }
+
+    private synchronized <T> T lookup(String key, Class<T> type, File file) {
+        Object entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        boolean current;
+        if (entry instanceof CachedSheet) {
+            CachedSheet sheet = (CachedSheet) entry;
+            current = sheet.lastModified == file.lastModified() && sheet.length == file.length();
+        } else {
+            CachedSheetNames names = (CachedSheetNames) entry;
+            current = names.lastModified == file.lastModified() && names.length == file.length();
+        }
+
+        if (!current) {
+            logger.info("Test data file changed, reloading: {}", file);
+            remove(key);
+            return null;
+        }
+        hits.incrementAndGet();
+        return type.cast(entry);
+    }
+
+    private synchronized void store(String key, Object entry, long cells) {
+        remove(key);
+        cache.put(key, entry);
+        cachedCells += cells;
+
+        // Evict least recently used entries, but always keep the one just loaded
+        Iterator<Map.Entry<String, Object>> eldest = cache.entrySet().iterator();
+        while (cachedCells > maxCells && eldest.hasNext()) {
+            Map.Entry<String, Object> candidate = eldest.next();
+            if (candidate.getKey().equals(key)) {
+                continue;
+            }
+            cachedCells -= cellsOf(candidate.getValue());
+            eldest.remove();
+            evictions.incrementAndGet();
+            logger.info("Evicted {} from test data cache", candidate.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        Object previous = cache.remove(key);
+        if (previous != null) {
+            cachedCells -= cellsOf(previous);
+        }
+    }
+
+    private static long cellsOf(Object entry) {
+        return entry instanceof CachedSheet ? ((CachedSheet) entry).getCellCount() : ((CachedSheetNames) entry).names.size();
+    }
+
+    /**
+     * Drop all cached sheets
+     */
+    public synchronized void clear() {
+        cache.clear();
+        cachedCells = 0;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized long getCachedCellCount() {
+        return cachedCells;
+    }
+}
@@ -16,7 +16,8 @@ public class ExcelUtils {
     private static final Logger logger = LoggerFactory.getLogger(ExcelUtils.class);
     
     /**
-     * Read test data from Excel file and return as Object[][]
+     * Read test data from Excel file and return as Object[][].
+     * Parsed sheets are cached until the file changes, so repeat calls do not re-read the file
      * @param filePath Path to Excel file
      * @param sheetName Name of the sheet
      * @return Object[][] containing test data
@@ -24,6 +25,45 @@ public class ExcelUtils {
     public static Object[][] getTestData(String filePath, String sheetName) {
         logger.info("Reading test data from Excel file: {} sheet: {}", filePath, sheetName);
         
+        List<Map<String, String>> testData = getCachedSheet(filePath, sheetName).getRows();
+        
+        // Convert to Object[][]
+        Object[][] result = new Object[testData.size()][1];
+        for (int i = 0; i < testData.size(); i++) {
+            result[i][0] = testData.get(i);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Start a query over a sheet, e.g. all rows where PaymentMethod is "Direct Bank Transfer".
+     * Equality conditions are answered from per-column indexes built on the cached sheet
+     * @param filePath Path to Excel file
+     * @param sheetName Name of the sheet
+     * @return Query to refine with where/select and run with iterator() or toArray()
+     */
+    public static TestDataQuery query(String filePath, String sheetName) {
+        return new TestDataQuery(getCachedSheet(filePath, sheetName));
+    }
+    
+    /**
+     * Get the parsed sheet from the process-wide cache, parsing it on first use
+     */
+    private static ExcelSheetCache.CachedSheet getCachedSheet(String filePath, String sheetName) {
+        return ExcelSheetCache.getInstance().getSheet(filePath, sheetName, () -> {
+            TestDataSnapshot snapshot = TestDataSnapshot.find(filePath);
+            if (snapshot != null && snapshot.hasSheet(sheetName)) {
+                return snapshot.readSheet(sheetName);
+            }
+            return readSheet(filePath, sheetName);
+        });
+    }
+    
+    /**
+     * Parse all data rows of a sheet, keyed by the header row in column order
+     */
+    static List<Map<String, String>> readSheet(String filePath, String sheetName) {
         List<Map<String, String>> testData = new ArrayList<>();
         
         try (FileInputStream fis = new FileInputStream(filePath);
@@ -49,7 +89,7 @@ public class ExcelUtils {
             for (int i = 1; i <= sheet.getLastRowNum(); i++) {
                 Row row = sheet.getRow(i);
                 if (row != null && !isRowEmpty(row)) {
-                    Map<String, String> rowData = new HashMap<>();
+                    Map<String, String> rowData = new LinkedHashMap<>();
                     for (int j = 0; j < headers.size(); j++) {
                         Cell cell = row.getCell(j);
                         String cellValue = getCellValueAsString(cell);
@@ -65,14 +105,32 @@ public class ExcelUtils {
         }
         
         logger.info("Successfully read {} test data rows from Excel", testData.size());
+        return testData;
+    }
+    
+    /**
+     * Stream test data from an Excel file one row at a time, for sheets too large to load at once.
+     * The iterator can be returned directly from a TestNG {@code @DataProvider}; each element is
+     * an Object[] holding the row as a Map of header to value, like {@link #getTestData(String, String)}
+     * @param filePath Path to Excel file
+     * @param sheetName Name of the sheet
+     * @return Lazy iterator over the data rows
+     */
+    public static Iterator<Object[]> streamTestData(String filePath, String sheetName) {
+        logger.info("Streaming test data from Excel file: {} sheet: {}", filePath, sheetName);
+        ExcelRowIterator rows = new ExcelRowIterator(filePath, sheetName);
         
-        // Convert to Object[][]
-        Object[][] result = new Object[testData.size()][1];
-        for (int i = 0; i < testData.size(); i++) {
-            result[i][0] = testData.get(i);
-        }
-        
-        return result;
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+            
+            @Override
+            public Object[] next() {
+                return new Object[]{rows.next()};
+            }
+        };
     }
     
     /**
@@ -85,19 +143,17 @@ public class ExcelUtils {
     public static Object[][] getTestDataByIds(String filePath, String sheetName, String... testCaseIds) {
         logger.info("Reading test data for specific test cases: {}", Arrays.toString(testCaseIds));
         
-        Object[][] allData = getTestData(filePath, sheetName);
-        List<Object[]> filteredData = new ArrayList<>();
+        ExcelSheetCache.CachedSheet sheet = getCachedSheet(filePath, sheetName);
         
-        Set<String> targetIds = new HashSet<>(Arrays.asList(testCaseIds));
+        // Look the ids up in the TestCaseID index and keep the rows in sheet order
+        SortedSet<Integer> rowIndexes = new TreeSet<>();
+        for (String testCaseId : new HashSet<>(Arrays.asList(testCaseIds))) {
+            rowIndexes.addAll(sheet.getRowIndexes(testCaseId));
+        }
         
-        for (Object[] row : allData) {
-            @SuppressWarnings("unchecked")
-            Map<String, String> rowData = (Map<String, String>) row[0];
-            String testCaseId = rowData.get("TestCaseID");
-            
-            if (targetIds.contains(testCaseId)) {
-                filteredData.add(row);
-            }
+        List<Object[]> filteredData = new ArrayList<>();
+        for (int rowIndex : rowIndexes) {
+            filteredData.add(new Object[]{sheet.getRows().get(rowIndex)});
         }
         
         logger.info("Filtered {} test data rows for specified test cases", filteredData.size());
@@ -148,6 +204,13 @@ public class ExcelUtils {
      * Get all sheet names from Excel file
      */
     public static List<String> getSheetNames(String filePath) {
+        return new ArrayList<>(ExcelSheetCache.getInstance().getSheetNames(filePath, () -> {
+            TestDataSnapshot snapshot = TestDataSnapshot.find(filePath);
+            return snapshot != null ? snapshot.getSheetNames() : readSheetNames(filePath);
+        }));
+    }
+    
+    static List<String> readSheetNames(String filePath) {
         List<String> sheetNames = new ArrayList<>();
         
         try (FileInputStream fis = new FileInputStream(filePath);
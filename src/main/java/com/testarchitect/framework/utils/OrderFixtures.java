@@ -0,0 +1,153 @@
+package com.testarchitect.framework.utils;
+
+import com.testarchitect.framework.config.ConfigManager;
+import com.testarchitect.framework.models.TestAccount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order history fixtures: places {@code orders.fixture.count} orders for an account through the
+ * storefront's backend ({@link StorefrontClient}) instead of UI checkout journeys, and caches their ids
+ * for the run. {@link #prepare} starts this for the whole account pool at suite start, one account per
+ * thread on {@code orders.fixture.threads} threads; a test asking for an account's orders waits only
+ * for that account. A logged-in customer's cart is shared by all their sessions, so the fixtures hold
+ * the account's lease while placing its orders, one after another, and start each from an empty cart.
+ */
+public class OrderFixtures {
+    private static final Logger logger = LoggerFactory.getLogger(OrderFixtures.class);
+    private static volatile OrderFixtures instance;
+
+    private final String baseUrl;
+    private final int ordersPerAccount;
+    private final String paymentMethod;
+    private final String authCookiePrefix;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<List<String>>> orders = new ConcurrentHashMap<>();
+
+    private final AtomicLong ordersCreated = new AtomicLong();
+    private final AtomicLong totalCreateMs = new AtomicLong();
+
+    public OrderFixtures(String baseUrl, int ordersPerAccount, int threads, String paymentMethod, String authCookiePrefix) {
+        this.baseUrl = baseUrl;
+        this.ordersPerAccount = ordersPerAccount;
+        this.paymentMethod = paymentMethod;
+        this.authCookiePrefix = authCookiePrefix;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "order-fixtures-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static OrderFixtures getInstance() {
+        if (instance == null) {
+            synchronized (OrderFixtures.class) {
+                if (instance == null) {
+                    ConfigManager config = ConfigManager.getInstance();
+                    instance = new OrderFixtures(config.getAppUrl(), config.getOrderFixtureCount(),
+                            config.getOrderFixtureThreads(), config.getOrderFixturePaymentMethod(),
+                            config.getSessionCookiePrefix());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Lease every account of the pool and start placing its orders in the background. Each lease is
+     * returned once the account's orders are placed, so tests only get the account afterwards
+     */
+    public void prepare(AccountPool pool) {
+        logger.info("Placing {} fixture orders for each of {} accounts", ordersPerAccount, pool.getSize());
+        for (int i = 0; i < pool.getSize(); i++) {
+            AccountPool.Lease lease = pool.lease("order fixtures");
+            ordersOf(lease.getAccount()).whenComplete((ids, error) -> lease.close());
+        }
+    }
+
+    /**
+     * Ids of the orders placed for the account in this run, waiting for them if they are still being placed.
+     * Orders not placed yet are placed now, so call it with the account leased
+     * @throws RuntimeException if the orders could not be placed
+     */
+    public List<String> getOrderIds(TestAccount account) {
+        try {
+            return ordersOf(account).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw cause instanceof RuntimeException ? (RuntimeException) cause
+                    : new RuntimeException("Failed to place fixture orders for " + account, cause);
+        }
+    }
+
+    private CompletableFuture<List<String>> ordersOf(TestAccount account) {
+        String username = account.getUsername();
+        CompletableFuture<List<String>> placed = new CompletableFuture<>();
+        CompletableFuture<List<String>> existing = orders.putIfAbsent(username, placed);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            try {
+                placed.complete(place(account));
+            } catch (RuntimeException e) {
+                // A failed attempt is not cached, so the next test asking for the account tries again
+                orders.remove(username, placed);
+                logger.warn("Could not place fixture orders for {}", account, e);
+                placed.completeExceptionally(e);
+            }
+        });
+        return placed;
+    }
+
+    private List<String> place(TestAccount account) {
+        long start = System.currentTimeMillis();
+        StorefrontClient client = new StorefrontClient(baseUrl).login(account, authCookiePrefix);
+        String productId = client.firstProductId();
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ordersPerAccount; i++) {
+            // Items left by earlier sessions of the customer would be ordered too
+            client.clearCart();
+            client.addToCart(productId, 1);
+            ids.add(client.checkout(BillingDataFactory.createUSBilling(), paymentMethod));
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        ordersCreated.addAndGet(ids.size());
+        totalCreateMs.addAndGet(elapsed);
+        logger.info("Placed orders {} for {} in {} ms", ids, account, elapsed);
+        return Collections.unmodifiableList(ids);
+    }
+
+    /**
+     * Stop placing orders and log how many were placed, e.g. at the end of the suite
+     */
+    public static void shutdown() {
+        OrderFixtures fixtures = instance;
+        if (fixtures == null) {
+            return;
+        }
+        fixtures.executor.shutdownNow();
+        logger.info("Order fixtures: {} orders placed for {} accounts, {} ms spent",
+                fixtures.ordersCreated.get(), fixtures.orders.size(), fixtures.totalCreateMs.get());
+    }
+
+    public long getOrdersCreatedCount() {
+        return ordersCreated.get();
+    }
+}
@@ -0,0 +1,232 @@
+package com.testarchitect.framework.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.testarchitect.framework.models.BillingInfo;
+import com.testarchitect.framework.models.TestAccount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP session with the storefront outside the browser, for test fixtures: logs an account in through
+ * the My Account form and places orders through the WooCommerce Store API. WordPress only treats REST
+ * calls as the logged-in user when they carry its REST nonce, which is fetched after the login; the
+ * Store API additionally requires its own nonce on cart and checkout writes. Not thread-safe: use one
+ * client per account and thread.
+ */
+public class StorefrontClient {
+    private static final Logger logger = LoggerFactory.getLogger(StorefrontClient.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern LOGIN_NONCE = Pattern.compile(
+            "name=[\"']woocommerce-login-nonce[\"'][^>]*value=[\"']([^\"']+)[\"']");
+    private static final Pattern REST_NONCE_MIDDLEWARE = Pattern.compile(
+            "createNonceMiddleware\\(\\s*[\"']([^\"']+)[\"']\\s*\\)");
+
+    private final String site;
+    private final CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final HttpClient http;
+    private String restNonce;
+    private String storeNonce;
+
+    public StorefrontClient(String baseUrl) {
+        this.site = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.http = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Log in through the My Account form
+     * @param authCookiePrefix Name prefix of the cookie that proves the login, e.g. wordpress_logged_in
+     * @throws RuntimeException if the site did not set the auth cookie
+     */
+    public StorefrontClient login(TestAccount account, String authCookiePrefix) {
+        String page = send(get("/my-account/"), "open the login form").body();
+        Matcher nonce = LOGIN_NONCE.matcher(page);
+        if (!nonce.find()) {
+            throw new RuntimeException("No WooCommerce login form at " + site + "/my-account/");
+        }
+
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("username", account.getUsername());
+        form.put("password", account.getPassword());
+        form.put("woocommerce-login-nonce", nonce.group(1));
+        form.put("_wp_http_referer", "/my-account/");
+        form.put("login", "Log in");
+        HttpResponse<String> response = send(request("/my-account/")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(form))), "log in " + account);
+
+        boolean authenticated = cookies.getCookieStore().getCookies().stream()
+                .map(HttpCookie::getName)
+                .anyMatch(name -> name.startsWith(authCookiePrefix));
+        if (!authenticated) {
+            throw new RuntimeException("Login of " + account + " was rejected by " + site);
+        }
+        restNonce = fetchRestNonce(response.body());
+        storeNonce = null;
+        logger.debug("Logged in {} over HTTP", account);
+        return this;
+    }
+
+    /**
+     * Id of the first simple, in-stock product the Store API lists
+     */
+    public String firstProductId() {
+        JsonNode products = json(send(get("/wp-json/wc/store/v1/products?per_page=1&type=simple&stock_status=instock"),
+                "list products"));
+        if (!products.isArray() || products.size() == 0) {
+            throw new RuntimeException("The Store API at " + site + " lists no products to order");
+        }
+        return products.get(0).path("id").asText();
+    }
+
+    /**
+     * Remove every item from the session's cart
+     */
+    public void clearCart() {
+        storeWrite("DELETE", "/wp-json/wc/store/v1/cart/items", null, "empty the cart");
+    }
+
+    /**
+     * Add a product to the session's cart
+     */
+    public void addToCart(String productId, int quantity) {
+        ObjectNode body = MAPPER.createObjectNode();
+        body.put("id", Long.parseLong(productId));
+        body.put("quantity", quantity);
+        storeWrite("POST", "/wp-json/wc/store/v1/cart/add-item", body, "add product " + productId + " to the cart");
+    }
+
+    /**
+     * Place an order for the cart's contents
+     * @param paymentMethod Payment gateway id, e.g. cod or bacs
+     * @return The new order's id
+     */
+    public String checkout(BillingInfo billing, String paymentMethod) {
+        ObjectNode body = MAPPER.createObjectNode();
+        ObjectNode address = body.putObject("billing_address");
+        address.put("first_name", billing.getFirstName());
+        address.put("last_name", billing.getLastName());
+        address.put("address_1", billing.getAddress());
+        address.put("address_2", billing.getAddress2());
+        address.put("city", billing.getCity());
+        address.put("state", billing.getState());
+        address.put("postcode", billing.getZip());
+        address.put("country", billing.getCountry());
+        address.put("email", billing.getEmail());
+        address.put("phone", billing.getPhone());
+        ObjectNode shipping = address.deepCopy();
+        shipping.remove("email");
+        body.set("shipping_address", shipping);
+        body.put("payment_method", paymentMethod);
+
+        JsonNode order = storeWrite("POST", "/wp-json/wc/store/v1/checkout", body, "place an order");
+        String orderId = order.path("order_id").asText("");
+        if (orderId.isEmpty() || "0".equals(orderId)) {
+            throw new RuntimeException("Checkout at " + site + " returned no order id: " + order);
+        }
+        return orderId;
+    }
+
+    private JsonNode storeWrite(String method, String path, JsonNode body, String action) {
+        if (storeNonce == null) {
+            storeNonce = send(restRequest("/wp-json/wc/store/v1/cart").GET(), "open the cart")
+                    .headers().firstValue("Nonce").orElse("");
+        }
+        HttpResponse<String> response = send(restRequest(path)
+                .header("Content-Type", "application/json")
+                .header("Nonce", storeNonce)
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body.toString())
+                        : HttpRequest.BodyPublishers.noBody()), action);
+        response.headers().firstValue("Nonce").ifPresent(nonce -> storeNonce = nonce);
+        return json(response);
+    }
+
+    // WordPress answers the rest-nonce action for logged-in users; pages using apiFetch embed it as well
+    private String fetchRestNonce(String loggedInPage) {
+        try {
+            String nonce = send(get("/wp-admin/admin-ajax.php?action=rest-nonce"), "fetch the REST nonce").body().trim();
+            if (nonce.matches("[0-9a-f]{6,}")) {
+                return nonce;
+            }
+        } catch (RuntimeException e) {
+            logger.debug("No REST nonce from admin-ajax: {}", e.getMessage());
+        }
+        Matcher middleware = REST_NONCE_MIDDLEWARE.matcher(loggedInPage);
+        return middleware.find() ? middleware.group(1) : null;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(site + path)).timeout(TIMEOUT);
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder restRequest(String path) {
+        HttpRequest.Builder builder = request(path).header("Accept", "application/json");
+        if (restNonce != null) {
+            builder.header("X-WP-Nonce", restNonce);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder, String action) {
+        HttpResponse<String> response;
+        try {
+            response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to " + action + " at " + site, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while trying to " + action, e);
+        }
+        if (response.statusCode() >= 400) {
+            throw new RuntimeException("Failed to " + action + " at " + site + ": HTTP " + response.statusCode()
+                    + " " + abbreviate(response.body()));
+        }
+        return response;
+    }
+
+    private static JsonNode json(HttpResponse<String> response) {
+        try {
+            return MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            throw new RuntimeException("Expected JSON from " + response.uri() + ": " + abbreviate(response.body()), e);
+        }
+    }
+
+    private static String encode(Map<String, String> form) {
+        StringJoiner joiner = new StringJoiner("&");
+        form.forEach((name, value) -> joiner.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return joiner.toString();
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() > 200 ? body.substring(0, 200) + "..." : body;
+    }
+}
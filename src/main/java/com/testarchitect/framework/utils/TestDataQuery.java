@@ -0,0 +1,224 @@
+package com.testarchitect.framework.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Query over a cached test data sheet, e.g.
+ * {@code ExcelUtils.query(path, "TestCases").where("PaymentMethod", "Direct Bank Transfer").select("TestCaseID").iterator()}.
+ * Equality conditions are answered from the sheet's per-column indexes, so only the rows of the most
+ * selective indexed column are visited; predicate conditions are checked on those candidate rows.
+ * Without any equality condition the whole sheet is scanned.
+ */
+public class TestDataQuery {
+    private static final Logger logger = LoggerFactory.getLogger(TestDataQuery.class);
+
+    private final ExcelSheetCache.CachedSheet sheet;
+    private final Map<String, Set<String>> equalities = new LinkedHashMap<>();
+    private final List<Predicate<Map<String, String>>> predicates = new ArrayList<>();
+    private List<String> projection;
+
+    TestDataQuery(ExcelSheetCache.CachedSheet sheet) {
+        this.sheet = sheet;
+    }
+
+    /**
+     * Keep rows whose column equals the value
+     */
+    public TestDataQuery where(String column, String value) {
+        return whereIn(column, value);
+    }
+
+    /**
+     * Keep rows whose column equals any of the values; repeated conditions on a column intersect
+     */
+    public TestDataQuery whereIn(String column, String... values) {
+        Set<String> accepted = new LinkedHashSet<>(Arrays.asList(values));
+        Set<String> existing = equalities.get(column);
+        if (existing != null) {
+            existing.retainAll(accepted);
+        } else {
+            equalities.put(column, accepted);
+        }
+        return this;
+    }
+
+    /**
+     * Keep rows whose column value satisfies the condition; rows without the column are passed ""
+     */
+    public TestDataQuery where(String column, Predicate<String> condition) {
+        predicates.add(row -> condition.test(row.getOrDefault(column, "")));
+        return this;
+    }
+
+    /**
+     * Keep rows satisfying a condition over the whole row
+     */
+    public TestDataQuery where(Predicate<Map<String, String>> condition) {
+        predicates.add(condition);
+        return this;
+    }
+
+    /**
+     * Return only these columns, in this order
+     */
+    public TestDataQuery select(String... columns) {
+        projection = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(columns)));
+        return this;
+    }
+
+    /**
+     * Matching rows as a lazy iterator, ready to be returned from a TestNG {@code @DataProvider}
+     */
+    public Iterator<Object[]> iterator() {
+        Iterator<Map<String, String>> rows = rows();
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{rows.next()};
+            }
+        };
+    }
+
+    /**
+     * Matching rows as Object[][], like {@link ExcelUtils#getTestData(String, String)}
+     */
+    public Object[][] toArray() {
+        List<Object[]> result = new ArrayList<>();
+        iterator().forEachRemaining(result::add);
+        return result.toArray(new Object[0][]);
+    }
+
+    /**
+     * Number of matching rows
+     */
+    public int count() {
+        int count = 0;
+        for (Iterator<Map<String, String>> rows = rows(); rows.hasNext(); rows.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Matching rows in sheet order, projected if {@link #select(String...)} was used
+     */
+    public Iterator<Map<String, String>> rows() {
+        Iterator<Integer> candidates = candidates();
+        List<Map<String, String>> allRows = sheet.getRows();
+
+        return new Iterator<Map<String, String>>() {
+            private Map<String, String> nextRow = advance();
+
+            private Map<String, String> advance() {
+                while (candidates.hasNext()) {
+                    Map<String, String> row = allRows.get(candidates.next());
+                    if (matches(row)) {
+                        return project(row);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextRow != null;
+            }
+
+            @Override
+            public Map<String, String> next() {
+                if (nextRow == null) {
+                    throw new NoSuchElementException();
+                }
+                Map<String, String> row = nextRow;
+                nextRow = advance();
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Row positions to visit: the rows of the most selective equality condition, or every row
+     */
+    private Iterator<Integer> candidates() {
+        String mostSelective = null;
+        int fewestRows = Integer.MAX_VALUE;
+        for (Map.Entry<String, Set<String>> equality : equalities.entrySet()) {
+            int rowCount = 0;
+            for (String value : equality.getValue()) {
+                rowCount += sheet.getRowIndexes(equality.getKey(), value).size();
+            }
+            if (rowCount < fewestRows) {
+                fewestRows = rowCount;
+                mostSelective = equality.getKey();
+            }
+        }
+
+        if (mostSelective == null) {
+            logger.debug("No indexed condition, scanning {} rows", sheet.getRows().size());
+            return new Iterator<Integer>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < sheet.getRows().size();
+                }
+
+                @Override
+                public Integer next() {
+                    return next++;
+                }
+            };
+        }
+
+        logger.debug("Using index on {}: {} candidate rows", mostSelective, fewestRows);
+        Set<Integer> positions = new TreeSet<>();
+        for (String value : equalities.get(mostSelective)) {
+            positions.addAll(sheet.getRowIndexes(mostSelective, value));
+        }
+        return positions.iterator();
+    }
+
+    private boolean matches(Map<String, String> row) {
+        for (Map.Entry<String, Set<String>> equality : equalities.entrySet()) {
+            if (!equality.getValue().contains(row.get(equality.getKey()))) {
+                return false;
+            }
+        }
+        for (Predicate<Map<String, String>> predicate : predicates) {
+            if (!predicate.test(row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, String> project(Map<String, String> row) {
+        if (projection == null) {
+            return row;
+        }
+        Map<String, String> projected = new LinkedHashMap<>();
+        for (String column : projection) {
+            projected.put(column, row.getOrDefault(column, ""));
+        }
+        return Collections.unmodifiableMap(projected);
+    }
+}
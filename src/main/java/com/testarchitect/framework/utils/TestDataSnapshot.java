@@ -0,0 +1,355 @@
+package com.testarchitect.framework.utils;
+
+import com.testarchitect.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of an .xlsx test data workbook, compiled at build time so test JVMs do not
+ * have to unzip and parse OOXML. Layout (big-endian):
+ * <pre>
+ * header     magic "TDS1", version, source length, source last modified, string count,
+ *            string table position, sheet count
+ * directory  per sheet: name id, column count (-1 if the sheet has no header row), header ids,
+ *            row count, position of the first row
+ * rows       per sheet: row count x column count string ids; rows are fixed width, so the
+ *            offset of row i is first row + i x column count x 4
+ * strings    string count + 1 byte offsets, then the UTF-8 bytes of all distinct strings
+ * </pre>
+ * Snapshots are read through a memory-mapped file and are only used while the source workbook
+ * still has the recorded length and modification time.
+ */
+public class TestDataSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(TestDataSnapshot.class);
+
+    private static final int MAGIC = 0x54445331;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+    private static final String EXTENSION = ".tds";
+
+    private final ByteBuffer buffer;
+    private final long sourceLength;
+    private final long sourceLastModified;
+    private final String[] strings;
+    private final int stringTable;
+    private final Map<String, Integer> sheetEntries = new LinkedHashMap<>();
+
+    /**
+     * Directory entry of a sheet while compiling
+     */
+    private static final class CompiledSheet {
+        private final int nameId;
+        private final int[] headerIds;
+        private final int rowCount;
+        private final int rowOffset;
+
+        CompiledSheet(int nameId, int[] headerIds, int rowCount, int rowOffset) {
+            this.nameId = nameId;
+            this.headerIds = headerIds;
+            this.rowCount = rowCount;
+            this.rowOffset = rowOffset;
+        }
+
+        int directorySize() {
+            return headerIds == null ? 8 : 8 + headerIds.length * 4 + 12;
+        }
+    }
+
+    private TestDataSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a test data snapshot");
+        }
+        sourceLength = buffer.getLong(8);
+        sourceLastModified = buffer.getLong(16);
+        strings = new String[buffer.getInt(24)];
+        stringTable = (int) buffer.getLong(28);
+
+        int sheetCount = buffer.getInt(36);
+        int position = HEADER_SIZE;
+        for (int i = 0; i < sheetCount; i++) {
+            sheetEntries.put(string(buffer.getInt(position)), position);
+            int columnCount = buffer.getInt(position + 4);
+            position += 8;
+            if (columnCount >= 0) {
+                position += columnCount * 4 + 12;
+            }
+        }
+    }
+
+    /**
+     * Map a snapshot file
+     */
+    public static TestDataSnapshot open(File snapshotFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new TestDataSnapshot(buffer);
+        }
+    }
+
+    /**
+     * Find the up-to-date snapshot of a workbook in {@code testdata.snapshot.dir}
+     * @param filePath Path to the Excel file
+     * @return The snapshot, or null if there is none or the workbook changed since it was compiled
+     */
+    public static TestDataSnapshot find(String filePath) {
+        File source = new File(filePath);
+        File snapshotFile = snapshotFileFor(source, new File(ConfigManager.getInstance().getTestDataSnapshotDir()));
+        if (!snapshotFile.isFile()) {
+            return null;
+        }
+
+        try {
+            TestDataSnapshot snapshot = open(snapshotFile);
+            if (!snapshot.isCurrent(source)) {
+                logger.info("Test data snapshot is out of date, reading workbook: {}", snapshotFile);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read test data snapshot {}, reading workbook: {}", snapshotFile, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Snapshot file of a workbook inside a snapshot directory
+     */
+    public static File snapshotFileFor(File source, File snapshotDir) {
+        return new File(snapshotDir, source.getName() + EXTENSION);
+    }
+
+    /**
+     * Whether the snapshot was compiled from the current version of the workbook
+     */
+    public boolean isCurrent(File source) {
+        return source.length() == sourceLength && source.lastModified() == sourceLastModified;
+    }
+
+    /**
+     * Names of all sheets of the workbook, in workbook order
+     */
+    public List<String> getSheetNames() {
+        return new ArrayList<>(sheetEntries.keySet());
+    }
+
+    /**
+     * Whether the sheet was compiled; sheets without a header row are not
+     */
+    public boolean hasSheet(String sheetName) {
+        Integer entry = sheetEntries.get(sheetName);
+        return entry != null && buffer.getInt(entry + 4) >= 0;
+    }
+
+    /**
+     * Read the data rows of a compiled sheet, keyed by header in column order.
+     * Equal values share one String instance
+     */
+    public List<Map<String, String>> readSheet(String sheetName) {
+        if (!hasSheet(sheetName)) {
+            throw new RuntimeException("Sheet not found in snapshot: " + sheetName);
+        }
+        int position = sheetEntries.get(sheetName) + 4;
+        int columnCount = buffer.getInt(position);
+        position += 4;
+
+        String[] headers = new String[columnCount];
+        for (int j = 0; j < columnCount; j++) {
+            headers[j] = string(buffer.getInt(position));
+            position += 4;
+        }
+        int rowCount = buffer.getInt(position);
+        int rowPosition = (int) buffer.getLong(position + 4);
+
+        List<Map<String, String>> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int j = 0; j < columnCount; j++) {
+                row.put(headers[j], string(buffer.getInt(rowPosition)));
+                rowPosition += 4;
+            }
+            rows.add(row);
+        }
+
+        logger.info("Loaded {} test data rows from snapshot sheet {}", rowCount, sheetName);
+        return rows;
+    }
+
+    /**
+     * Decode a string of the string table, once per id
+     */
+    private synchronized String string(int id) {
+        String value = strings[id];
+        if (value == null) {
+            int start = buffer.getInt(stringTable + 4 * id);
+            int end = buffer.getInt(stringTable + 4 * (id + 1));
+            int blob = stringTable + 4 * (strings.length + 1);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer view = buffer.duplicate();
+            view.position(blob + start);
+            view.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Compile a workbook into a snapshot file, replacing it atomically
+     * @param source The .xlsx workbook
+     * @param target The snapshot file to write
+     */
+    public static void compile(File source, File target) throws IOException {
+        long sourceLength = source.length();
+        long sourceLastModified = source.lastModified();
+
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+
+        List<String> sheetNames = ExcelUtils.readSheetNames(source.getPath());
+        List<CompiledSheet> sheets = new ArrayList<>();
+        ByteArrayOutputStream rowBytes = new ByteArrayOutputStream();
+        DataOutputStream rowData = new DataOutputStream(rowBytes);
+
+        for (String sheetName : sheetNames) {
+            List<Map<String, String>> rows;
+            try {
+                rows = ExcelUtils.readSheet(source.getPath(), sheetName);
+            } catch (RuntimeException e) {
+                logger.info("Sheet {} not compiled: {}", sheetName, e.getMessage());
+                sheets.add(new CompiledSheet(intern(sheetName, ids, strings), null, 0, 0));
+                continue;
+            }
+
+            List<String> headers = rows.isEmpty() ? Collections.emptyList() : new ArrayList<>(rows.get(0).keySet());
+            int[] headerIds = new int[headers.size()];
+            for (int j = 0; j < headers.size(); j++) {
+                headerIds[j] = intern(headers.get(j), ids, strings);
+            }
+
+            int rowOffset = rowData.size();
+            for (Map<String, String> row : rows) {
+                for (String header : headers) {
+                    rowData.writeInt(intern(row.get(header), ids, strings));
+                }
+            }
+            sheets.add(new CompiledSheet(intern(sheetName, ids, strings), headerIds, rows.size(), rowOffset));
+        }
+
+        int directorySize = 0;
+        for (CompiledSheet sheet : sheets) {
+            directorySize += sheet.directorySize();
+        }
+        long rowsStart = HEADER_SIZE + directorySize;
+        long stringTable = rowsStart + rowData.size();
+
+        File temp = new File(target.getPath() + ".tmp");
+        Files.createDirectories(target.getAbsoluteFile().getParentFile().toPath());
+        try (OutputStream fileOut = Files.newOutputStream(temp.toPath());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceLength);
+            out.writeLong(sourceLastModified);
+            out.writeInt(strings.size());
+            out.writeLong(stringTable);
+            out.writeInt(sheets.size());
+
+            for (CompiledSheet sheet : sheets) {
+                out.writeInt(sheet.nameId);
+                if (sheet.headerIds == null) {
+                    out.writeInt(-1);
+                    continue;
+                }
+                out.writeInt(sheet.headerIds.length);
+                for (int headerId : sheet.headerIds) {
+                    out.writeInt(headerId);
+                }
+                out.writeInt(sheet.rowCount);
+                out.writeLong(rowsStart + sheet.rowOffset);
+            }
+
+            rowBytes.writeTo(out);
+
+            List<byte[]> encoded = new ArrayList<>(strings.size());
+            int offset = 0;
+            out.writeInt(0);
+            for (String value : strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                offset += bytes.length;
+                out.writeInt(offset);
+            }
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        logger.info("Compiled test data snapshot {}: {} sheets, {} distinct strings", target, sheets.size(), strings.size());
+    }
+
+    private static int intern(String value, Map<String, Integer> ids, List<String> strings) {
+        String key = value == null ? "" : value;
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = strings.size();
+            ids.put(key, id);
+            strings.add(key);
+        }
+        return id;
+    }
+
+    /**
+     * Compile every workbook of a directory whose snapshot is missing or out of date.
+     * Run by the testdata-snapshot build profile before the tests
+     * @param args Workbook directory (src/test/resources/testdata) and snapshot directory
+     *             (target/testdata-snapshots)
+     */
+    public static void main(String[] args) throws IOException {
+        File sourceDir = new File(args.length > 0 ? args[0] : "src/test/resources/testdata");
+        File snapshotDir = new File(args.length > 1 ? args[1] : "target/testdata-snapshots");
+
+        File[] workbooks = sourceDir.listFiles((dir, name) -> name.endsWith(".xlsx") && !name.startsWith("~$"));
+        if (workbooks == null) {
+            logger.warn("No test data directory at: {}", sourceDir);
+            return;
+        }
+
+        for (File workbook : workbooks) {
+            File snapshotFile = snapshotFileFor(workbook, snapshotDir);
+            if (snapshotFile.isFile()) {
+                try {
+                    if (open(snapshotFile).isCurrent(workbook)) {
+                        logger.info("Snapshot up to date: {}", snapshotFile);
+                        continue;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Could not read test data snapshot {}, compiling it again: {}", snapshotFile, e.getMessage());
+                }
+            }
+            compile(workbook, snapshotFile);
+        }
+    }
+}
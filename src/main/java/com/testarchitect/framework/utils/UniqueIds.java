@@ -0,0 +1,60 @@
+package com.testarchitect.framework.utils;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Run-unique identifiers for generated emails and phone numbers. Inside a seeded test they are built
+ * from the test's sub-seed and a counter restarted for each test, so a rerun with the same run seed
+ * replays them exactly while different tests stay apart. Elsewhere each thread is given a worker id on
+ * first use and numbers its values with its own sequence, so concurrent workers never produce the same
+ * value without any coordination beyond the one-off worker id assignment. The two schemes have
+ * different shapes and never produce the same value.
+ */
+public class UniqueIds {
+    private static final AtomicInteger nextWorkerId = new AtomicInteger();
+    private static final ThreadLocal<Integer> workerId = ThreadLocal.withInitial(nextWorkerId::getAndIncrement);
+    private static final ThreadLocal<long[]> sequence = ThreadLocal.withInitial(() -> new long[1]);
+
+    /** Worker id of the current thread */
+    public static int workerId() {
+        return workerId.get();
+    }
+
+    /**
+     * Next unique token: {@code t<sub-seed in base 36>n<count>} in a seeded test, otherwise
+     * the worker id and sequence of the current thread, e.g. {@code w3s17}
+     */
+    public static String next() {
+        long[] seeded = DataSeed.nextSeededId();
+        if (seeded != null) {
+            return "t" + Long.toUnsignedString(seeded[0], 36) + "n" + seeded[1];
+        }
+        return "w" + workerId() + "s" + (++sequence.get()[0]);
+    }
+
+    /**
+     * Unique email built from a name, e.g. {@code jane.doe.w3s17@example.com}
+     */
+    public static String email(String firstName, String lastName) {
+        return localPart(firstName) + "." + localPart(lastName) + "." + next() + "@example.com";
+    }
+
+    /**
+     * Unique phone number: 555, then nine digits of the sub-seed and the test's count in a seeded test,
+     * e.g. {@code 555-481902736-01}, otherwise the worker id and the worker's sequence, e.g.
+     * {@code 555-003-000017}. The fixed-width groups are separated, so values stay distinct past the widths too
+     */
+    public static String phone() {
+        long[] seeded = DataSeed.nextSeededId();
+        if (seeded != null) {
+            return String.format("555-%09d-%02d", Long.remainderUnsigned(seeded[0], 1_000_000_000L), seeded[1]);
+        }
+        return String.format("555-%03d-%06d", workerId(), ++sequence.get()[0]);
+    }
+
+    private static String localPart(String name) {
+        String cleaned = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        return cleaned.isEmpty() ? "user" : cleaned;
+    }
+}
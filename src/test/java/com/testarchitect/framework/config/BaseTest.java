@@ -2,15 +2,26 @@ package com.testarchitect.framework.config;
 
 import com.codeborne.selenide.Configuration;
 import com.codeborne.selenide.logevents.SelenideLogger;
+import com.testarchitect.framework.driver.BrowserPool;
+import com.testarchitect.framework.driver.SessionCache;
+import com.testarchitect.framework.models.TestAccount;
+import com.testarchitect.framework.pages.BasePage;
+import com.testarchitect.framework.server.LocalStorefront;
+import com.testarchitect.framework.utils.AccountPool;
+import com.testarchitect.framework.utils.BillingDataPool;
+import com.testarchitect.framework.utils.DataSeed;
+import com.testarchitect.framework.utils.OrderFixtures;
 import io.qameta.allure.selenide.AllureSelenide;
-import org.openqa.selenium.firefox.FirefoxOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 
-import static com.codeborne.selenide.Selenide.closeWebDriver;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 
 /**
  * Base test class that sets up Selenide configuration and Allure integration
@@ -19,24 +30,97 @@ public class BaseTest {
     protected static final Logger logger = LoggerFactory.getLogger(BaseTest.class);
     protected ConfigManager config = ConfigManager.getInstance();
 
+    // One instance serves all worker threads, so per-test state is thread-local
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private static final ThreadLocal<AccountPool.Lease> accountLease = new ThreadLocal<>();
+
     @BeforeSuite(alwaysRun = true)
     public void setUpSuite() {
         logger.info("Setting up test suite configuration");
+        // Started before anything reads the app URL, including the order fixtures below
+        if (config.isLocalEnvironment()) {
+            startLocalStorefront();
+        }
         configureSelenide();
         configureAllure();
+        logger.info("Test data run seed: {}", DataSeed.getRunSeed());
+        // Order history fixtures are placed in the background while the first tests start their browsers
+        if (config.isOrderFixturesEnabled()) {
+            OrderFixtures.getInstance().prepare(AccountPool.getInstance());
+        }
     }
 
     @BeforeMethod(alwaysRun = true)
-    public void setUp() {
+    public void setUp(Method method, Object[] parameters) {
         logger.info("Starting test execution");
+        String testName = method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                + (parameters.length > 0 ? Arrays.toString(parameters) : "");
+        currentTest.set(testName);
+        // Seeded by test identity, not by thread or order, so a rerun with the same run seed replays the data;
+        // data.seeded=false leaves the test unseeded
+        DataSeed.beginTest(testName);
+        // Selenide listeners are thread-local, so parallel workers need their own registration
+        if (!SelenideLogger.hasListener("AllureSelenide")) {
+            configureAllure();
+        }
+        BrowserPool.getInstance().acquire();
     }
 
     @AfterMethod(alwaysRun = true)
-    public void tearDown() {
+    public void tearDown(ITestResult result) {
         logger.info("Cleaning up after test execution");
-        closeWebDriver();
+        DataSeed.endTest();
+        AccountPool.Lease lease = accountLease.get();
+        if (lease != null) {
+            accountLease.remove();
+            lease.close();
+        }
+        BrowserPool.getInstance().release(!result.isSuccess());
+    }
+
+    /**
+     * Account leased for the exclusive use of the current test, taken from the pool on first call
+     * and returned after the test
+     */
+    protected TestAccount account() {
+        AccountPool.Lease lease = accountLease.get();
+        if (lease == null) {
+            lease = AccountPool.getInstance().lease(currentTest.get());
+            accountLease.set(lease);
+        }
+        return lease.getAccount();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() {
+        logger.info("Popup checks: {} requested, {} skipped on already cleaned documents, {} redundant probes",
+                BasePage.getPopupCheckCount(), BasePage.getSkippedPopupCheckCount(), BasePage.getRedundantPopupProbeCount());
+        SessionCache sessions = SessionCache.getInstance();
+        logger.info("Login sessions: {} logins, {} restored from cache, {} re-logins",
+                sessions.getLoginCount(), sessions.getRestoreCount(), sessions.getReloginCount());
+        BrowserPool.getInstance().shutdown();
+        BillingDataPool.shutdown();
+        AccountPool.shutdown();
+        OrderFixtures.shutdown();
+        LocalStorefront.shutdown();
+    }
+
+    /**
+     * Start the local stand-in storefront. It listens on the loopback interface of this JVM, which
+     * browsers on Selenium Grid nodes cannot reach
+     */
+    private void startLocalStorefront() {
+        if (config.isGridEnabled()) {
+            throw new RuntimeException("environment=local cannot be combined with grid.enabled: Grid browsers "
+                    + "cannot reach the local storefront on 127.0.0.1 of the test JVM");
+        }
+        logger.info("Local storefront started at {}", LocalStorefront.getInstance().getBaseUrl());
     }
 
+    /**
+     * Configure suite-wide Selenide settings. Browser capabilities are no longer written to the
+     * static Configuration: every worker thread starts its own browser through the BrowserPool.
+     */
     private void configureSelenide() {
         logger.info("Configuring Selenide settings");
         
@@ -45,31 +129,11 @@ public class BaseTest {
         Configuration.headless = config.isHeadless();
         Configuration.browserSize = config.getBrowserSize();
         Configuration.timeout = config.getTimeout();
+        Configuration.pageLoadTimeout = config.getPageLoadTimeout();
         
         // Firefox specific configuration
         if ("firefox".equalsIgnoreCase(config.getBrowser())) {
-            String firefoxBinary = config.getFirefoxBinaryPath();
-            if (firefoxBinary != null && !firefoxBinary.isEmpty()) {
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                firefoxOptions.setBinary(firefoxBinary);
-                // Add additional Firefox preferences for better compatibility
-                firefoxOptions.addPreference("browser.startup.page", 0);
-                firefoxOptions.addPreference("browser.startup.homepage_override.mstone", "ignore");
-                firefoxOptions.addPreference("browser.usedOnWindows10", false);
-                firefoxOptions.addPreference("dom.disable_beforeunload", true);
-                firefoxOptions.addPreference("network.http.max-connections", 200);
-                firefoxOptions.addPreference("network.http.max-connections-per-server", 20);
-                firefoxOptions.addPreference("dom.max_script_run_time", 0);
-                firefoxOptions.addPreference("dom.max_chrome_script_run_time", 0);
-                firefoxOptions.addPreference("browser.cache.disk.enable", false);
-                firefoxOptions.addPreference("browser.cache.memory.enable", false);
-                firefoxOptions.addPreference("browser.cache.offline.enable", false);
-                firefoxOptions.addPreference("network.http.use-cache", false);
-                Configuration.browserCapabilities = firefoxOptions;
-                Configuration.pageLoadTimeout = 120000; // 2 minutes
-                Configuration.timeout = 60000; // 60 seconds
-                logger.info("Firefox binary path set to: {}", firefoxBinary);
-            }
+            Configuration.timeout = 60000; // 60 seconds
         }
         
         // Additional Selenide configurations
@@ -0,0 +1,42 @@
+package com.testarchitect.framework.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Applies the configured parallel mode and thread count to every suite before it runs,
+ * so parallelism can be switched with -Dparallel.mode / -Dparallel.thread.count.
+ * Parallel DataProviders get at most one thread per pooled browser.
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelSuiteListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        ConfigManager config = ConfigManager.getInstance();
+        XmlSuite.ParallelMode parallelMode = XmlSuite.ParallelMode.getValidParallel(config.getParallelMode());
+        int threadCount = config.getThreadCount();
+        int dataProviderThreadCount = Math.min(config.getDataProviderThreadCount(), config.getBrowserPoolSize());
+
+        for (XmlSuite suite : suites) {
+            if (parallelMode != XmlSuite.ParallelMode.NONE) {
+                suite.setParallel(parallelMode);
+                suite.setThreadCount(threadCount);
+            }
+            suite.setDataProviderThreadCount(dataProviderThreadCount);
+            logger.info("Suite '{}' running with parallel mode: {}, thread count: {}, data provider threads: {}, browser pool size: {}",
+                    suite.getName(), suite.getParallel(), suite.getThreadCount(), suite.getDataProviderThreadCount(),
+                    config.getBrowserPoolSize());
+        }
+
+        int accounts = config.getTestAccounts().size();
+        if (accounts < config.getBrowserPoolSize()) {
+            logger.warn("Only {} test accounts for {} browsers: tests logging in will wait for an account; add accounts to accounts.pool",
+                    accounts, config.getBrowserPoolSize());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.testarchitect.framework.config;
+
+import com.testarchitect.framework.data.TestDataSources;
+import com.testarchitect.framework.models.TestCaseData;
+import com.testarchitect.framework.utils.CoverageMatrix;
+import io.qameta.allure.TmsLink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.DataProvider;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * DataProviders feeding {@link TestCaseData} rows from {@code testdata.file} to the test methods.
+ * The rows of a method are those whose TestCaseID matches its {@code @TmsLink}; they are read lazily,
+ * one row per invocation. The parallel provider runs invocations on TestNG's data provider threads,
+ * which {@link ParallelSuiteListener} caps at the browser pool size. The checkout matrix provider
+ * combines a test case row with the rows of a {@link CoverageMatrix}.
+ */
+public class TestDataProviders {
+    private static final Logger logger = LoggerFactory.getLogger(TestDataProviders.class);
+
+    /**
+     * Rows of the test case, run one after another
+     */
+    @DataProvider(name = "testCase")
+    public static Iterator<Object[]> testCase(Method method) {
+        return rowsFor(method);
+    }
+
+    /**
+     * Rows of the test case, e.g. payment and billing permutations, fanned out across the browser pool
+     */
+    @DataProvider(name = "testCaseParallel", parallel = true)
+    public static Iterator<Object[]> testCaseParallel(Method method) {
+        return rowsFor(method);
+    }
+
+    /**
+     * Payment method x billing profile x country/state x cart size, covering every pair of values
+     * ({@code matrix.strength}) in a fraction of the full cross product, in parallel
+     */
+    @DataProvider(name = "checkoutMatrix", parallel = true)
+    public static Iterator<Object[]> checkoutMatrix(Method method) {
+        Iterator<Object[]> testCases = rowsFor(method);
+        TestCaseData testCase = (TestCaseData) testCases.next()[0];
+
+        CoverageMatrix matrix = checkoutMatrix();
+        Iterator<Map<String, String>> rows = matrix.rows(ConfigManager.getInstance().getMatrixStrength()).iterator();
+        logger.info("{} for {}", matrix.getReport(), testCase.getTestCaseId());
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{testCase.with(rows.next())};
+            }
+        };
+    }
+
+    /**
+     * Dimensions of the checkout matrix; states are only combined with their own country
+     */
+    public static CoverageMatrix checkoutMatrix() {
+        return new CoverageMatrix()
+                .dimension("PaymentMethod", "Direct Bank Transfer", "Cash on Delivery", "Credit Card")
+                .dimension("BillingProfile", "US", "TestUser", "VIP", "Minimal")
+                .dimension("Country", "US", "CA", "GB", "DE")
+                .dimension("State", "CA", "NY", "TX", "ON", "BC", "")
+                .dimension("CartItems", "1", "2")
+                .restrict("Country", "US", "State", "CA", "NY", "TX")
+                .restrict("Country", "CA", "State", "ON", "BC")
+                .restrict("Country", "GB", "State", "")
+                .restrict("Country", "DE", "State", "");
+    }
+
+    private static Iterator<Object[]> rowsFor(Method method) {
+        TmsLink link = method.getAnnotation(TmsLink.class);
+        if (link == null) {
+            throw new RuntimeException("Test method " + method.getName() + " needs @TmsLink to select its test data");
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        return rows(config.getTestDataFile(), config.getTestDataSet(), link.value());
+    }
+
+    /**
+     * Rows with the given TestCaseID as a lazy iterator of {@link TestCaseData}
+     * @param filePath Path to the data file
+     * @param dataset Sheet or dataset name; null where the file holds one dataset
+     * @param testCaseId TestCaseID to select
+     * @throws RuntimeException if the file has no row with the TestCaseID, so the test is not silently skipped
+     */
+    public static Iterator<Object[]> rows(String filePath, String dataset, String testCaseId) {
+        Iterator<Map<String, String>> rows = TestDataSources.rows(filePath, dataset);
+        return new Iterator<Object[]>() {
+            private int count;
+            private Map<String, String> nextRow = advance();
+
+            private Map<String, String> advance() {
+                while (rows.hasNext()) {
+                    Map<String, String> row = rows.next();
+                    if (testCaseId.equals(row.get("TestCaseID"))) {
+                        count++;
+                        return row;
+                    }
+                }
+                if (count == 0) {
+                    throw new RuntimeException("No test data rows with TestCaseID " + testCaseId + " in " + filePath
+                            + (dataset != null ? " dataset " + dataset : ""));
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextRow != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (nextRow == null) {
+                    throw new NoSuchElementException();
+                }
+                TestCaseData testCase = new TestCaseData(nextRow);
+                nextRow = advance();
+                return new Object[]{testCase};
+            }
+        };
+    }
+}
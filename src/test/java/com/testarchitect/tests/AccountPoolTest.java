@@ -0,0 +1,153 @@
+package com.testarchitect.tests;
+
+import com.testarchitect.framework.models.TestAccount;
+import com.testarchitect.framework.utils.AccountPool;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test class to verify leasing from the test account pool
+ */
+public class AccountPoolTest {
+
+    private static List<TestAccount> accounts(int count) {
+        List<TestAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            accounts.add(TestAccount.parse("user" + i + "@test.com:secret:" + i));
+        }
+        return accounts;
+    }
+
+    @Test
+    public void testAccountsAreLeasedExclusively() throws Exception {
+        AccountPool pool = new AccountPool(accounts(3), 10000, 60000, false);
+        Set<TestAccount> inUse = ConcurrentHashMap.newKeySet();
+        AtomicInteger maxInUse = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int worker = i;
+                workers.add(executor.submit(() -> {
+                    for (int j = 0; j < 20; j++) {
+                        try (AccountPool.Lease lease = pool.lease("worker-" + worker)) {
+                            Assert.assertTrue(inUse.add(lease.getAccount()), "Account leased twice");
+                            maxInUse.accumulateAndGet(inUse.size(), Math::max);
+                            Thread.sleep(1);
+                            inUse.remove(lease.getAccount());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertTrue(maxInUse.get() <= 3);
+        Assert.assertEquals(pool.getLeaseCount(), 160);
+        Assert.assertEquals(pool.getAvailableCount(), 3);
+        Assert.assertEquals(accounts(1).get(0).getPassword(), "secret:0");
+    }
+
+    @Test
+    public void testWaitersAreServedInArrivalOrder() throws Exception {
+        AccountPool pool = new AccountPool(accounts(1), 10000, 60000, false);
+        AccountPool.Lease first = pool.lease("first");
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> waiters = new ArrayList<>();
+            for (String name : Arrays.asList("a", "b", "c")) {
+                CountDownLatch started = new CountDownLatch(1);
+                waiters.add(executor.submit(() -> {
+                    started.countDown();
+                    try (AccountPool.Lease lease = pool.lease(name)) {
+                        order.add(lease.getHolder());
+                    }
+                }));
+                started.await();
+                // Let the waiter reach the queue before the next one arrives
+                Thread.sleep(100);
+            }
+            first.close();
+            for (Future<?> waiter : waiters) {
+                waiter.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(order, Arrays.asList("a", "b", "c"));
+        Assert.assertTrue(pool.getMaxWaitMs() >= 100, pool.getReport());
+    }
+
+    @Test
+    public void testLeaseTimesOut() {
+        AccountPool pool = new AccountPool(accounts(1), 200, 60000, false);
+        AccountPool.Lease lease = pool.lease("holder");
+
+        Assert.assertThrows(RuntimeException.class, () -> pool.lease("waiter"));
+        Assert.assertEquals(pool.getTimeoutCount(), 1);
+
+        lease.close();
+        lease.close();
+        Assert.assertEquals(pool.getAvailableCount(), 1);
+    }
+
+    @Test
+    public void testLeakedLeaseIsReclaimed() throws Exception {
+        AccountPool pool = new AccountPool(accounts(1), 5000, 100, true);
+        AtomicReference<AccountPool.Lease> lease = new AtomicReference<>();
+        Thread forgetful = new Thread(() -> lease.set(pool.lease("forgetful test")));
+        forgetful.start();
+        forgetful.join();
+        AccountPool.Lease leaked = lease.get();
+
+        // The background check reclaims the account once the lease is older than 100 ms and its thread has ended
+        AccountPool.Lease next = pool.lease("next test");
+
+        Assert.assertSame(next.getAccount(), leaked.getAccount());
+        Assert.assertEquals(pool.getLeakCount(), 1);
+
+        // Returning the reclaimed lease must not hand the account out twice
+        leaked.close();
+        Assert.assertEquals(pool.getAvailableCount(), 0);
+        next.close();
+        Assert.assertEquals(pool.getAvailableCount(), 1);
+    }
+
+    @Test
+    public void testLeaseOfRunningThreadIsOnlyReported() {
+        AccountPool pool = new AccountPool(accounts(1), 1500, 100, true);
+        AccountPool.Lease slow = pool.lease("slow test");
+
+        // The holder is still running, so the account stays with it
+        Assert.assertThrows(RuntimeException.class, () -> pool.lease("next test"));
+        Assert.assertEquals(pool.detectLeaks().size(), 1);
+        Assert.assertEquals(pool.getLeakCount(), 1);
+        Assert.assertEquals(pool.getAvailableCount(), 0);
+
+        slow.close();
+        Assert.assertEquals(pool.getAvailableCount(), 1);
+    }
+}
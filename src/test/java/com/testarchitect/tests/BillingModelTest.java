@@ -2,8 +2,21 @@ package com.testarchitect.tests;
 
 import com.testarchitect.framework.models.BillingInfo;
 import com.testarchitect.framework.utils.BillingDataFactory;
+import com.testarchitect.framework.utils.BillingDataPool;
+import com.testarchitect.framework.utils.DataSeed;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * Test class to demonstrate BillingInfo model usage
  */
@@ -32,4 +45,137 @@ public class BillingModelTest {
         BillingInfo vipBilling = BillingDataFactory.createVipCustomerBilling();
         System.out.println(vipBilling);
     }
+
+    @Test
+    public void testPooledBillingIsHandedOutOnceAcrossThreads() throws Exception {
+        BillingDataPool pool = BillingDataPool.getInstance();
+        long taken = pool.getHitCount() + pool.getMissCount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Set<BillingInfo> handedOut = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                workers.add(executor.submit(() -> {
+                    for (int j = 0; j < 250; j++) {
+                        BillingInfo billingInfo = BillingDataFactory.createUSBilling();
+                        Assert.assertNotNull(billingInfo.getEmail());
+                        Assert.assertTrue(handedOut.add(billingInfo), "Entry handed out twice");
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(handedOut.size(), 1000);
+        Assert.assertEquals(pool.getHitCount() + pool.getMissCount() - taken, 1000);
+        // Every entry handed out was generated once, by a filler or on a miss
+        long hitCount = pool.getHitCount();
+        long missCount = pool.getMissCount();
+        Assert.assertTrue(pool.getGeneratedCount() >= hitCount + missCount,
+                pool.getGeneratedCount() + " generated for " + (hitCount + missCount) + " taken");
+        Assert.assertEquals(pool.getHitRate(), (double) hitCount / (hitCount + missCount), 1e-9);
+    }
+
+    @Test
+    public void testUnseededTestsTakeBillingFromThePool() {
+        BillingDataPool pool = BillingDataPool.getInstance();
+        System.setProperty("data.seeded", "false");
+        try {
+            long taken = pool.getHitCount() + pool.getMissCount();
+            Assert.assertEquals(DataSeed.beginTest("BillingModelTest.unseeded"), 0);
+            Assert.assertNull(DataSeed.seededFaker());
+            BillingDataFactory.createUSBilling();
+            BillingInfo.createRandom();
+            Assert.assertEquals(pool.getHitCount() + pool.getMissCount() - taken, 2);
+        } finally {
+            System.clearProperty("data.seeded");
+            DataSeed.endTest();
+        }
+    }
+
+    @Test
+    public void testSeededBillingReplaysPerTest() {
+        try {
+            DataSeed.beginTest("BillingModelTest.replay[TC_03]");
+            BillingInfo first = BillingDataFactory.createUSBilling();
+            DataSeed.beginTest("BillingModelTest.other");
+            BillingInfo other = BillingDataFactory.createUSBilling();
+            DataSeed.beginTest("BillingModelTest.replay[TC_03]");
+            BillingInfo replayed = BillingDataFactory.createUSBilling();
+
+            Assert.assertEquals(replayed.getFullName(), first.getFullName());
+            Assert.assertEquals(replayed.getAddress(), first.getAddress());
+            Assert.assertEquals(replayed.getZip(), first.getZip());
+            Assert.assertNotEquals(other.getAddress() + other.getFullName(), first.getAddress() + first.getFullName());
+            // Emails and phones come from the test's seed too, so the replay is exact
+            Assert.assertEquals(replayed.getEmail(), first.getEmail());
+            Assert.assertEquals(replayed.getPhone(), first.getPhone());
+            Assert.assertNotEquals(other.getEmail(), first.getEmail());
+            Assert.assertNotEquals(other.getPhone(), first.getPhone());
+        } finally {
+            DataSeed.endTest();
+        }
+    }
+
+    @Test
+    public void testProfileBillingIsSeededAndUnique() {
+        try {
+            DataSeed.beginTest("BillingModelTest.vip[TC_09]");
+            BillingInfo first = BillingDataFactory.createVipCustomerBilling();
+            BillingInfo random = BillingInfo.createRandom();
+            DataSeed.beginTest("BillingModelTest.vip[TC_09]");
+            BillingInfo replayed = BillingDataFactory.createVipCustomerBilling();
+
+            Assert.assertEquals(replayed.getAddress(), first.getAddress());
+            Assert.assertEquals(replayed.getCity(), first.getCity());
+            Assert.assertEquals(replayed.getPhone(), first.getPhone());
+            Assert.assertNotEquals(random.getPhone(), first.getPhone());
+            // BillingInfo.createRandom() goes through the same generator as createUSBilling()
+            Assert.assertTrue(random.getEmail().matches(".+\\.t[0-9a-z]+n\\d+@.+"), random.getEmail());
+        } finally {
+            DataSeed.endTest();
+        }
+    }
+
+    @Test
+    public void testUniqueEmailsAndPhonesAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<String> emails = Collections.synchronizedSet(new HashSet<>());
+        Set<String> phones = Collections.synchronizedSet(new HashSet<>());
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                // Half the workers run seeded tests, the others take unseeded entries from the pool
+                boolean seeded = i % 2 == 0;
+                String testName = "BillingModelTest.worker[" + i + "]";
+                workers.add(executor.submit(() -> {
+                    if (seeded) {
+                        DataSeed.beginTest(testName);
+                    }
+                    try {
+                        for (int j = 0; j < 500; j++) {
+                            BillingInfo billingInfo = BillingDataFactory.createUSBilling();
+                            Assert.assertTrue(emails.add(billingInfo.getEmail()), "Duplicate email " + billingInfo.getEmail());
+                            Assert.assertTrue(phones.add(billingInfo.getPhone()), "Duplicate phone " + billingInfo.getPhone());
+                        }
+                    } finally {
+                        DataSeed.endTest();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(emails.size(), 4000);
+        Assert.assertEquals(phones.size(), 4000);
+    }
 }
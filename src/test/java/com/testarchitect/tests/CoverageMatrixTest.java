@@ -0,0 +1,111 @@
+package com.testarchitect.tests;
+
+import com.testarchitect.framework.config.TestDataProviders;
+import com.testarchitect.framework.utils.CoverageMatrix;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test class to verify the covering arrays generated for test matrices
+ */
+public class CoverageMatrixTest {
+
+    @Test
+    public void testCheckoutMatrixCoversEveryValidPair() {
+        CoverageMatrix matrix = TestDataProviders.checkoutMatrix();
+        List<Map<String, String>> rows = matrix.rows(2);
+
+        Set<String> covered = new HashSet<>();
+        for (Map<String, String> row : rows) {
+            assertValidRegion(row);
+            covered.addAll(tuples(row, 2));
+        }
+
+        // Every pair that occurs in some valid full row must be covered
+        Set<String> required = new HashSet<>();
+        for (String payment : Arrays.asList("Direct Bank Transfer", "Cash on Delivery", "Credit Card")) {
+            for (String profile : Arrays.asList("US", "TestUser", "VIP", "Minimal")) {
+                for (String[] region : new String[][]{{"US", "CA"}, {"US", "NY"}, {"US", "TX"}, {"CA", "ON"}, {"CA", "BC"}, {"GB", ""}, {"DE", ""}}) {
+                    for (String cartItems : Arrays.asList("1", "2")) {
+                        Map<String, String> row = new LinkedHashMap<>();
+                        row.put("PaymentMethod", payment);
+                        row.put("BillingProfile", profile);
+                        row.put("Country", region[0]);
+                        row.put("State", region[1]);
+                        row.put("CartItems", cartItems);
+                        required.addAll(tuples(row, 2));
+                    }
+                }
+            }
+        }
+        Assert.assertTrue(covered.containsAll(required), "Uncovered pairs");
+
+        Assert.assertEquals(matrix.fullSize(), 168);
+        Assert.assertTrue(matrix.getReductionFactor() >= 5, matrix.getReport());
+        Assert.assertEquals(matrix.rows(2), rows, "Generation must be repeatable");
+        Assert.assertThrows(UnsupportedOperationException.class, () -> rows.get(0).put("State", "XX"));
+    }
+
+    @Test
+    public void testThreeWayMatrixCoversEveryTriple() {
+        CoverageMatrix matrix = new CoverageMatrix();
+        for (int d = 0; d < 6; d++) {
+            matrix.dimension("D" + d, "a", "b", "c");
+        }
+        List<Map<String, String>> rows = matrix.rows(3);
+
+        Set<String> covered = new HashSet<>();
+        for (Map<String, String> row : rows) {
+            covered.addAll(tuples(row, 3));
+        }
+        // 20 dimension triples with 27 value triples each
+        Assert.assertEquals(covered.size(), 20 * 27);
+        Assert.assertTrue(rows.size() < 729 / 5, matrix.getReport());
+    }
+
+    @Test
+    public void testStrengthIsCappedAtDimensionCount() {
+        CoverageMatrix matrix = new CoverageMatrix().dimension("A", "1", "2").dimension("B", "x", "y", "z");
+        Assert.assertEquals(matrix.rows(5).size(), 6);
+        Assert.assertEquals(matrix.getReductionFactor(), 1.0);
+    }
+
+    private static void assertValidRegion(Map<String, String> row) {
+        switch (row.get("Country")) {
+            case "US":
+                Assert.assertTrue(Arrays.asList("CA", "NY", "TX").contains(row.get("State")), row.toString());
+                break;
+            case "CA":
+                Assert.assertTrue(Arrays.asList("ON", "BC").contains(row.get("State")), row.toString());
+                break;
+            default:
+                Assert.assertEquals(row.get("State"), "", row.toString());
+                break;
+        }
+    }
+
+    private static List<String> tuples(Map<String, String> row, int strength) {
+        List<String> keys = new ArrayList<>(row.keySet());
+        List<String> result = new ArrayList<>();
+        collect(row, keys, strength, 0, "", result);
+        return result;
+    }
+
+    private static void collect(Map<String, String> row, List<String> keys, int remaining, int start, String prefix, List<String> result) {
+        if (remaining == 0) {
+            result.add(prefix);
+            return;
+        }
+        for (int i = start; i < keys.size(); i++) {
+            collect(row, keys, remaining - 1, i + 1, prefix + keys.get(i) + "=" + row.get(keys.get(i)) + ";", result);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.testarchitect.tests;
 
 import com.testarchitect.framework.config.BaseTest;
+import com.testarchitect.framework.config.TestDataProviders;
+import com.testarchitect.framework.models.BillingInfo;
+import com.testarchitect.framework.models.TestCaseData;
 import com.testarchitect.framework.pages.*;
+import com.testarchitect.framework.utils.BillingDataFactory;
+import com.testarchitect.framework.utils.OrderFixtures;
 import io.qameta.allure.*;
 import org.testng.annotations.Test;
 
+import java.util.List;
+
 /**
  * E-commerce test scenarios
  */
@@ -12,17 +19,17 @@ import org.testng.annotations.Test;
 @Feature("Shopping Cart and Checkout Functionality")
 public class EcommerceTests extends BaseTest {
 
-    @Test
+    @Test(dataProvider = "testCase", dataProviderClass = TestDataProviders.class)
     @Story("User Registration and Login")
     @Severity(SeverityLevel.CRITICAL)
     @Description("TC_01: Verify users can buy an item successfully")
     @TmsLink("TC_01")
-    public void testUserCanBuyItemSuccessfully() {
+    public void testUserCanBuyItemSuccessfully(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_01";
-        String testDescription = "Verify users can buy an item successfully";
-        String precondition = "Register a valid account";
-        String expectedResult = "Order confirmation message show correctly";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
+        String precondition = testCase.getPrecondition();
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -42,13 +49,10 @@ public class EcommerceTests extends BaseTest {
         CartPage cartPage;
         CheckoutPage checkoutPage;
         
-        // Step 1: Open browser and go to URL
+        // Step 1-2: Open browser, go to URL and log in; later tests reuse the cached session
         logger.info("Step 1: Opening browser and navigating to: {}", config.getAppUrl());
-        loginPage.openLoginPage(config.getAppUrl());
-        
-        // Step 2: Login with valid credentials
         logger.info("Step 2: Logging in with valid credentials");
-        loginPage.loginWith("validuser@test.com", "password123");
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
         
         // Step 3: Navigate to All departments section
         logger.info("Step 3: Navigating to All departments section");
@@ -120,17 +124,17 @@ public class EcommerceTests extends BaseTest {
         logger.info("=== Test Case {} completed successfully ===", testCaseId);
     }
 
-    @Test
+    @Test(dataProvider = "testCase", dataProviderClass = TestDataProviders.class)
     @Story("Shopping Cart Management")
     @Severity(SeverityLevel.NORMAL)
     @Description("TC_02: Verify users can buy multiple items successfully")
     @TmsLink("TC_02")
-    public void testUserCanBuyMultipleItemsSuccessfully() {
+    public void testUserCanBuyMultipleItemsSuccessfully(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_02";
-        String testDescription = "Verify users can buy multiple items successfully";
-        String precondition = "User has valid account and can access product catalog";
-        String expectedResult = "Multiple items order is processed successfully";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
+        String precondition = testCase.getPrecondition();
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -149,21 +153,18 @@ public class EcommerceTests extends BaseTest {
         
         // Login and navigate to shop
         logger.info("Step 1: Opening browser and logging in");
-        loginPage.openLoginPage(config.getAppUrl());
-        loginPage.loginWith("validuser@test.com", "password123");
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
         
         logger.info("Step 2: Verifying user login and navigation");
         homePage = new HomePage();
         homePage.verifyUserLoggedIn();
         
-        // Select multiple items and add to cart
+        // Add multiple items to the cart over HTTP and go straight to it
         logger.info("Step 3: Adding multiple items to cart");
-        homePage.addItemToCart(0);
-        homePage.addItemToCart(1);
+        cartPage = new CartPage().seedAndOpen(config.getAppUrl(), 2, 1);
         
-        // Go to cart and verify all selected items are present
+        // Verify all selected items are present
         logger.info("Step 4: Verifying multiple items in cart");
-        cartPage = homePage.goToCart();
         cartPage.verifyItemsInCart();
         
         // Proceed to checkout
@@ -183,17 +184,17 @@ public class EcommerceTests extends BaseTest {
         logger.info("=== Test Case {} completed successfully ===", testCaseId);
     }
 
-    @Test
+    @Test(dataProvider = "testCaseParallel", dataProviderClass = TestDataProviders.class)
     @Story("Payment Processing")
     @Severity(SeverityLevel.CRITICAL)
     @Description("TC_03: Verify users can buy an item using different payment methods")
     @TmsLink("TC_03")
-    public void testUserCanBuyItemWithCreditCardPayment() {
+    public void testUserCanBuyItemWithDifferentPaymentMethods(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_03";
-        String testDescription = "Verify users can buy an item using Credit Card payment method";
-        String paymentMethod = "Credit Card";
-        String expectedResult = "Payment is processed successfully with Credit Card";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
+        String paymentMethod = testCase.getPaymentMethod();
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -213,8 +214,7 @@ public class EcommerceTests extends BaseTest {
         
         // Login and add item to cart
         logger.info("Step 1: Login and item selection");
-        loginPage.openLoginPage(config.getAppUrl());
-        loginPage.loginWith("validuser@test.com", "password123");
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
         
         logger.info("Step 2: Adding item to cart");
         homePage = new HomePage();
@@ -225,7 +225,7 @@ public class EcommerceTests extends BaseTest {
         cartPage = homePage.goToCart();
         checkoutPage = cartPage.proceedToCheckout();
         
-        // Choose Credit Card payment method
+        // Choose the payment method of this row
         logger.info("Step 4: Selecting {} payment method", paymentMethod);
         checkoutPage.choosePaymentMethod(paymentMethod);
         checkoutPage.completePaymentProcess();
@@ -237,16 +237,73 @@ public class EcommerceTests extends BaseTest {
         logger.info("=== Test Case {} completed successfully ===", testCaseId);
     }
 
-    @Test
+    @Test(dataProvider = "checkoutMatrix", dataProviderClass = TestDataProviders.class)
+    @Story("Payment Processing")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("TC_11: Verify checkout across payment methods, billing profiles, countries and cart sizes")
+    @TmsLink("TC_11")
+    public void testCheckoutAcrossPaymentAndBillingMatrix(TestCaseData testCase) {
+        // Test Details
+        String testCaseId = testCase.getTestCaseId();
+        String paymentMethod = testCase.getPaymentMethod();
+        String billingProfile = testCase.get("BillingProfile");
+        String country = testCase.get("Country");
+        String state = testCase.get("State");
+        int cartItems = Integer.parseInt(testCase.get("CartItems"));
+        
+        // Add Allure parameters for reporting
+        Allure.parameter("Test Case ID", testCaseId);
+        Allure.parameter("Payment Method", paymentMethod);
+        Allure.parameter("Billing Profile", billingProfile);
+        Allure.parameter("Country", country);
+        Allure.parameter("State", state);
+        Allure.parameter("Cart Items", cartItems);
+        
+        // Log test start
+        logger.info("=== Starting Test Case: {} ===", testCase);
+        
+        LoginPage loginPage = new LoginPage();
+        HomePage homePage;
+        CartPage cartPage;
+        CheckoutPage checkoutPage;
+        
+        logger.info("Step 1: Logging in");
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
+        
+        homePage = new HomePage();
+        homePage.verifyUserLoggedIn();
+        
+        // Add the row's items to the cart over HTTP and go straight to it
+        logger.info("Step 2: Adding {} items to cart", cartItems);
+        cartPage = new CartPage().seedAndOpen(config.getAppUrl(), cartItems, 1);
+        
+        logger.info("Step 3: Proceeding to checkout");
+        checkoutPage = cartPage.proceedToCheckout();
+        
+        logger.info("Step 4: Filling {} billing details for {} {}", billingProfile, country, state);
+        BillingInfo billingInfo = BillingDataFactory.createProfile(billingProfile).withRegion(country, state);
+        checkoutPage.fillBillingDetails(billingInfo);
+        
+        logger.info("Step 5: Paying with {}", paymentMethod);
+        checkoutPage.choosePaymentMethod(paymentMethod);
+        checkoutPage.clickPlaceOrder();
+        
+        logger.info("Step 6: Verifying order confirmation");
+        checkoutPage.verifyOrderConfirmationMessage();
+        
+        logger.info("=== Test Case {} completed successfully ===", testCase);
+    }
+
+    @Test(dataProvider = "testCase", dataProviderClass = TestDataProviders.class)
     @Story("Product Sorting")
     @Severity(SeverityLevel.NORMAL)
     @Description("TC_04: Verify users can sort items by price")
     @TmsLink("TC_04")
-    public void testUserCanSortItemsByPrice() {
+    public void testUserCanSortItemsByPrice(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_04";
-        String testDescription = "Verify users can sort items by price";
-        String expectedResult = "Items are sorted correctly by price";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -262,8 +319,7 @@ public class EcommerceTests extends BaseTest {
         
         // Login and navigate to products
         logger.info("Step 1: Opening browser and logging in");
-        loginPage.openLoginPage(config.getAppUrl());
-        loginPage.loginWith("validuser@test.com", "password123");
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
         
         logger.info("Step 2: Verifying user login and navigating to products");
         homePage = new HomePage();
@@ -280,17 +336,17 @@ public class EcommerceTests extends BaseTest {
         logger.info("=== Test Case {} completed successfully ===", testCaseId);
     }
 
-    @Test
+    @Test(dataProvider = "testCase", dataProviderClass = TestDataProviders.class)
     @Story("Order History")
     @Severity(SeverityLevel.NORMAL)
     @Description("TC_05: Verify orders appear in order history")
     @TmsLink("TC_05")
-    public void testOrdersAppearInOrderHistory() {
+    public void testOrdersAppearInOrderHistory(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_05";
-        String testDescription = "Verify orders appear in order history";
-        String precondition = "User with existing orders";
-        String expectedResult = "Order history displays previous orders correctly";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
+        String precondition = testCase.getPrecondition();
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -306,10 +362,13 @@ public class EcommerceTests extends BaseTest {
         LoginPage loginPage = new LoginPage();
         OrderStatusPage orderStatusPage;
         
+        // Orders placed for the leased account over HTTP at suite start
+        List<String> orderIds = OrderFixtures.getInstance().getOrderIds(account());
+        Allure.parameter("Order IDs", orderIds);
+        
         // Login with user who has placed orders
-        logger.info("Step 1: Logging in with user who has existing orders");
-        loginPage.openLoginPage(config.getAppUrl());
-        loginPage.loginWith("userWithOrders@test.com", "password123");
+        logger.info("Step 1: Logging in with user who has orders {}", orderIds);
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
         
         // Navigate to My Account page
         logger.info("Step 2: Navigating to My Account page");
@@ -320,9 +379,9 @@ public class EcommerceTests extends BaseTest {
         logger.info("Step 3: Navigating to Orders section");
         orderStatusPage = myAccountPage.navigateToOrders();
         
-        // Verify order details
+        // Verify the placed orders are listed
         logger.info("Step 4: Verifying order details in history");
-        orderStatusPage.verifyOrderDetailsInHistory();
+        orderStatusPage.verifyOrderInHistory(orderIds);
         
         logger.info("=== Test Case {} completed successfully ===", testCaseId);
     }
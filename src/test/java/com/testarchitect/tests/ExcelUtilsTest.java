@@ -0,0 +1,187 @@
+package com.testarchitect.tests;
+
+import com.testarchitect.framework.utils.ExcelDataCreator;
+import com.testarchitect.framework.utils.ExcelSheetCache;
+import com.testarchitect.framework.utils.ExcelUtils;
+import com.testarchitect.framework.utils.TestDataSnapshot;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class to verify the Excel test data readers and their cache
+ */
+public class ExcelUtilsTest {
+    private File workbookFile;
+
+    @BeforeClass
+    public void createWorkbook() throws IOException {
+        workbookFile = Files.createTempFile("testdata", ".xlsx").toFile();
+
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("TestCases");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+            Row header = sheet.createRow(0);
+            String[] headers = {"TestCaseID", "TestDescription", "Quantity", "Active", "CreatedOn"};
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+
+            for (int i = 1; i <= 50; i++) {
+                // Leave a gap to check that empty rows are skipped
+                if (i == 10) {
+                    continue;
+                }
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(String.format("TC_%02d", i));
+                // Leave some descriptions blank to check missing cells
+                if (i % 7 != 0) {
+                    row.createCell(1).setCellValue("Description " + (i % 5));
+                }
+                row.createCell(2).setCellValue(i * 3);
+                row.createCell(3).setCellValue(i % 2 == 0);
+                Cell date = row.createCell(4);
+                date.setCellValue(new Date(1700000000000L + i * 86400000L));
+                date.setCellStyle(dateStyle);
+            }
+
+            try (FileOutputStream outputStream = new FileOutputStream(workbookFile)) {
+                workbook.write(outputStream);
+            }
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteWorkbook() {
+        if (workbookFile != null) {
+            workbookFile.delete();
+        }
+    }
+
+    @Test
+    public void testStreamingReaderMatchesWorkbookReader() {
+        Object[][] expected = ExcelUtils.getTestData(workbookFile.getPath(), "TestCases");
+
+        List<Object[]> streamed = new ArrayList<>();
+        Iterator<Object[]> rows = ExcelUtils.streamTestData(workbookFile.getPath(), "TestCases");
+        while (rows.hasNext()) {
+            streamed.add(rows.next());
+        }
+
+        Assert.assertEquals(expected.length, 49);
+        Assert.assertEquals(streamed.size(), expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(streamed.get(i)[0], expected[i][0], "Row " + i);
+        }
+        // Columns keep the sheet's order, as in the CSV and JSON sources
+        Assert.assertEquals(new ArrayList<>(((Map<?, ?>) streamed.get(0)[0]).keySet()),
+                Arrays.asList("TestCaseID", "TestDescription", "Quantity", "Active", "CreatedOn"));
+    }
+
+    @Test
+    public void testRepeatReadsAreServedFromCache() {
+        Object[][] first = ExcelUtils.getTestData(workbookFile.getPath(), "TestCases");
+        long misses = ExcelSheetCache.getInstance().getMissCount();
+
+        Object[][] second = ExcelUtils.getTestData(workbookFile.getPath(), "TestCases");
+
+        Assert.assertEquals(ExcelSheetCache.getInstance().getMissCount(), misses);
+        Assert.assertSame(second[0][0], first[0][0]);
+        Assert.assertEquals(ExcelUtils.getSheetNames(workbookFile.getPath()), Arrays.asList("TestCases"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLookupByIdsKeepsSheetOrder() {
+        Object[][] rows = ExcelUtils.getTestDataByIds(workbookFile.getPath(), "TestCases", "TC_12", "TC_03", "TC_10", "TC_03");
+
+        Assert.assertEquals(rows.length, 2);
+        Assert.assertEquals(((Map<String, String>) rows[0][0]).get("TestCaseID"), "TC_03");
+        Assert.assertEquals(((Map<String, String>) rows[1][0]).get("TestCaseID"), "TC_12");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQueryFiltersAndProjectsRows() {
+        Object[][] rows = ExcelUtils.query(workbookFile.getPath(), "TestCases")
+                .where("Active", "true")
+                .whereIn("TestDescription", "Description 1", "Description 3")
+                .where("Quantity", quantity -> Integer.parseInt(quantity) > 30)
+                .select("TestCaseID", "Quantity")
+                .toArray();
+
+        // Even ids above 10 whose description number (id % 5) is 1 or 3, skipping multiples of 7
+        Assert.assertEquals(rows.length, 7);
+        Map<String, String> first = (Map<String, String>) rows[0][0];
+        Assert.assertEquals(first.keySet(), new LinkedHashSet<>(Arrays.asList("TestCaseID", "Quantity")));
+        Assert.assertEquals(first.get("TestCaseID"), "TC_16");
+        Assert.assertEquals(((Map<String, String>) rows[6][0]).get("TestCaseID"), "TC_48");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSnapshotMatchesWorkbook() throws IOException {
+        File snapshotFile = Files.createTempFile("testdata", ".tds").toFile();
+        try {
+            TestDataSnapshot.compile(workbookFile, snapshotFile);
+            TestDataSnapshot snapshot = TestDataSnapshot.open(snapshotFile);
+
+            Assert.assertTrue(snapshot.isCurrent(workbookFile));
+            Assert.assertEquals(snapshot.getSheetNames(), Arrays.asList("TestCases"));
+
+            Object[][] expected = ExcelUtils.getTestData(workbookFile.getPath(), "TestCases");
+            List<Map<String, String>> rows = snapshot.readSheet("TestCases");
+            Assert.assertEquals(rows.size(), expected.length);
+            for (int i = 0; i < expected.length; i++) {
+                Assert.assertEquals(rows.get(i), expected[i][0], "Row " + i);
+            }
+        } finally {
+            snapshotFile.delete();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamingWriterGeneratesRows() throws IOException {
+        File generatedFile = Files.createTempFile("generated", ".xlsx").toFile();
+        try {
+            ExcelDataCreator.createStreamingExcel(generatedFile.getPath(), "Billing", new String[]{"TestCaseID", "Quantity", "Note"},
+                    2500, rowIndex -> new String[]{"GEN_" + rowIndex, String.valueOf(rowIndex * 2), rowIndex % 2 == 0 ? null : "odd"});
+
+            List<Object[]> rows = new ArrayList<>();
+            ExcelUtils.streamTestData(generatedFile.getPath(), "Billing").forEachRemaining(rows::add);
+
+            // Rows beyond the in-memory window were flushed and must still all be written
+            Assert.assertEquals(rows.size(), 2500);
+            Map<String, String> last = (Map<String, String>) rows.get(2499)[0];
+            Assert.assertEquals(last.get("TestCaseID"), "GEN_2499");
+            Assert.assertEquals(last.get("Quantity"), "4998");
+            Assert.assertEquals(last.get("Note"), "odd");
+            Assert.assertEquals(((Map<String, String>) rows.get(0)[0]).get("Note"), "");
+        } finally {
+            generatedFile.delete();
+        }
+    }
+
+    @Test(expectedExceptions = RuntimeException.class)
+    public void testStreamingReaderRejectsUnknownSheet() {
+        ExcelUtils.streamTestData(workbookFile.getPath(), "Missing");
+    }
+}
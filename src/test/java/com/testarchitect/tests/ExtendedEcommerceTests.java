@@ -1,6 +1,8 @@
 package com.testarchitect.tests;
 
 import com.testarchitect.framework.config.BaseTest;
+import com.testarchitect.framework.config.TestDataProviders;
+import com.testarchitect.framework.models.TestCaseData;
 import com.testarchitect.framework.pages.*;
 import io.qameta.allure.*;
 import org.testng.annotations.Test;
@@ -12,16 +14,16 @@ import org.testng.annotations.Test;
 @Feature("Extended Functionality Testing")
 public class ExtendedEcommerceTests extends BaseTest {
 
-    @Test
+    @Test(dataProvider = "testCase", dataProviderClass = TestDataProviders.class)
     @Story("Guest Checkout")
     @Severity(SeverityLevel.NORMAL)
     @Description("TC_06: Verify users try to buy an item without logging in")
     @TmsLink("TC_06")
-    public void testUserTryToBuyItemWithoutLoggingIn() {
+    public void testUserTryToBuyItemWithoutLoggingIn(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_06";
-        String testDescription = "Verify users try to buy an item without logging in";
-        String expectedResult = "Guests should be able to purchase or system prompts login requirement";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -71,16 +73,16 @@ public class ExtendedEcommerceTests extends BaseTest {
         logger.info("=== Test Case {} completed successfully ===", testCaseId);
     }
 
-    @Test
+    @Test(dataProvider = "testCase", dataProviderClass = TestDataProviders.class)
     @Story("Error Handling")
     @Severity(SeverityLevel.CRITICAL)
     @Description("TC_07: Ensure proper error handling when mandatory fields are blank")
     @TmsLink("TC_07")
-    public void testErrorHandlingForMandatoryFields() {
+    public void testErrorHandlingForMandatoryFields(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_07";
-        String testDescription = "Ensure proper error handling when mandatory fields are blank";
-        String expectedResult = "Error messages displayed for mandatory fields";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -99,8 +101,7 @@ public class ExtendedEcommerceTests extends BaseTest {
         
         // Login and add item to cart
         logger.info("Step 1: Logging in and adding item to cart");
-        loginPage.openLoginPage(config.getAppUrl());
-        loginPage.loginWith("validuser@test.com", "password123");
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
         
         logger.info("Step 2: Selecting and adding product to cart");
         homePage = new HomePage();
@@ -126,16 +127,16 @@ public class ExtendedEcommerceTests extends BaseTest {
         logger.info("=== Test Case {} completed successfully ===", testCaseId);
     }
 
-    @Test
+    @Test(dataProvider = "testCase", dataProviderClass = TestDataProviders.class)
     @Story("Cart Management")
     @Severity(SeverityLevel.NORMAL)
     @Description("TC_08: Verify users can clear the cart")
     @TmsLink("TC_08")
-    public void testUserCanClearCart() {
+    public void testUserCanClearCart(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_08";
-        String testDescription = "Verify users can clear the cart";
-        String expectedResult = "Cart is cleared successfully and shows empty state";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -147,20 +148,16 @@ public class ExtendedEcommerceTests extends BaseTest {
         logger.info("Description: {}", testDescription);
         
         LoginPage loginPage = new LoginPage();
-        HomePage homePage;
         CartPage cartPage;
         
         // Login and add items to cart
         logger.info("Step 1: Logging in and adding items to cart");
-        loginPage.openLoginPage(config.getAppUrl());
-        loginPage.loginWith("validuser@test.com", "password123");
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
         
         logger.info("Step 2: Adding item to cart");
-        homePage = new HomePage();
-        homePage.addItemToCart(0);
+        cartPage = new CartPage().seedAndOpen(config.getAppUrl(), 1, 1);
         
         logger.info("Step 3: Verifying items are in cart");
-        cartPage = homePage.goToCart();
         cartPage.verifyItemsShowInTable();
         
         // Clear shopping cart
@@ -174,17 +171,17 @@ public class ExtendedEcommerceTests extends BaseTest {
         logger.info("=== Test Case {} completed successfully ===", testCaseId);
     }
 
-    @Test
+    @Test(dataProvider = "testCase", dataProviderClass = TestDataProviders.class)
     @Story("Cart Management")
     @Severity(SeverityLevel.NORMAL)
     @Description("TC_09: Verify users can update quantity of products in cart")
     @TmsLink("TC_09")
-    public void testUserCanUpdateProductQuantity() {
+    public void testUserCanUpdateProductQuantity(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_09";
-        String testDescription = "Verify users can update quantity of products in cart";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
         String newQuantity = "4";
-        String expectedResult = "Product quantity and subtotal are updated correctly";
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -198,22 +195,16 @@ public class ExtendedEcommerceTests extends BaseTest {
         logger.info("New Quantity: {}", newQuantity);
         
         LoginPage loginPage = new LoginPage();
-        HomePage homePage;
-        ProductPage productPage;
         CartPage cartPage;
         
         // Login and add item to cart
         logger.info("Step 1: Logging in and adding item to cart");
-        loginPage.openLoginPage(config.getAppUrl());
-        loginPage.loginWith("validuser@test.com", "password123");
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
         
-        logger.info("Step 2: Selecting and adding product to cart");
-        homePage = new HomePage();
-        productPage = homePage.selectRandomItem();
-        productPage.addToCart();
+        logger.info("Step 2: Adding product to cart");
+        cartPage = new CartPage().seedAndOpen(config.getAppUrl(), 1, 1);
         
         logger.info("Step 3: Verifying items are in cart");
-        cartPage = homePage.goToCart();
         cartPage.verifyItemsShowInTable();
         
         // Update quantity of product
@@ -227,18 +218,18 @@ public class ExtendedEcommerceTests extends BaseTest {
         logger.info("=== Test Case {} completed successfully ===", testCaseId);
     }
 
-    @Test
+    @Test(dataProvider = "testCase", dataProviderClass = TestDataProviders.class)
     @Story("Product Reviews")
     @Severity(SeverityLevel.NORMAL)
     @Description("TC_10: Verify users can post a review")
     @TmsLink("TC_10")
-    public void testUserCanPostReview() {
+    public void testUserCanPostReview(TestCaseData testCase) {
         // Test Details
-        String testCaseId = "TC_10";
-        String testDescription = "Verify users can post a review";
+        String testCaseId = testCase.getTestCaseId();
+        String testDescription = testCase.getDescription();
         String reviewText = "Excellent product! Highly recommended.";
         int rating = 5;
-        String expectedResult = "Review is posted and displayed successfully";
+        String expectedResult = testCase.getExpectedResult();
         
         // Add Allure parameters for reporting
         Allure.parameter("Test Case ID", testCaseId);
@@ -258,8 +249,7 @@ public class ExtendedEcommerceTests extends BaseTest {
         
         // Login
         logger.info("Step 1: Logging in");
-        loginPage.openLoginPage(config.getAppUrl());
-        loginPage.loginWith("validuser@test.com", "password123");
+        loginPage.loginWithCachedSession(config.getAppUrl(), account().getUsername(), account().getPassword());
         
         // Navigate to shop page
         logger.info("Step 2: Verifying user login and navigating to shop");
@@ -0,0 +1,131 @@
+package com.testarchitect.tests;
+
+import com.testarchitect.framework.models.TestAccount;
+import com.testarchitect.framework.server.LocalStorefront;
+import com.testarchitect.framework.utils.AccountPool;
+import com.testarchitect.framework.utils.OrderFixtures;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Test class to verify the local stand-in storefront over HTTP, without a browser
+ */
+public class LocalStorefrontTest {
+    private static final List<TestAccount> ACCOUNTS = Arrays.asList(
+            new TestAccount("first@test.com", "pw1"), new TestAccount("second@test.com", "pw2"));
+
+    private LocalStorefront storefront;
+
+    @BeforeClass
+    public void startStorefront() {
+        storefront = new LocalStorefront(0, ACCOUNTS, -1);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStorefront() {
+        storefront.stop();
+    }
+
+    @Test
+    public void testGuestCheckoutThroughPages() throws Exception {
+        HttpClient browser = newBrowser();
+        Assert.assertTrue(get(browser, "?add-to-cart=103&quantity=2").body().contains("has been added to your cart"));
+        String cart = get(browser, "cart/").body();
+        Assert.assertTrue(cart.contains("woocommerce-cart-form__cart-item"), "Cart must list the added product");
+        Assert.assertTrue(cart.contains("$13.00"), "Cart total must be 2 x $6.50");
+
+        String invalid = post(browser, "checkout/", "billing_first_name=John&payment_method=cod").body();
+        Assert.assertTrue(invalid.contains("woocommerce-error error-message"));
+        Assert.assertTrue(invalid.contains("Billing Street address is a required field."));
+
+        HttpResponse<String> received = post(browser, "checkout/", "billing_first_name=John&billing_last_name=Doe"
+                + "&billing_country=US&billing_address_1=1+Main+St&billing_city=Austin&billing_state=TX"
+                + "&billing_postcode=73301&billing_phone=555-0100&billing_email=john%40test.com&payment_method=cod");
+        Assert.assertTrue(received.uri().getPath().startsWith("/checkout/order-received/"), received.uri().toString());
+        Assert.assertTrue(received.body().contains("Thank you. Your order has been received."));
+        Assert.assertTrue(get(browser, "cart/").body().contains("Your shopping cart is empty"));
+    }
+
+    @Test
+    public void testFixtureOrdersAppearInTheAccountsHistory() throws Exception {
+        OrderFixtures fixtures = new OrderFixtures(storefront.getBaseUrl(), 2, 2, "cod", "wordpress_logged_in");
+        fixtures.prepare(new AccountPool(ACCOUNTS, 5000, 60000, false));
+        List<String> first = fixtures.getOrderIds(ACCOUNTS.get(0));
+        List<String> second = fixtures.getOrderIds(ACCOUNTS.get(1));
+        Assert.assertEquals(first.size(), 2);
+
+        HttpClient browser = newBrowser();
+        String loginForm = get(browser, "my-account/").body();
+        Matcher nonce = Pattern.compile("name=\"woocommerce-login-nonce\" value=\"([^\"]+)\"").matcher(loginForm);
+        Assert.assertTrue(nonce.find(), "My Account must show the login form");
+        post(browser, "my-account/", "username=first%40test.com&password=pw1&woocommerce-login-nonce=" + nonce.group(1));
+
+        String history = get(browser, "my-account/orders/").body();
+        for (String id : first) {
+            Assert.assertTrue(history.contains(">#" + id + "<"), "Order " + id + " must be in the history");
+        }
+        for (String id : second) {
+            Assert.assertFalse(history.contains(">#" + id + "<"), "Order " + id + " belongs to another account");
+        }
+    }
+
+    @Test
+    public void testStoreApiWritesNeedTheCartNonce() throws Exception {
+        HttpClient client = newBrowser();
+        HttpResponse<String> missing = send(client, HttpRequest.newBuilder(url("wp-json/wc/store/v1/cart/add-item"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"id\":101,\"quantity\":1}")));
+        Assert.assertEquals(missing.statusCode(), 401);
+        Assert.assertTrue(missing.body().contains("woocommerce_rest_missing_nonce"));
+
+        String nonce = get(client, "wp-json/wc/store/v1/cart").headers().firstValue("Nonce").orElseThrow();
+        HttpResponse<String> batch = send(client, HttpRequest.newBuilder(url("wp-json/wc/store/v1/batch"))
+                .header("Content-Type", "application/json")
+                .header("Nonce", nonce)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"requests\":["
+                        + "{\"path\":\"/wc/store/v1/cart/add-item\",\"method\":\"POST\",\"body\":{\"id\":101,\"quantity\":1}},"
+                        + "{\"path\":\"/wc/store/v1/cart/add-item\",\"method\":\"POST\",\"body\":{\"id\":999,\"quantity\":1}}]}")));
+        Assert.assertEquals(batch.statusCode(), 207);
+        Assert.assertTrue(batch.body().contains("\"status\":201") && batch.body().contains("\"status\":400"), batch.body());
+        Assert.assertTrue(get(client, "wp-json/wc/store/v1/cart").body().contains("\"items_count\":1"));
+    }
+
+    private static HttpClient newBrowser() {
+        return HttpClient.newBuilder()
+                .cookieHandler(new CookieManager(null, CookiePolicy.ACCEPT_ALL))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    private URI url(String path) {
+        return URI.create(storefront.getBaseUrl() + path);
+    }
+
+    private HttpResponse<String> get(HttpClient client, String path) throws IOException, InterruptedException {
+        return send(client, HttpRequest.newBuilder(url(path)).GET());
+    }
+
+    private HttpResponse<String> post(HttpClient client, String path, String form) throws IOException, InterruptedException {
+        return send(client, HttpRequest.newBuilder(url(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)));
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,172 @@
+package com.testarchitect.tests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.testarchitect.framework.models.TestAccount;
+import com.testarchitect.framework.utils.AccountPool;
+import com.testarchitect.framework.utils.OrderFixtures;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class to verify order history fixtures against a minimal WooCommerce-shaped HTTP stub
+ */
+public class OrderFixturesTest {
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger nextOrderId = new AtomicInteger(1000);
+    private final Map<String, List<String>> ordersByUser = new ConcurrentHashMap<>();
+    private final Map<String, Integer> cartByUser = new ConcurrentHashMap<>();
+    private final Map<String, Integer> itemsByOrder = new ConcurrentHashMap<>();
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/", this::handle);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testOrdersArePlacedPerAccountAndCached() {
+        OrderFixtures fixtures = newFixtures(2);
+        List<TestAccount> accounts = Arrays.asList(new TestAccount("a@test.com", "pw"),
+                new TestAccount("b@test.com", "pw"), new TestAccount("c@test.com", "pw"));
+        fixtures.prepare(new AccountPool(accounts, 5000, 60000, false));
+
+        Set<String> allIds = new HashSet<>();
+        for (TestAccount account : accounts) {
+            List<String> ids = fixtures.getOrderIds(account);
+            Assert.assertEquals(ids.size(), 2);
+            Assert.assertEquals(ids, ordersByUser.get(account.getUsername()), "Orders must belong to the account");
+            allIds.addAll(ids);
+        }
+        Assert.assertEquals(allIds.size(), 6);
+
+        // Cached: asking again places no new orders
+        Assert.assertEquals(fixtures.getOrderIds(accounts.get(0)), ordersByUser.get("a@test.com"));
+        Assert.assertEquals(fixtures.getOrdersCreatedCount(), 6);
+    }
+
+    @Test
+    public void testAccountsAreLeasedUntilTheirOrdersArePlaced() {
+        OrderFixtures fixtures = newFixtures(2);
+        List<TestAccount> accounts = Arrays.asList(new TestAccount("e@test.com", "pw"), new TestAccount("f@test.com", "pw"));
+        // Items another session of the customer left in the shared cart
+        cartByUser.put("e@test.com", 3);
+        AccountPool pool = new AccountPool(accounts, 5000, 60000, false);
+        fixtures.prepare(pool);
+
+        for (int i = 0; i < accounts.size(); i++) {
+            // A test only gets an account after its fixture orders are placed
+            AccountPool.Lease lease = pool.lease("test " + i);
+            List<String> placed = ordersByUser.get(lease.getAccount().getUsername());
+            Assert.assertNotNull(placed, lease.getAccount() + " was leased before its fixtures");
+            Assert.assertEquals(placed.size(), 2);
+        }
+        for (String id : fixtures.getOrderIds(accounts.get(0))) {
+            Assert.assertEquals(itemsByOrder.get(id), Integer.valueOf(1), "Order " + id + " must only hold the fixture product");
+        }
+    }
+
+    @Test
+    public void testRejectedLoginFailsAndIsRetried() {
+        OrderFixtures fixtures = newFixtures(1);
+        TestAccount account = new TestAccount("d@test.com", "wrong");
+
+        RuntimeException error = Assert.expectThrows(RuntimeException.class, () -> fixtures.getOrderIds(account));
+        Assert.assertTrue(error.getMessage().contains("rejected"), error.getMessage());
+
+        // The failure is not cached
+        Assert.expectThrows(RuntimeException.class, () -> fixtures.getOrderIds(account));
+        Assert.assertEquals(fixtures.getOrderIds(new TestAccount("d@test.com", "pw")).size(), 1);
+    }
+
+    private OrderFixtures newFixtures(int ordersPerAccount) {
+        return new OrderFixtures(baseUrl, ordersPerAccount, 3, "cod", "wordpress_logged_in");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String user = user(exchange);
+
+        if (path.equals("/my-account/") && "GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 200, "<form><input type=\"hidden\" name=\"woocommerce-login-nonce\" value=\"n0nce\" /></form>");
+        } else if (path.equals("/my-account/")) {
+            String username = URLDecoder.decode(body.replaceAll(".*username=([^&]*).*", "$1"), StandardCharsets.UTF_8);
+            if (body.contains("password=pw") && body.contains("woocommerce-login-nonce=n0nce")) {
+                exchange.getResponseHeaders().add("Set-Cookie", "wordpress_logged_in_abc=" + username.replace("@", "%40") + "; Path=/");
+            }
+            respond(exchange, 200, "<html></html>");
+        } else if (path.equals("/wp-admin/admin-ajax.php")) {
+            respond(exchange, user != null ? 200 : 400, user != null ? "abcdef1234" : "0");
+        } else if (path.equals("/wp-json/wc/store/v1/products")) {
+            respond(exchange, 200, "[{\"id\":11}]");
+        } else if (path.startsWith("/wp-json/wc/store/v1/")) {
+            // REST calls only count as the user with the REST nonce; writes also need the Store API nonce
+            boolean authenticated = user != null && "abcdef1234".equals(exchange.getRequestHeaders().getFirst("X-WP-Nonce"));
+            exchange.getResponseHeaders().add("Nonce", "store1");
+            if (path.endsWith("/cart")) {
+                respond(exchange, 200, "{\"items\":[]}");
+            } else if (!authenticated || !"store1".equals(exchange.getRequestHeaders().getFirst("Nonce"))) {
+                respond(exchange, 401, "{\"code\":\"woocommerce_rest_missing_nonce\"}");
+            } else if (path.endsWith("/cart/items") && "DELETE".equals(exchange.getRequestMethod())) {
+                cartByUser.remove(user);
+                respond(exchange, 200, "[]");
+            } else if (path.endsWith("/cart/add-item")) {
+                cartByUser.merge(user, 1, Integer::sum);
+                respond(exchange, 201, "{\"items_count\":" + cartByUser.get(user) + "}");
+            } else if (path.endsWith("/checkout") && cartByUser.getOrDefault(user, 0) > 0 && body.contains("\"payment_method\":\"cod\"")) {
+                String id = String.valueOf(nextOrderId.incrementAndGet());
+                itemsByOrder.put(id, cartByUser.remove(user));
+                ordersByUser.computeIfAbsent(user, u -> new ArrayList<>()).add(id);
+                respond(exchange, 200, "{\"order_id\":" + id + ",\"status\":\"processing\"}");
+            } else {
+                respond(exchange, 400, "{\"code\":\"woocommerce_rest_cart_empty\"}");
+            }
+        } else {
+            respond(exchange, 404, "");
+        }
+    }
+
+    private static String user(HttpExchange exchange) {
+        String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookies == null || !cookies.contains("wordpress_logged_in_abc=")) {
+            return null;
+        }
+        String value = cookies.replaceAll(".*wordpress_logged_in_abc=([^;]*).*", "$1");
+        return value.replace("%40", "@");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.testarchitect.tests;
+
+import com.testarchitect.framework.config.ConfigManager;
+import com.testarchitect.framework.config.ParallelSuiteListener;
+import com.testarchitect.framework.config.TestDataProviders;
+import com.testarchitect.framework.models.TestCaseData;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Test class to verify the DataProviders feeding the e-commerce tests
+ */
+public class TestDataProvidersTest {
+    private static final List<String> PAYMENT_METHODS =
+            Arrays.asList("Direct Bank Transfer", "Cash on Delivery", "Credit Card", "N/A");
+
+    private List<TestCaseData> rows(String testCaseId) {
+        ConfigManager config = ConfigManager.getInstance();
+        List<TestCaseData> rows = new ArrayList<>();
+        Iterator<Object[]> iterator = TestDataProviders.rows(config.getTestDataFile(), config.getTestDataSet(), testCaseId);
+        while (iterator.hasNext()) {
+            Object[] parameters = iterator.next();
+            Assert.assertEquals(parameters.length, 1);
+            rows.add((TestCaseData) parameters[0]);
+        }
+        return rows;
+    }
+
+    @Test
+    public void testEveryTestCaseHasData() {
+        for (int i = 1; i <= 11; i++) {
+            String testCaseId = String.format("TC_%02d", i);
+            List<TestCaseData> rows = rows(testCaseId);
+            Assert.assertFalse(rows.isEmpty(), testCaseId);
+            for (TestCaseData row : rows) {
+                Assert.assertEquals(row.getTestCaseId(), testCaseId);
+                Assert.assertTrue(row.getDescription().startsWith("Verify") || row.getDescription().startsWith("Ensure"),
+                        testCaseId + " description: " + row.getDescription());
+                Assert.assertFalse(row.getPrecondition().isEmpty(), testCaseId);
+                // A shifted column puts the steps elsewhere and some other text in PaymentMethod
+                Assert.assertTrue(row.getTestSteps().startsWith("1."), testCaseId + " steps: " + row.getTestSteps());
+                Assert.assertFalse(row.getExpectedResult().isEmpty(), testCaseId);
+                Assert.assertTrue(PAYMENT_METHODS.contains(row.getPaymentMethod()),
+                        testCaseId + " payment method: " + row.getPaymentMethod());
+            }
+        }
+        RuntimeException missing = Assert.expectThrows(RuntimeException.class, () -> rows("TC_99"));
+        Assert.assertTrue(missing.getMessage().contains("TC_99"), missing.getMessage());
+    }
+
+    @Test
+    public void testPaymentMethodsFanOutAsImmutableRows() {
+        List<TestCaseData> rows = rows("TC_03");
+        List<String> paymentMethods = new ArrayList<>();
+        for (TestCaseData row : rows) {
+            paymentMethods.add(row.getPaymentMethod());
+        }
+
+        Assert.assertEquals(paymentMethods, Arrays.asList("Direct Bank Transfer", "Cash on Delivery", "Credit Card"));
+        Assert.assertEquals(rows.get(2).toString(), "TC_03 [Credit Card]");
+        Assert.assertThrows(UnsupportedOperationException.class, () -> rows.get(0).getColumns().put("PaymentMethod", "changed"));
+    }
+
+    @Test
+    public void testDataProviderThreadsAreBoundedByBrowserPool() {
+        XmlSuite suite = new XmlSuite();
+        suite.setDataProviderThreadCount(50);
+
+        new ParallelSuiteListener().alter(Collections.singletonList(suite));
+
+        ConfigManager config = ConfigManager.getInstance();
+        Assert.assertEquals(suite.getDataProviderThreadCount(),
+                Math.min(config.getDataProviderThreadCount(), config.getBrowserPoolSize()));
+        Assert.assertTrue(suite.getDataProviderThreadCount() <= config.getBrowserPoolSize());
+    }
+}
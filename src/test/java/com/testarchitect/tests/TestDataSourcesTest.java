@@ -0,0 +1,132 @@
+package com.testarchitect.tests;
+
+import com.testarchitect.framework.data.TestDataSources;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class to verify every test data source follows the same row contract
+ */
+public class TestDataSourcesTest {
+    private static final String[] HEADERS = {"TestCaseID", "TestDescription", "PaymentMethod"};
+    private static final String[][] ROWS = {
+            {"TC_01", "Buy an item, then check \"order\" details", "Credit Card"},
+            {"TC_02", "Multi-line\ndescription", "Direct Bank Transfer"},
+            {"TC_03", "Ünïcödé description", ""}
+    };
+
+    private File directory;
+
+    @BeforeClass
+    public void createDataFiles() throws IOException {
+        directory = Files.createTempDirectory("testdata").toFile();
+
+        StringBuilder csv = new StringBuilder(String.join(",", HEADERS)).append("\r\n");
+        StringBuilder tsv = new StringBuilder(String.join("\t", HEADERS)).append("\n");
+        for (String[] row : ROWS) {
+            List<String> quoted = new ArrayList<>();
+            for (String value : row) {
+                quoted.add("\"" + value.replace("\"", "\"\"") + "\"");
+            }
+            csv.append(String.join(",", quoted)).append("\r\n");
+            tsv.append(String.join("\t", quoted)).append("\n");
+        }
+        // Blank lines are skipped like empty Excel rows
+        csv.append("\r\n");
+        write("testcases.csv", csv.toString());
+        write("testcases.tsv", tsv.toString());
+
+        StringBuilder json = new StringBuilder("{\"TestCases\": [");
+        for (int i = 0; i < ROWS.length; i++) {
+            json.append(i > 0 ? "," : "").append("{");
+            for (int j = 0; j < HEADERS.length; j++) {
+                json.append(j > 0 ? "," : "").append("\"").append(HEADERS[j]).append("\":")
+                        .append(ROWS[i][j].isEmpty() ? "null" : "\"" + ROWS[i][j].replace("\"", "\\\"").replace("\n", "\\n") + "\"");
+            }
+            json.append("}");
+        }
+        write("testcases.json", json.append("]}").toString());
+
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("TestCases");
+            Row header = sheet.createRow(0);
+            for (int j = 0; j < HEADERS.length; j++) {
+                header.createCell(j).setCellValue(HEADERS[j]);
+            }
+            for (int i = 0; i < ROWS.length; i++) {
+                Row row = sheet.createRow(i + 1);
+                for (int j = 0; j < HEADERS.length; j++) {
+                    if (!ROWS[i][j].isEmpty()) {
+                        row.createCell(j).setCellValue(ROWS[i][j]);
+                    }
+                }
+            }
+            try (FileOutputStream outputStream = new FileOutputStream(new File(directory, "testcases.xlsx"))) {
+                workbook.write(outputStream);
+            }
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDataFiles() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @DataProvider
+    public Object[][] dataFiles() {
+        return new Object[][]{{"testcases.xlsx"}, {"testcases.csv"}, {"testcases.tsv"}, {"testcases.json"}};
+    }
+
+    @Test(dataProvider = "dataFiles")
+    public void testSourceFollowsRowContract(String fileName) {
+        String filePath = new File(directory, fileName).getPath();
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        Iterator<Object[]> iterator = TestDataSources.dataProvider(filePath, "TestCases");
+        while (iterator.hasNext()) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> row = (Map<String, String>) iterator.next()[0];
+            rows.add(row);
+        }
+
+        Assert.assertEquals(rows.size(), ROWS.length);
+        for (int i = 0; i < ROWS.length; i++) {
+            Map<String, String> expected = new LinkedHashMap<>();
+            for (int j = 0; j < HEADERS.length; j++) {
+                expected.put(HEADERS[j], ROWS[i][j]);
+            }
+            Assert.assertEquals(rows.get(i), expected, fileName + " row " + i);
+            Assert.assertEquals(new ArrayList<>(rows.get(i).keySet()), Arrays.asList(HEADERS), fileName + " column order");
+        }
+        Assert.assertThrows(UnsupportedOperationException.class, () -> rows.get(0).put("TestCaseID", "changed"));
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        Files.write(new File(directory, fileName).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
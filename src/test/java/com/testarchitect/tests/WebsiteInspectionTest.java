@@ -13,7 +13,7 @@ public class WebsiteInspectionTest extends BaseTest {
     @Test
     public void inspectWebsiteStructure() {
         // Open the website
-        open("https://demo.testarchitect.com/");
+        open(config.getAppUrl());
         
         // Take a screenshot to see what we're working with
         screenshot("website-homepage");
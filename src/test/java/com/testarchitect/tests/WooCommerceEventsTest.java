@@ -0,0 +1,124 @@
+package com.testarchitect.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testarchitect.framework.driver.WooCommerceEvents;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test class to verify the WooCommerce settle condition. The recorder and await scripts run in Node.js
+ * against a minimal document and jQuery stand-in, so the test is skipped where node is not installed.
+ */
+public class WooCommerceEventsTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String PAGE =
+            "var performance = { timeOrigin: 1 };\n" +
+            "var handlers = [];\n" +
+            "var document = { readyState: 'complete', body: {}, querySelector: function() { return null; }, addEventListener: function() {} };\n" +
+            "var jQuery = function() { return { on: function(names, fn) {\n" +
+            "    names.split(' ').forEach(function(name) { handlers.push([name, fn]); });\n" +
+            "} }; };\n" +
+            "jQuery.active = 0;\n" +
+            "var window = { jQuery: jQuery, addEventListener: function() {} };\n" +
+            "function trigger(type) { handlers.forEach(function(h) { if (h[0] === type) { h[1]({ type: type }); } }); }\n";
+
+    @Test
+    public void testDebouncedCheckoutUpdatesSettleOnTheLastUpdatedCheckout() {
+        // checkout.js debounces the triggers of a batched billing fill into a single refresh
+        WebDriver driver = pageDriver("trigger('update_checkout'); trigger('update_checkout'); trigger('update_checkout');\n"
+                + "trigger('update_checkout'); setTimeout(function() { trigger('updated_checkout'); }, 300);");
+        long start = System.currentTimeMillis();
+        Assert.assertTrue(WooCommerceEvents.checkpoint(driver).await(5000));
+        Assert.assertTrue(System.currentTimeMillis() - start < 4000, "Must settle on updated_checkout, not the deadline");
+    }
+
+    @Test
+    public void testPendingCheckoutUpdateIsNotSettled() {
+        WebDriver driver = pageDriver("trigger('update_checkout'); trigger('updated_checkout'); trigger('update_checkout');");
+        Assert.assertFalse(WooCommerceEvents.checkpoint(driver).await(500));
+    }
+
+    @Test
+    public void testCheckoutErrorSettles() {
+        WebDriver driver = pageDriver("trigger('update_checkout'); trigger('update_checkout');\n"
+                + "setTimeout(function() { trigger('checkout_error'); }, 100);");
+        Assert.assertTrue(WooCommerceEvents.checkpoint(driver).await(5000, WooCommerceEvents.CHECKOUT_ERROR));
+    }
+
+    @Test
+    public void testUnloadedDocumentCountsAsNewDocument() {
+        // A non-AJAX add to cart posts the form, and the driver reports the unload as a script error
+        List<String> readyStates = new ArrayList<>(Arrays.asList("loading", "interactive", "complete"));
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(WooCommerceEventsTest.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "executeScript":
+                            return "return document.readyState".equals(args[0])
+                                    ? readyStates.remove(0) : Arrays.asList(Collections.emptyMap(), "1");
+                        case "executeAsyncScript":
+                            throw new JavascriptException("javascript error: document unloaded while waiting for result");
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        Assert.assertTrue(WooCommerceEvents.checkpoint(driver).await(5000, WooCommerceEvents.ADDED_TO_CART));
+        Assert.assertTrue(readyStates.isEmpty(), "Must wait until the new document is complete");
+    }
+
+    /**
+     * Driver whose scripts run in one Node.js page: synchronous scripts are replayed before the async
+     * script, then the scenario fires storefront events
+     */
+    private static WebDriver pageDriver(String scenario) {
+        List<String> scripts = new ArrayList<>();
+        return (WebDriver) Proxy.newProxyInstance(WooCommerceEventsTest.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "executeScript":
+                            scripts.add((String) args[0]);
+                            // Checkpoint taken on an untouched page: no events yet
+                            return Arrays.asList(Collections.emptyMap(), "1");
+                        case "executeAsyncScript":
+                            return runInNode(scripts, scenario, (String) args[0], Arrays.asList((Object[]) args[1]));
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Object runInNode(List<String> scripts, String scenario, String asyncScript, List<Object> args)
+            throws IOException, InterruptedException {
+        StringBuilder program = new StringBuilder("(function() {\n").append(PAGE);
+        for (String script : scripts) {
+            program.append("(function() {\n").append(script).append("\n})();\n");
+        }
+        program.append(scenario).append('\n')
+                .append("(function() {\n").append(asyncScript).append("\n}).apply(null, ")
+                .append(MAPPER.writeValueAsString(args))
+                .append(".concat([function(result) { console.log(JSON.stringify(result)); }]));\n")
+                .append("})();\n");
+
+        Process node;
+        try {
+            node = new ProcessBuilder("node", "-e", program.toString()).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            throw new SkipException("Node.js is not available: " + e.getMessage());
+        }
+        String output = new String(node.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        Assert.assertEquals(node.waitFor(), 0, output);
+        return MAPPER.readValue(output, Object.class);
+    }
+}